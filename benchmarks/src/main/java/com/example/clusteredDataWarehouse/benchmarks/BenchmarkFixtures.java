@@ -0,0 +1,100 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.ingest.DealIngestionQueue;
+import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.service.impl.DealRollupServiceImpl;
+import com.example.clusteredDataWarehouse.service.impl.DealServiceImpl;
+import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import com.example.clusteredDataWarehouse.util.DealCache;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.DealRequestValidator;
+import com.example.clusteredDataWarehouse.util.IdempotencyCache;
+import com.example.clusteredDataWarehouse.util.UniqueIdIndex;
+import com.example.clusteredDataWarehouse.validation.FromCurrencyRule;
+import com.example.clusteredDataWarehouse.validation.PositiveAmountRule;
+import com.example.clusteredDataWarehouse.validation.ToCurrencyRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    static final String DEAL_JSON =
+            "{\"uniqueId\":\"deal-0000000001\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1250000.75}";
+
+    private BenchmarkFixtures() {
+    }
+
+    static DealRequest dealRequest(String uniqueId) {
+        return DealRequest.builder()
+                .uniqueId(uniqueId)
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .amount(new BigDecimal("1250000.75"))
+                .build();
+    }
+
+    /**
+     * A service wired to an in-memory repository stub that reports every id as new, so only
+     * validation, mapping and caching costs are measured.
+     */
+    static DealServiceImpl dealServiceWithoutDatabase() {
+        return dealService(false);
+    }
+
+    /**
+     * A service whose repository stub reports every id as already stored, so every submit takes
+     * the duplicate rejection path.
+     */
+    static DealServiceImpl dealServiceWithExistingIds() {
+        return dealService(true);
+    }
+
+    private static DealServiceImpl dealService(boolean idsExist) {
+        DealProperties dealProperties = new DealProperties();
+        dealProperties.getRollup().setEnabled(false);
+        DealMetrics dealMetrics = new DealMetrics(new SimpleMeterRegistry());
+        DealRouter dealRouter = new DealRouter(dealProperties, new RestTemplateBuilder(), new ObjectMapper(), dealMetrics);
+        CurrencyValidator currencyValidator = new CurrencyValidator(dealProperties);
+        return new DealServiceImpl(
+                stubRepository(idsExist),
+                new DealRequestValidator(
+                        List.of(new PositiveAmountRule(), new FromCurrencyRule(currencyValidator), new ToCurrencyRule(currencyValidator)),
+                        Validation.buildDefaultValidatorFactory().getValidator(), dealProperties, dealMetrics),
+                dealProperties,
+                new UniqueIdIndex(null, dealProperties, dealRouter),
+                new DealIngestionQueue(dealProperties, new ObjectMapper()),
+                new DealRollupServiceImpl(null, dealProperties, null),
+                dealMetrics,
+                new IdempotencyCache(dealProperties),
+                dealRouter,
+                new DealCache(dealProperties),
+                TransactionOperations.withoutTransaction()
+        );
+    }
+
+    private static DealRepository stubRepository(boolean idsExist) {
+        return (DealRepository) Proxy.newProxyInstance(
+                DealRepository.class.getClassLoader(),
+                new Class<?>[]{DealRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "existsByUniqueId" -> idsExist;
+                    case "findExistingUniqueIds" -> Collections.emptySet();
+                    case "saveAndFlush" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubDealRepository";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyValidatorBenchmark {
+
+    @Param({"USD", "XYZ"})
+    private String currencyCode;
+
+    private CurrencyValidator currencyValidator;
+
+    // the validator's former HashSet lookup, as a baseline
+    private Set<String> currencyCodeSet;
+
+    @Setup
+    public void setUp() {
+        currencyValidator = new CurrencyValidator(new DealProperties());
+        currencyCodeSet = new HashSet<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            currencyCodeSet.add(currency.getCurrencyCode());
+        }
+        // a fresh String per trial, as Jackson produces for every request
+        currencyCode = new String(currencyCode.toCharArray());
+    }
+
+    @Benchmark
+    public boolean isValidCurrencyCode() {
+        return currencyValidator.isValidCurrencyCode(currencyCode);
+    }
+
+    @Benchmark
+    public boolean hashSetContains() {
+        return currencyCodeSet.contains(currencyCode);
+    }
+}
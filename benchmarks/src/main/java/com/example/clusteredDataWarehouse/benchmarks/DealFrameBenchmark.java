@@ -0,0 +1,81 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.ingest.DealFrameReader;
+import com.example.clusteredDataWarehouse.ingest.DealFrameWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one batch of deals from the JSON bulk body versus one binary frame; validation and
+ * persistence behind both are the same and left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealFrameBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private ObjectReader batchReader;
+
+    private byte[] jsonBatch;
+
+    private byte[] binaryBatch;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<DealRequest> deals = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            deals.add(DealRequest.builder()
+                    .uniqueId(String.format("deal-%010d", i))
+                    .fromCurrency("USD")
+                    .toCurrency("EUR")
+                    .amount(BigDecimal.valueOf(100_000 + i * 37L, 2))
+                    .build());
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        batchReader = objectMapper.readerFor(DealRequest[].class);
+        jsonBatch = objectMapper.writeValueAsBytes(deals);
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        DealFrameWriter writer = new DealFrameWriter(frames);
+        writer.writeFrame(deals);
+        writer.flush();
+        binaryBatch = frames.toByteArray();
+        System.out.printf("%n%d deals: JSON %d bytes, binary %d bytes%n", batchSize, jsonBatch.length, binaryBatch.length);
+    }
+
+    @Benchmark
+    public DealRequest[] json() throws IOException {
+        return batchReader.readValue(jsonBatch);
+    }
+
+    @Benchmark
+    public List<DealRequest> binary() throws IOException {
+        return new DealFrameReader(new ByteArrayInputStream(binaryBatch), Integer.MAX_VALUE).nextFrame();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.ClusteredDataWarehouseApplication;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.service.DealService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end submits through the Spring service layer against Postgres, with the Flyway schema,
+ * partitions and rollup upserts: new single deals, new bulks, and a stored deal submitted again,
+ * which the database reports as a duplicate. The database is a throw-away Postgres container, as
+ * in the load test, or with {@code -p database=existing} the datasource of application-dev.properties.
+ * H2 is not used: it does not enforce the unique id, so the duplicate path would not be measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealPersistenceBenchmark {
+
+    private static final String POSTGRES_IMAGE = "postgres:16-alpine";
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param("container")
+    private String database;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // ids from earlier runs stay in an existing database
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    private PostgreSQLContainer<?> postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private DealService dealService;
+
+    private DealRequest storedDeal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        switch (database) {
+            case "container" -> {
+                postgres = new PostgreSQLContainer<>(DockerImageName.parse(POSTGRES_IMAGE))
+                        .withDatabaseName("clustered_data");
+                postgres.start();
+                args.add("--spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+                args.add("--spring.datasource.username=" + postgres.getUsername());
+                args.add("--spring.datasource.password=" + postgres.getPassword());
+            }
+            case "existing" -> {
+                // the datasource of application-dev.properties
+            }
+            default -> throw new IllegalArgumentException("database must be container or existing, not " + database);
+        }
+        context = SpringApplication.run(ClusteredDataWarehouseApplication.class, args.toArray(String[]::new));
+        dealService = context.getBean(DealService.class);
+        storedDeal = BenchmarkFixtures.dealRequest(nextUniqueId());
+        dealService.submitRequest(storedDeal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public Object submitSingleDeal() {
+        return dealService.submitRequest(BenchmarkFixtures.dealRequest(nextUniqueId()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object submitBulkDeals() {
+        List<DealRequest> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkFixtures.dealRequest(nextUniqueId()));
+        }
+        return dealService.submitBulkRequest(batch);
+    }
+
+    @Benchmark
+    public Object submitDuplicateDeal() {
+        try {
+            return dealService.submitRequest(storedDeal);
+        } catch (DuplicateException ex) {
+            return ex;
+        }
+    }
+
+    private String nextUniqueId() {
+        return "bench-" + runId + "-" + sequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealRequestBindingBenchmark {
+
+    private final byte[] dealJson = BenchmarkFixtures.DEAL_JSON.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader dealReader;
+
+    private Validator validator;
+
+    private DealRequest dealRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        dealReader = new ObjectMapper().readerFor(DealRequest.class);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        dealRequest = dealReader.readValue(dealJson);
+    }
+
+    @Benchmark
+    public DealRequest deserialize() throws IOException {
+        return dealReader.readValue(dealJson);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<DealRequest>> beanValidation() {
+        return validator.validate(dealRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<DealRequest>> deserializeAndValidate() throws IOException {
+        DealRequest request = dealReader.readValue(dealJson);
+        return validator.validate(request);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.service.DealService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A valid single submit through {@link DealService#submitOwnedRequest}, the entry point the
+ * controller calls for a deal this node owns: the rules, the duplicate check, mapping and the
+ * cache. The repository is a stub, so no database time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealServiceBenchmark {
+
+    private DealService dealService;
+
+    private DealRequest dealRequest;
+
+    @Setup
+    public void setUp() {
+        dealService = BenchmarkFixtures.dealServiceWithoutDatabase();
+        dealRequest = BenchmarkFixtures.dealRequest("deal-0000000001");
+    }
+
+    @Benchmark
+    public Object submitOwnedRequest() {
+        return dealService.submitOwnedRequest(dealRequest);
+    }
+
+    @Benchmark
+    public Deal buildDeal() {
+        return Deal.builder()
+                .dealAmount(dealRequest.getAmount())
+                .fromCurrency(dealRequest.getFromCurrency())
+                .toCurrency(dealRequest.getToCurrency())
+                .uniqueId(dealRequest.getUniqueId())
+                .build();
+    }
+}
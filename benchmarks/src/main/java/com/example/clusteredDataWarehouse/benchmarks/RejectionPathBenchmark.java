@@ -0,0 +1,96 @@
+package com.example.clusteredDataWarehouse.benchmarks;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ErrorResponse;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.exception.CustomExceptionHandler;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.service.impl.DealServiceImpl;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.RejectionLogSampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of rejecting a duplicate deal: the service call that detects it, the exception and the
+ * error response. {@code stackDepth} puts the throw under as many frames as a request has below
+ * it in the servlet stack, since stack capture cost grows with depth.
+ * {@code withStackTrace} reproduces the former path - a fresh exception that fills in its
+ * stack trace and a newly built ErrorResponse; log output is left out of both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    @Param({"20", "120"})
+    private int stackDepth;
+
+    private DealServiceImpl dealService;
+
+    private CustomExceptionHandler exceptionHandler;
+
+    private DealRequest dealRequest;
+
+    @Setup
+    public void setUp() {
+        DealProperties dealProperties = new DealProperties();
+        dealService = BenchmarkFixtures.dealServiceWithExistingIds();
+        exceptionHandler = new CustomExceptionHandler(new DealMetrics(new SimpleMeterRegistry()),
+                new RejectionLogSampler(dealProperties));
+        dealRequest = BenchmarkFixtures.dealRequest("deal-0000000001");
+    }
+
+    @Benchmark
+    public ErrorResponse stackless() {
+        try {
+            atDepth(stackDepth, () -> dealService.submitRequest(dealRequest));
+            throw new IllegalStateException("expected a duplicate");
+        } catch (DuplicateException ex) {
+            return exceptionHandler.handleDuplicateException(ex);
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse withStackTrace() {
+        try {
+            atDepth(stackDepth, () -> {
+                try {
+                    return dealService.submitRequest(dealRequest);
+                } catch (DuplicateException ex) {
+                    throw new FilledDuplicateException(ex.getMessage());
+                }
+            });
+            throw new IllegalStateException("expected a duplicate");
+        } catch (FilledDuplicateException ex) {
+            return ErrorResponse.with(ResponseCodes.FAILURE.getValue(), ex.getMessage());
+        }
+    }
+
+    private static <T> T atDepth(int depth, Supplier<T> action) {
+        return depth <= 0 ? action.get() : atDepth(depth - 1, action);
+    }
+
+    private static final class FilledDuplicateException extends RuntimeException {
+        private FilledDuplicateException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.github.javafaker.Faker;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The deals of a profile, in order. Everything but the run prefix of the ids follows from the
+ * profile seed; the prefix keeps ids of one run from colliding with those a database already holds
+ * from earlier runs. Not thread-safe: one thread offers the deals.
+ */
+public class DealStream {
+
+    public enum DealKind {
+        NEW,
+        /** resubmits a recent new deal, as a client retrying a submit it lost the answer to */
+        DUPLICATE,
+        /** one currency code has its last letter mistyped into one no currency has */
+        INVALID_CURRENCY
+    }
+
+    @Value
+    public static class GeneratedDeal {
+        DealKind kind;
+        String clientId;
+        DealRequest dealRequest;
+    }
+
+    private static final int RECENT_DEALS = 10_000;
+
+    private static final Set<String> CURRENCY_CODES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toSet());
+
+    private final LoadProfile profile;
+
+    private final String runPrefix;
+
+    private final Random random;
+
+    private final Faker faker;
+
+    private final String[][] pairs;
+
+    private final double[] cumulativePairWeights;
+
+    private final DealRequest[] recentDeals = new DealRequest[RECENT_DEALS];
+
+    private long created;
+
+    private long sequence;
+
+    public DealStream(LoadProfile profile, String runPrefix) {
+        this.profile = profile;
+        this.runPrefix = runPrefix;
+        this.random = new Random(profile.getSeed());
+        this.faker = new Faker(new Random(profile.getSeed()));
+        List<String> configured = profile.getPairs();
+        this.pairs = configured.stream().map(pair -> pair.split("/")).toArray(String[][]::new);
+        // Zipf weights: the pair of rank r is picked in proportion to 1 / r^skew
+        this.cumulativePairWeights = new double[pairs.length];
+        double total = 0;
+        for (int rank = 0; rank < pairs.length; rank++) {
+            total += 1 / Math.pow(rank + 1, profile.getPairSkew());
+            cumulativePairWeights[rank] = total;
+        }
+        for (int rank = 0; rank < pairs.length; rank++) {
+            cumulativePairWeights[rank] /= total;
+        }
+    }
+
+    public GeneratedDeal next() {
+        String clientId = "load-" + random.nextInt(profile.getClients());
+        double kindDraw = random.nextDouble();
+        if (kindDraw < profile.getDuplicateRatio() && created > 0) {
+            DealRequest original = recentDeals[random.nextInt((int) Math.min(created, RECENT_DEALS))];
+            return new GeneratedDeal(DealKind.DUPLICATE, clientId, original);
+        }
+
+        String uniqueId = nextUniqueId();
+        String[] pair = pickPair();
+        if (kindDraw < profile.getDuplicateRatio() + profile.getInvalidCurrencyRatio()) {
+            pair = pair.clone();
+            int side = random.nextInt(2);
+            pair[side] = mistype(pair[side]);
+            return new GeneratedDeal(DealKind.INVALID_CURRENCY, clientId, dealRequest(uniqueId, pair));
+        }
+        DealRequest dealRequest = dealRequest(uniqueId, pair);
+        recentDeals[(int) (created++ % RECENT_DEALS)] = dealRequest;
+        return new GeneratedDeal(DealKind.NEW, clientId, dealRequest);
+    }
+
+    private String nextUniqueId() {
+        return switch (profile.getUniqueId()) {
+            case SEQUENTIAL -> runPrefix + String.format("%0" + profile.getUniqueIdLength() + "d", sequence++);
+            case RANDOM -> runPrefix + faker.lorem().characters(profile.getUniqueIdLength());
+            case UUID -> runPrefix + new UUID(random.nextLong(), random.nextLong());
+        };
+    }
+
+    private String[] pickPair() {
+        double draw = random.nextDouble();
+        for (int rank = 0; rank < cumulativePairWeights.length - 1; rank++) {
+            if (draw < cumulativePairWeights[rank]) {
+                return pairs[rank];
+            }
+        }
+        return pairs[pairs.length - 1];
+    }
+
+    private String mistype(String currencyCode) {
+        String typo;
+        do {
+            typo = currencyCode.substring(0, 2) + (char) ('A' + random.nextInt(26));
+        } while (CURRENCY_CODES.contains(typo));
+        return typo;
+    }
+
+    private DealRequest dealRequest(String uniqueId, String[] pair) {
+        return DealRequest.builder()
+                .uniqueId(uniqueId)
+                .fromCurrency(pair[0])
+                .toCurrency(pair[1])
+                .amount(BigDecimal.valueOf(faker.number().randomDouble(2,
+                        (long) profile.getAmountMin(), (long) profile.getAmountMax())))
+                .build();
+    }
+}
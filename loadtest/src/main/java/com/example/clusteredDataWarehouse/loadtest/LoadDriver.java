@@ -0,0 +1,188 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import com.example.clusteredDataWarehouse.loadtest.DealStream.DealKind;
+import com.example.clusteredDataWarehouse.loadtest.DealStream.GeneratedDeal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.CLIENT_ID_HEADER;
+
+/**
+ * Offers a profile's deals to the submit endpoint at its fixed rate, whether or not the node keeps
+ * up: an open model, as independent clients are. Each deal has the time it was due, and its latency
+ * runs from then, so a node that stalls is charged for the deals queued behind the stall rather
+ * than for the few that were sent. Rejections are not retried; the node's answers are the result.
+ */
+public class LoadDriver {
+
+    private final LoadProfile profile;
+
+    private final URI submitUri;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient client;
+
+    private final Semaphore inFlight;
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+
+    private final Map<DealKind, Map<String, LongAdder>> outcomes = new ConcurrentHashMap<>();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final AtomicLong lastCompletedNanos = new AtomicLong();
+
+    private long measureFromNanos;
+
+    public LoadDriver(LoadProfile profile, URI baseUri, ObjectMapper objectMapper) {
+        this.profile = profile;
+        this.submitUri = baseUri.resolve("/api/v1/fx-deals/submit");
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(profile.getTimeoutMs()))
+                .build();
+        this.inFlight = new Semaphore(profile.getMaxInFlight());
+    }
+
+    public LoadReport run(DealStream dealStream, String label) throws InterruptedException, JsonProcessingException {
+        String startedAt = Instant.now().toString();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.getRate();
+        long warmUpDeals = (long) profile.getRate() * profile.getWarmUpSeconds();
+        long totalDeals = warmUpDeals + (long) profile.getRate() * profile.getDurationSeconds();
+        long startNanos = System.nanoTime();
+        measureFromNanos = startNanos + warmUpDeals * intervalNanos;
+        long lastOfferedNanos = startNanos;
+
+        for (long index = 0; index < totalDeals; index++) {
+            GeneratedDeal deal = dealStream.next();
+            byte[] body = objectMapper.writeValueAsBytes(deal.getDealRequest());
+            long dueNanos = startNanos + index * intervalNanos;
+            long wait = dueNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            lastOfferedNanos = System.nanoTime();
+            offer(deal, body, dueNanos);
+        }
+
+        // the last deals are given their full timeout before the report is taken
+        if (inFlight.tryAcquire(profile.getMaxInFlight(), profile.getTimeoutMs() + 1_000L, TimeUnit.MILLISECONDS)) {
+            inFlight.release(profile.getMaxInFlight());
+        }
+        return report(label, startedAt, totalDeals - warmUpDeals, lastOfferedNanos);
+    }
+
+    private void offer(GeneratedDeal deal, byte[] body, long dueNanos) {
+        HttpRequest request = HttpRequest.newBuilder(submitUri)
+                .timeout(Duration.ofMillis(profile.getTimeoutMs()))
+                .header("Content-Type", "application/json")
+                .header(CLIENT_ID_HEADER, deal.getClientId())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    long now = System.nanoTime();
+                    // the slot is freed last, so a report taken once every slot is free counts every answer
+                    try {
+                        if (dueNanos >= measureFromNanos) {
+                            record(deal.getKind(), response, failure, now - dueNanos, now);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private void record(DealKind kind, HttpResponse<String> response, Throwable failure, long latencyNanos, long now) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        lastCompletedNanos.accumulateAndGet(now, Math::max);
+        completed.increment();
+        if (response != null && response.statusCode() == 200) {
+            accepted.increment();
+        }
+        outcomes.computeIfAbsent(kind, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(describe(response, failure), answer -> new LongAdder())
+                .increment();
+    }
+
+    private String describe(HttpResponse<String> response, Throwable failure) {
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            return cause instanceof HttpTimeoutException ? "timeout" : "error " + cause.getClass().getSimpleName();
+        }
+        String message = "";
+        try {
+            JsonNode answer = objectMapper.readTree(response.body());
+            if (answer.path("messages").isArray() && !answer.path("messages").isEmpty()) {
+                message = answer.path("messages").get(0).asText();
+            } else if (answer.hasNonNull("message")) {
+                message = answer.get("message").asText();
+            }
+        } catch (JsonProcessingException ex) {
+            // not an API answer, such as a proxy error page; the status says enough
+        }
+        return (response.statusCode() + " " + message).trim();
+    }
+
+    private LoadReport report(String label, String startedAt, long offered, long lastOfferedNanos) {
+        double offeredSeconds = Math.max(lastOfferedNanos - measureFromNanos, 1) / 1e9;
+        double completedSeconds = Math.max(lastCompletedNanos.get() - measureFromNanos, 1) / 1e9;
+
+        LoadReport report = new LoadReport();
+        report.setLabel(label);
+        report.setTarget(submitUri.toString());
+        report.setStartedAt(startedAt);
+        report.setProfile(profile);
+        report.setMeasuredSeconds(completedSeconds);
+        report.setOffered(offered);
+        report.setOfferedPerSecond(offered / offeredSeconds);
+        report.setCompleted(completed.sum());
+        report.setCompletedPerSecond(completed.sum() / completedSeconds);
+        report.setAcceptedPerSecond(accepted.sum() / completedSeconds);
+        report.getLatencyMs().put("p50", latencyMs(latencies.getValueAtPercentile(50)));
+        report.getLatencyMs().put("p90", latencyMs(latencies.getValueAtPercentile(90)));
+        report.getLatencyMs().put("p99", latencyMs(latencies.getValueAtPercentile(99)));
+        report.getLatencyMs().put("p99.9", latencyMs(latencies.getValueAtPercentile(99.9)));
+        report.getLatencyMs().put("max", latencyMs(latencies.getMaxValue()));
+        report.getLatencyMs().put("mean", latencies.getMean() / 1_000);
+        for (DealKind kind : DealKind.values()) {
+            Map<String, LongAdder> answers = outcomes.get(kind);
+            if (answers != null) {
+                Map<String, Long> counts = new TreeMap<>();
+                answers.forEach((answer, count) -> counts.put(answer, count.sum()));
+                report.getOutcomes().put(kind.name(), counts);
+            }
+        }
+        return report;
+    }
+
+    private static double latencyMs(long micros) {
+        return micros / 1_000.0;
+    }
+}
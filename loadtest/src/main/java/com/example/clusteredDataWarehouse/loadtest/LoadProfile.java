@@ -0,0 +1,132 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * A saved workload: how fast deals are offered and what they look like. Profiles live in
+ * {@code loadtest/profiles/<name>.properties}; with the same profile and seed two runs offer the
+ * same sequence of deals, so their reports compare releases rather than workloads.
+ */
+@Data
+public class LoadProfile {
+
+    public enum UniqueIdPattern {
+        /** a run prefix and a zero-padded counter, so ids arrive in index order */
+        SEQUENTIAL,
+        /** a run prefix and random letters and digits, like ids typed in by hand */
+        RANDOM,
+        /** a run prefix and a random UUID, spread over the run's part of the index */
+        UUID
+    }
+
+    private String name;
+
+    /** deals offered per second, whatever the node answers */
+    private int rate = 100;
+
+    private int durationSeconds = 60;
+
+    /** offered at the same rate before the measurement starts and left out of the report */
+    private int warmUpSeconds = 10;
+
+    /** submits in flight at most; beyond it offers wait, and the wait counts as latency */
+    private int maxInFlight = 64;
+
+    private int timeoutMs = 10_000;
+
+    /** distinct X-Client-Id values the deals are spread over */
+    private int clients = 10;
+
+    private long seed = 42;
+
+    /** share of deals that resubmit a valid deal already offered in this run */
+    private double duplicateRatio;
+
+    /** share of deals with one currency code mistyped */
+    private double invalidCurrencyRatio;
+
+    /** currency pairs as FROM/TO, most traded first */
+    private List<String> pairs = List.of("EUR/USD", "USD/JPY", "GBP/USD");
+
+    /** Zipf exponent over {@link #pairs}: 0 spreads deals evenly, 1 or more crowds the first pairs */
+    private double pairSkew = 1.0;
+
+    private UniqueIdPattern uniqueId = UniqueIdPattern.SEQUENTIAL;
+
+    private int uniqueIdLength = 15;
+
+    private double amountMin = 1_000;
+
+    private double amountMax = 1_000_000;
+
+    public static LoadProfile load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        LoadProfile profile = new LoadProfile();
+        String fileName = path.getFileName().toString();
+        profile.setName(fileName.endsWith(".properties")
+                ? fileName.substring(0, fileName.length() - ".properties".length()) : fileName);
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            switch (key) {
+                case "rate" -> profile.setRate(Integer.parseInt(value));
+                case "duration-seconds" -> profile.setDurationSeconds(Integer.parseInt(value));
+                case "warm-up-seconds" -> profile.setWarmUpSeconds(Integer.parseInt(value));
+                case "max-in-flight" -> profile.setMaxInFlight(Integer.parseInt(value));
+                case "timeout-ms" -> profile.setTimeoutMs(Integer.parseInt(value));
+                case "clients" -> profile.setClients(Integer.parseInt(value));
+                case "seed" -> profile.setSeed(Long.parseLong(value));
+                case "duplicate-ratio" -> profile.setDuplicateRatio(Double.parseDouble(value));
+                case "invalid-currency-ratio" -> profile.setInvalidCurrencyRatio(Double.parseDouble(value));
+                case "pairs" -> profile.setPairs(Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .filter(pair -> !pair.isEmpty())
+                        .collect(Collectors.toList()));
+                case "pair-skew" -> profile.setPairSkew(Double.parseDouble(value));
+                case "unique-id" -> profile.setUniqueId(UniqueIdPattern.valueOf(value.toUpperCase()));
+                case "unique-id-length" -> profile.setUniqueIdLength(Integer.parseInt(value));
+                case "amount-min" -> profile.setAmountMin(Double.parseDouble(value));
+                case "amount-max" -> profile.setAmountMax(Double.parseDouble(value));
+                default -> throw new IllegalArgumentException(path + " has an unknown setting '" + key + "'");
+            }
+        }
+        profile.validate();
+        return profile;
+    }
+
+    void validate() {
+        require(rate > 0, "rate must be positive");
+        require(durationSeconds > 0, "duration-seconds must be positive");
+        require(warmUpSeconds >= 0, "warm-up-seconds must not be negative");
+        require(maxInFlight > 0, "max-in-flight must be positive");
+        require(timeoutMs > 0, "timeout-ms must be positive");
+        require(clients > 0, "clients must be positive");
+        require(duplicateRatio >= 0 && invalidCurrencyRatio >= 0 && duplicateRatio + invalidCurrencyRatio <= 1,
+                "duplicate-ratio and invalid-currency-ratio must be between 0 and 1 together");
+        require(!pairs.isEmpty(), "pairs must not be empty");
+        for (String pair : pairs) {
+            require(pair.matches("[A-Z]{3}/[A-Z]{3}"), "pair '" + pair + "' is not FROM/TO");
+        }
+        require(pairSkew >= 0, "pair-skew must not be negative");
+        // the run prefix takes 9 characters and ids are at most 63; UUIDs ignore the length
+        require(uniqueIdLength >= 1 && uniqueIdLength <= 54, "unique-id-length must be between 1 and 54");
+        require(amountMin > 0 && amountMax >= amountMin, "amounts must be positive and amount-min at most amount-max");
+    }
+
+    private void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException("profile " + name + ": " + message);
+        }
+    }
+}
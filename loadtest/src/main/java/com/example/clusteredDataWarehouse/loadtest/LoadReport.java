@@ -0,0 +1,88 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import lombok.Data;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * What one run measured, saved as JSON next to the profile it ran so that runs of two releases can
+ * be put side by side with {@code --compare}. Latencies are taken from the moment a deal was due
+ * to be offered, so time spent waiting for a free in-flight slot counts against the node.
+ */
+@Data
+public class LoadReport {
+
+    private String label;
+
+    private String target;
+
+    private String startedAt;
+
+    private LoadProfile profile;
+
+    private double measuredSeconds;
+
+    private long offered;
+
+    private double offeredPerSecond;
+
+    private long completed;
+
+    private double completedPerSecond;
+
+    private double acceptedPerSecond;
+
+    /** p50, p90, p99, p99.9, max and mean, in milliseconds */
+    private Map<String, Double> latencyMs = new LinkedHashMap<>();
+
+    /** by deal kind, the count of each answer: status and first message, or the client-side error */
+    private Map<String, Map<String, Long>> outcomes = new LinkedHashMap<>();
+
+    public void print(PrintStream out) {
+        out.printf("%s on %s (%s), %.1f s measured%n", profile.getName(), target, label, measuredSeconds);
+        out.printf("  offered     %10d  %10.1f/s%n", offered, offeredPerSecond);
+        out.printf("  completed   %10d  %10.1f/s%n", completed, completedPerSecond);
+        out.printf("  accepted                %10.1f/s%n", acceptedPerSecond);
+        out.print("  latency ms ");
+        latencyMs.forEach((name, value) -> out.printf(" %s=%.1f", name, value));
+        out.println();
+        outcomes.forEach((kind, answers) -> {
+            out.printf("  %s%n", kind);
+            answers.forEach((answer, count) -> out.printf("    %8d  %s%n", count, answer));
+        });
+    }
+
+    /** This run against a baseline, figure by figure, with the change in percent. */
+    public void printComparison(LoadReport baseline, PrintStream out) {
+        if (!baseline.getProfile().equals(profile)) {
+            out.println("warning: the runs used different profiles, so the figures do not compare like for like");
+        }
+        out.printf("%-48s %14s %14s %9s%n", profile.getName(), baseline.getLabel(), label, "change");
+        compareLine(out, "offered/s", baseline.getOfferedPerSecond(), offeredPerSecond);
+        compareLine(out, "completed/s", baseline.getCompletedPerSecond(), completedPerSecond);
+        compareLine(out, "accepted/s", baseline.getAcceptedPerSecond(), acceptedPerSecond);
+        for (String name : latencyMs.keySet()) {
+            compareLine(out, "latency " + name + " ms", baseline.getLatencyMs().getOrDefault(name, 0.0),
+                    latencyMs.get(name));
+        }
+        TreeSet<String> kinds = new TreeSet<>(baseline.getOutcomes().keySet());
+        kinds.addAll(outcomes.keySet());
+        for (String kind : kinds) {
+            Map<String, Long> before = baseline.getOutcomes().getOrDefault(kind, Map.of());
+            Map<String, Long> after = outcomes.getOrDefault(kind, Map.of());
+            TreeSet<String> answers = new TreeSet<>(before.keySet());
+            answers.addAll(after.keySet());
+            for (String answer : answers) {
+                compareLine(out, kind + " " + answer, before.getOrDefault(answer, 0L), after.getOrDefault(answer, 0L));
+            }
+        }
+    }
+
+    private static void compareLine(PrintStream out, String name, double before, double after) {
+        String change = before == 0 ? (after == 0 ? "" : "new") : String.format("%+.1f%%", (after - before) * 100 / before);
+        out.printf("%-48s %14.1f %14.1f %9s%n", name, before, after, change);
+    }
+}
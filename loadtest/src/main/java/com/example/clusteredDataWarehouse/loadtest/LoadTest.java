@@ -0,0 +1,96 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a saved profile against a node and saves the report, or compares two saved reports.
+ *
+ * <pre>
+ * --profile=steady                 profiles/steady.properties, or a path to a profile file
+ * --target-url=http://host:8080    a running node; without it one is started here
+ * --database=container|existing    for the started node: a Postgres container (default) or its own datasource
+ * --label=1.4.0                    names the run, typically the release under test
+ * --results=results                where reports are saved, under a directory per profile
+ * --compare=base.json,new.json     prints the second report against the first instead of running
+ * --spring.*, --deals.*, ...       passed to the started node, e.g. --deals.limiter.enabled=false
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final DateTimeFormatter RUN_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> nodeArgs = new ArrayList<>();
+        for (String arg : argv) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            switch (name) {
+                case "profile", "target-url", "database", "label", "results", "compare" ->
+                        options.put(name, arg.substring(equals + 1));
+                default -> nodeArgs.add(arg);
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (options.containsKey("compare")) {
+            String[] reports = options.get("compare").split(",");
+            if (reports.length != 2) {
+                throw new IllegalArgumentException("--compare takes two report files, the baseline first");
+            }
+            LoadReport baseline = objectMapper.readValue(Path.of(reports[0]).toFile(), LoadReport.class);
+            LoadReport candidate = objectMapper.readValue(Path.of(reports[1]).toFile(), LoadReport.class);
+            candidate.printComparison(baseline, System.out);
+            return;
+        }
+
+        LoadProfile profile = LoadProfile.load(resolveProfile(options.getOrDefault("profile", "steady")));
+        String label = options.getOrDefault("label", "local");
+        LocalDateTime runTime = LocalDateTime.now();
+        // the second the run started, as six base-36 digits, keeps ids of separate runs apart
+        String runPrefix = "lt" + String.format("%6s", Long.toString(System.currentTimeMillis() / 1_000 % 2_176_782_336L, 36))
+                .replace(' ', '0') + "-";
+        DealStream dealStream = new DealStream(profile, runPrefix);
+
+        LoadReport report;
+        if (options.containsKey("target-url")) {
+            if (!nodeArgs.isEmpty()) {
+                throw new IllegalArgumentException(nodeArgs + " only apply to a node started here, not to --target-url");
+            }
+            report = new LoadDriver(profile, URI.create(options.get("target-url")), objectMapper).run(dealStream, label);
+        } else {
+            try (LocalInstance instance = LocalInstance.start(options.getOrDefault("database", "container"), nodeArgs)) {
+                report = new LoadDriver(profile, instance.baseUri(), objectMapper).run(dealStream, label);
+            }
+        }
+
+        report.print(System.out);
+        Path directory = Path.of(options.getOrDefault("results", "results"), profile.getName());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(label + "-" + RUN_TIME.format(runTime) + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        System.out.println("saved " + file);
+    }
+
+    private static Path resolveProfile(String profile) {
+        Path path = Path.of(profile);
+        return Files.isRegularFile(path) ? path : Path.of("profiles", profile + ".properties");
+    }
+}
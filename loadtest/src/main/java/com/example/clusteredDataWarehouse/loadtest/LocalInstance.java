@@ -0,0 +1,84 @@
+package com.example.clusteredDataWarehouse.loadtest;
+
+import com.example.clusteredDataWarehouse.ClusteredDataWarehouseApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node started in this JVM on a free port, for runs without a deployed instance. It shares the
+ * machine with the load, so compare its figures with other local runs only. The database is a
+ * throw-away Postgres container, or whatever the node's own datasource settings point at.
+ * H2 is not offered: it does not enforce the unique id, so duplicates would be accepted.
+ */
+final class LocalInstance implements AutoCloseable {
+
+    static final String POSTGRES_IMAGE = "postgres:16-alpine";
+
+    private final PostgreSQLContainer<?> postgres;
+
+    private final ConfigurableApplicationContext context;
+
+    private LocalInstance(PostgreSQLContainer<?> postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * @param database {@code container} for a fresh Postgres container, {@code existing} for the
+     *                 node's configured datasource
+     * @param nodeArgs further {@code --name=value} settings for the node
+     */
+    static LocalInstance start(String database, List<String> nodeArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // the profile's own warm-up period stands in for the node's
+                "--deals.warm-up.enabled=false"));
+        PostgreSQLContainer<?> postgres = null;
+        switch (database) {
+            case "container" -> {
+                postgres = new PostgreSQLContainer<>(DockerImageName.parse(POSTGRES_IMAGE))
+                        .withDatabaseName("clustered_data");
+                postgres.start();
+                args.add("--spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+                args.add("--spring.datasource.username=" + postgres.getUsername());
+                args.add("--spring.datasource.password=" + postgres.getPassword());
+            }
+            case "existing" -> {
+                // the datasource of application-dev.properties, unless nodeArgs override it
+            }
+            default -> throw new IllegalArgumentException("--database must be container or existing, not " + database);
+        }
+        args.addAll(nodeArgs);
+        try {
+            ConfigurableApplicationContext context = SpringApplication.run(ClusteredDataWarehouseApplication.class,
+                    args.toArray(String[]::new));
+            return new LocalInstance(postgres, context);
+        } catch (RuntimeException ex) {
+            if (postgres != null) {
+                postgres.stop();
+            }
+            throw ex;
+        }
+    }
+
+    URI baseUri() {
+        return URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.example.clusteredDataWarehouse;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ClusteredDataWarehouseApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,40 @@
+package com.example.clusteredDataWarehouse.cluster;
+
+import com.example.clusteredDataWarehouse.util.Hashing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps keys onto nodes. Every node is placed on a 64-bit ring at {@code virtualNodes} points and
+ * a key belongs to the first point at or after its hash, so adding or removing one node only
+ * moves the keys of that node's arcs.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    private final List<String> nodes;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("a hash ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(Hashing.hash64(node + "#" + i), node);
+            }
+        }
+    }
+
+    public String ownerOf(String key) {
+        Map.Entry<Long, String> point = ring.ceilingEntry(Hashing.hash64(key));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.clusteredDataWarehouse.cluster;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealStatusResponse;
+import com.example.clusteredDataWarehouse.exception.ForwardedRejectionException;
+import com.example.clusteredDataWarehouse.exception.NodeUnavailableException;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.FORWARDED_BY_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.IDEMPOTENT_REPLAY_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.OWNER_NODE_UNAVAILABLE;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.PEER_TOKEN_HEADER;
+
+/**
+ * Decides which node owns a uniqueId and forwards requests for foreign ids to their owner. Each
+ * id has exactly one owner, so its duplicate check, idempotency entry and insert all happen on
+ * one node and concurrent submits of the same id race only inside that node.
+ * Forwarded requests carry the {@code X-Deal-Forwarded-By} header and are never forwarded again.
+ * They also carry {@code X-Deal-Peer-Token}, the cluster's shared secret, which is what tells a
+ * peer from a client that merely sets the header.
+ */
+@Slf4j
+@Component
+public class DealRouter {
+
+    private static final String SUBMIT_PATH = "/api/v1/fx-deals/submit";
+    private static final String BULK_SUBMIT_PATH = "/api/v1/fx-deals/submit/bulk";
+    private static final String DEALS_PATH = "/api/v1/fx-deals";
+    private static final String CACHE_INVALIDATIONS_PATH = "/internal/v1/cluster/cache/invalidations";
+    // the owner's headers a client may act on; the rest describe the hop between the nodes
+    private static final List<String> RELAYED_HEADERS = List.of(IDEMPOTENT_REPLAY_HEADER, HttpHeaders.RETRY_AFTER);
+
+    private final boolean enabled;
+    private final String self;
+    private final byte[] peerToken;
+    private final ConsistentHashRing ring;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final DealMetrics dealMetrics;
+    private final long retryAfterSeconds;
+
+    public DealRouter(DealProperties dealProperties, RestTemplateBuilder restTemplateBuilder,
+                      ObjectMapper objectMapper, DealMetrics dealMetrics) {
+        DealProperties.Cluster cluster = dealProperties.getCluster();
+        this.enabled = cluster.isEnabled();
+        this.self = cluster.getSelf();
+        this.peerToken = cluster.getPeerToken().getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+        this.dealMetrics = dealMetrics;
+        this.retryAfterSeconds = dealProperties.getIngest().getRetryAfterSeconds();
+        if (enabled && !cluster.getNodes().contains(self)) {
+            throw new IllegalStateException("deals.cluster.self " + self + " is not one of deals.cluster.nodes " + cluster.getNodes());
+        }
+        if (enabled && cluster.getPeerToken().isBlank()) {
+            throw new IllegalStateException("deals.cluster.peer-token must be set in clustered mode");
+        }
+        this.ring = enabled ? new ConsistentHashRing(cluster.getNodes(), cluster.getVirtualNodes()) : null;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(cluster.getConnectTimeoutMs()))
+                .setReadTimeout(Duration.ofMillis(cluster.getForwardTimeoutMs()))
+                .errorHandler(new DefaultResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        return false;
+                    }
+                })
+                .build();
+        if (enabled) {
+            log.info("clustered mode: node {} of {}", self, cluster.getNodes());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    /**
+     * The owning node's base URL; ids that are null (and will fail validation) stay local.
+     */
+    public String ownerOf(String uniqueId) {
+        return !enabled || uniqueId == null ? self : ring.ownerOf(uniqueId);
+    }
+
+    /** Whether a request naming {@code node} as its sender and carrying {@code token} came from another node of the cluster. */
+    public boolean isPeer(String node, String token) {
+        return enabled && node != null && !self.equals(node) && ring.nodes().contains(node)
+                && token != null && MessageDigest.isEqual(peerToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isLocal(String uniqueId) {
+        return !enabled || uniqueId == null || self.equals(ring.ownerOf(uniqueId));
+    }
+
+    public ResponseEntity<ApiResponse> forwardSubmit(String node, DealRequest dealRequest) {
+        ResponseEntity<byte[]> response = forward(node, HttpMethod.POST, SUBMIT_PATH, dealRequest);
+        dealMetrics.forwarded(1);
+        return relay(response, read(node, response, ApiResponse.class));
+    }
+
+    public BulkDealResponse forwardBulk(String node, List<DealRequest> dealRequests) {
+        ResponseEntity<byte[]> response = forward(node, HttpMethod.POST, BULK_SUBMIT_PATH, dealRequests);
+        dealMetrics.forwarded(dealRequests.size());
+        return read(node, response, BulkDealResponse.class);
+    }
+
+    public ResponseEntity<DealStatusResponse> forwardStatus(String node, String uniqueId) {
+        String path = UriComponentsBuilder.fromPath(DEALS_PATH)
+                .pathSegment(uniqueId, "status")
+                .encode()
+                .toUriString();
+        ResponseEntity<byte[]> response = forward(node, HttpMethod.GET, path, null);
+        return relay(response, read(node, response, DealStatusResponse.class));
+    }
+
+    private static <T> ResponseEntity<T> relay(ResponseEntity<byte[]> response, T body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : RELAYED_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(body);
+    }
+
+    /**
+     * Asks every other node to drop its cached deals created in [from, to). Best effort: a node
+     * that cannot be reached keeps its entries until they expire, so the cache TTL bounds how
+     * long it may serve them.
+     */
+    public void broadcastCacheInvalidation(LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return;
+        }
+        String path = UriComponentsBuilder.fromPath(CACHE_INVALIDATIONS_PATH)
+                .queryParam("from", from)
+                .queryParam("to", to)
+                .toUriString();
+        for (String node : ring.nodes()) {
+            if (node.equals(self)) {
+                continue;
+            }
+            try {
+                forward(node, HttpMethod.POST, path, null);
+            } catch (NodeUnavailableException | ForwardedRejectionException ex) {
+                log.warn("cache invalidation of deals created between {} and {} did not reach {}", from, to, node);
+            }
+        }
+    }
+
+    private ResponseEntity<byte[]> forward(String node, HttpMethod method, String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set(FORWARDED_BY_HEADER, self);
+        headers.set(PEER_TOKEN_HEADER, new String(peerToken, StandardCharsets.UTF_8));
+        ResponseEntity<byte[]> response;
+        try {
+            response = restTemplate.exchange(URI.create(node + path), method, new HttpEntity<>(body, headers), byte[].class);
+        } catch (RestClientException ex) {
+            // the owner is the only node that can rule on its ids, so there is no fallback
+            log.warn("forwarding to {} failed: {}", node, ex.getMessage());
+            throw new NodeUnavailableException(OWNER_NODE_UNAVAILABLE, retryAfterSeconds);
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new ForwardedRejectionException(node, response.getStatusCode(), response.getHeaders(), response.getBody());
+        }
+        return response;
+    }
+
+    private <T> T read(String node, ResponseEntity<byte[]> response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response.getBody(), type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("unreadable response from " + node, ex);
+        }
+    }
+}
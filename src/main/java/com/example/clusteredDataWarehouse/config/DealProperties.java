@@ -0,0 +1,246 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.example.clusteredDataWarehouse.enums.IngestMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "deals")
+public class DealProperties {
+
+    private Bulk bulk = new Bulk();
+
+    private FileImport fileImport = new FileImport();
+
+    private Dedup dedup = new Dedup();
+
+    private Ingest ingest = new Ingest();
+
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    private Rollup rollup = new Rollup();
+
+    private Partitions partitions = new Partitions();
+
+    private Archive archive = new Archive();
+
+    private Rejections rejections = new Rejections();
+
+    private Idempotency idempotency = new Idempotency();
+
+    private Cache cache = new Cache();
+
+    private Cluster cluster = new Cluster();
+
+    private Datasource datasource = new Datasource();
+
+    private Binary binary = new Binary();
+
+    private Currencies currencies = new Currencies();
+
+    private Backfill backfill = new Backfill();
+
+    private Feed feed = new Feed();
+
+    private Validation validation = new Validation();
+
+    private WarmUp warmUp = new WarmUp();
+
+    private Limiter limiter = new Limiter();
+
+    @Data
+    public static class Bulk {
+        private int maxSize = 500_000;
+    }
+
+    @Data
+    public static class FileImport {
+        private String directory = "imports";
+        private int chunkSize = 5_000;
+        private boolean watchEnabled = false;
+        private long pollIntervalMs = 5_000;
+    }
+
+    @Data
+    public static class Dedup {
+        private boolean enabled = true;
+        private long expectedInsertions = 10_000_000;
+        private double falsePositiveProbability = 0.01;
+        private int warmUpFetchSize = 10_000;
+    }
+
+    @Data
+    public static class Ingest {
+        private IngestMode mode = IngestMode.SYNC;
+        private int queueCapacity = 10_000;
+        private int maxBatchSize = 500;
+        private long maxBatchDelayMs = 10;
+        private long retryAfterSeconds = 1;
+        private String journalDirectory = "journal";
+        private long journalSegmentBytes = 64L * 1024 * 1024;
+        private int statusCacheSize = 100_000;
+        private int maxWriteAttempts = 5;
+    }
+
+    @Data
+    public static class VirtualThreads {
+        private boolean enabled = false;
+        private long pinnedThresholdMs = 20;
+    }
+
+    @Data
+    public static class Rollup {
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Partitions {
+        private boolean enabled = true;
+        private int premakeMonths = 3;
+        // 0 keeps every partition attached
+        private int retentionMonths = 0;
+        private String maintenanceCron = "0 0 1 * * *";
+    }
+
+    @Data
+    public static class Archive {
+        private boolean enabled = false;
+        // every node reads archived ranges from here, so in clustered mode it must be storage they all mount
+        private String directory = "archive";
+        private int rowGroupSize = 65_536;
+        private int fetchSize = 10_000;
+        private String cron = "0 30 1 * * *";
+    }
+
+    @Data
+    public static class Rejections {
+        private long logIntervalMs = 10_000;
+    }
+
+    @Data
+    public static class Idempotency {
+        private boolean enabled = false;
+        private int maxEntries = 100_000;
+        private long ttlSeconds = 3_600;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        // W-TinyLFU bounded; an entry expires ttl-seconds after it was cached
+        private int maxEntries = 10_000;
+        private long ttlSeconds = 600;
+        // lock stripes by uniqueId hash, fewer when a stripe would hold under 1024 entries
+        private int stripes = 16;
+    }
+
+    @Data
+    public static class Cluster {
+        private boolean enabled = false;
+        // base URL of this node as the other nodes reach it; must be one of nodes
+        private String self = "";
+        private List<String> nodes = new ArrayList<>();
+        private int virtualNodes = 128;
+        private long connectTimeoutMs = 1_000;
+        private long forwardTimeoutMs = 30_000;
+        // shared secret the nodes send each other; a request without it is a client's, whatever it claims
+        private String peerToken = "";
+    }
+
+    @Data
+    public static class Binary {
+        private int maxFrameBytes = 16 * 1024 * 1024;
+    }
+
+    @Data
+    public static class Currencies {
+        // ISO codes accepted on deals; empty accepts every currency the JDK knows
+        private List<String> allowed = new ArrayList<>();
+    }
+
+    @Data
+    public static class Backfill {
+        // set to run the process as a one-off backfill of this file
+        private String file = "";
+        private int chunkSize = 100_000;
+        private int maxAttempts = 3;
+    }
+
+    @Data
+    public static class Validation {
+        // batches of at least this many deals are validated on the common fork-join pool
+        private int parallelThreshold = 2_048;
+        // the optional rules below are off unless set
+        private boolean rejectSameCurrencyPair = false;
+        private Integer maxAmountScale;
+        private BigDecimal maxNotional;
+    }
+
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+        // concurrent submits admitted; adapted between min and max from the persist latency
+        private int initialLimit = 50;
+        private int minLimit = 10;
+        private int maxLimit = 500;
+        // persist latency up to this multiple of its long-run average does not shrink the limit
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        // samples the long-run persist latency is averaged over
+        private int longWindow = 600;
+        // a request takes one permit of the limit per this much of its body, up to half the limit
+        private long bytesPerPermit = 65_536;
+        private long retryAfterSeconds = 1;
+    }
+
+    @Data
+    public static class WarmUp {
+        private boolean enabled = true;
+        // rounds of requests sent to the own HTTP port before readiness, bounded by max-duration-ms
+        private int rounds = 2_000;
+        private long maxDurationMs = 30_000;
+        // the CDS training run of the fast-start image exits once warmed up
+        private boolean exitWhenDone = false;
+    }
+
+    @Data
+    public static class Feed {
+        private boolean enabled = true;
+        private int batchSize = 1_000;
+        private long publishIntervalMs = 200;
+        private long maxWaitMs = 30_000;
+        private long streamTimeoutMs = 300_000;
+        private long retentionHours = 168;
+        private long purgeIntervalMs = 60_000;
+        // NDJSON file the "file" sink appends every change to; unset leaves the sink off
+        private String fileSink;
+    }
+
+    @Data
+    public static class Datasource {
+        private boolean replicaRouting = false;
+        private List<Replica> replicas = new ArrayList<>();
+        private long maxReplicaLagMs = 5_000;
+        private long lagCheckIntervalMs = 1_000;
+    }
+
+    @Data
+    public static class Replica {
+        // pool name, defaults to replica-<index>
+        private String name;
+        private String url;
+        // username and password default to the primary's
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        private long connectionTimeoutMs = 3_000;
+        private long maxLifetimeMs = 1_800_000;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.WARM_UP_HEADER;
+
+/**
+ * Serves the requests of {@link DealWarmUpRunner} off the record, so its deals do not show in the
+ * deal counters or the rejection log. The header is only honoured before the node is ready.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DealWarmUpFilter extends OncePerRequestFilter {
+
+    private final ApplicationAvailability applicationAvailability;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getHeader(WARM_UP_HEADER) == null
+                || applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (DealMetrics.Scope ignored = DealMetrics.offTheRecord()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
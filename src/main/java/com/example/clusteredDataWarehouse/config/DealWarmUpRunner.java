@@ -0,0 +1,147 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.service.DealService;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.WARM_UP_HEADER;
+
+/**
+ * Sends deals to the node's own HTTP port before it reports ready, so a fresh instance joins with
+ * the submit path (JSON binding, DealsController, DealServiceImpl, the rules and CurrencyValidator)
+ * already loaded and compiled. Application runners finish before the readiness state turns to
+ * ACCEPTING_TRAFFIC. The deals carry an unknown currency, so the rules reject them and nothing is
+ * written. Their uniqueIds are ones this node owns, so a clustered node keeps them rather than
+ * forwarding them, and they are marked as warm-up, so {@link DealWarmUpFilter} keeps them out of
+ * the deal counters and the rejection log.
+ *
+ * <p>The persist path (the batch insert and the rollup upsert) is warmed in process with valid
+ * deals, in a transaction that is rolled back.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DealWarmUpRunner implements ApplicationRunner {
+
+    static final String WARM_UP_CURRENCY = "ZZZ";
+
+    private static final int BULK_EVERY_ROUNDS = 50;
+
+    private static final int BULK_SIZE = 100;
+
+    private final DealProperties dealProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    private final DealService dealService;
+
+    private final TransactionOperations transactionOperations;
+
+    private final DealRouter dealRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DealProperties.WarmUp warmUp = dealProperties.getWarmUp();
+        // without a server (mock web environments) there is nothing to warm up
+        if (warmUp.isEnabled() && applicationContext instanceof WebServerApplicationContext webContext) {
+            warmUp(webContext.getWebServer().getPort(), warmUp);
+        }
+        if (warmUp.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void warmUp(int port, DealProperties.WarmUp warmUp) {
+        long started = System.currentTimeMillis();
+        long deadline = started + warmUp.getMaxDurationMs();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int round = 0;
+        try {
+            List<DealRequest> rejected = composeDealRequests("warm-up-", WARM_UP_CURRENCY);
+            HttpRequest single = submitRequest(port, "/submit", objectMapper.writeValueAsString(rejected.get(0)));
+            HttpRequest bulk = submitRequest(port, "/submit/bulk", objectMapper.writeValueAsString(rejected));
+            List<DealRequest> persisted = composeDealRequests("warm-up-persist-", "EUR");
+            for (; round < warmUp.getRounds() && System.currentTimeMillis() < deadline; round++) {
+                send(client, single, HttpStatus.UNPROCESSABLE_ENTITY);
+                if (round % BULK_EVERY_ROUNDS == 0) {
+                    send(client, bulk, HttpStatus.OK);
+                    persistRolledBack(persisted);
+                }
+            }
+            log.info("warmed up with {} rounds in {} ms", round, System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException ex) {
+            // a cold instance still serves correctly, so a failed warm-up must not keep it out
+            log.warn("warm-up stopped after {} rounds", round, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // the owned entry point, so a clustered node does not forward the share of its peers
+    private void persistRolledBack(List<DealRequest> dealRequests) {
+        transactionOperations.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try (DealMetrics.Scope ignored = DealMetrics.offTheRecord()) {
+                dealService.submitOwnedBulkRequest(dealRequests);
+            }
+        });
+    }
+
+    private static HttpRequest submitRequest(int port, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/fx-deals" + path))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header(WARM_UP_HEADER, "true")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void send(HttpClient client, HttpRequest request, HttpStatus expected)
+            throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != expected.value()) {
+            throw new IllegalStateException(request.uri() + " answered " + status);
+        }
+    }
+
+    // only ids this node owns, so nothing is forwarded to peers that may still be starting
+    private List<DealRequest> composeDealRequests(String prefix, String toCurrency) {
+        List<DealRequest> dealRequests = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; dealRequests.size() < BULK_SIZE; i++) {
+            if (dealRouter.isLocal(prefix + i)) {
+                dealRequests.add(DealRequest.builder()
+                        .uniqueId(prefix + i)
+                        .fromCurrency("USD")
+                        .toCurrency(toCurrency)
+                        .amount(BigDecimal.valueOf(1_000 + i))
+                        .build());
+            }
+        }
+        return dealRequests;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures how far each replica's replay is behind. A replica counts as 0 when it has replayed
+ * up to the primary's WAL position read just before, so an idle primary does not make it look
+ * stale; one that is not in recovery at all (a stand-in pointing at the primary) also counts as 0.
+ * A replica that is behind counts the time since its last replayed transaction, but only while
+ * its WAL receiver is streaming: one that stopped receiving cannot be shown to be current and
+ * counts as unmeasured, like one whose check failed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "deals.datasource", name = "replica-routing", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final String PRIMARY_LSN = "SELECT CAST(pg_current_wal_lsn() AS TEXT)";
+
+    private static final String LAG_MS = "SELECT CAST(CASE"
+            + " WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0"
+            + " WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000"
+            + " END AS BIGINT)";
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource, MeterRegistry meterRegistry) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+        for (HikariDataSource pool : replicaRoutingDataSource.replicaPools()) {
+            Gauge.builder("deals.replica.lag", () -> replicaRoutingDataSource.lagOf(pool.getPoolName()))
+                    .description("Replay lag of a read replica in ms; Long.MAX_VALUE when it could not be measured")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${deals.datasource.lag-check-interval-ms:1000}",
+            initialDelayString = "${deals.datasource.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        String primaryLsn;
+        try {
+            primaryLsn = new JdbcTemplate(replicaRoutingDataSource.primaryPool()).queryForObject(PRIMARY_LSN, String.class);
+        } catch (Exception ex) {
+            // without the primary's position no replica can be shown to be current
+            log.debug("reading the primary's WAL position failed: {}", ex.getMessage());
+            replicaRoutingDataSource.replicaPools().forEach(pool -> replicaRoutingDataSource.markUnavailable(pool.getPoolName()));
+            return;
+        }
+        for (HikariDataSource pool : replicaRoutingDataSource.replicaPools()) {
+            try {
+                Long lagMs = new JdbcTemplate(pool).queryForObject(LAG_MS, Long.class, primaryLsn);
+                replicaRoutingDataSource.recordLag(pool.getPoolName(), lagMs == null ? Long.MAX_VALUE : lagMs);
+            } catch (Exception ex) {
+                log.debug("lag check of replica {} failed: {}", pool.getPoolName(), ex.getMessage());
+                replicaRoutingDataSource.markUnavailable(pool.getPoolName());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool, tuned as usual through
+ * {@code spring.datasource.hikari.*}, and one pool per {@code deals.datasource.replicas[n]},
+ * each with its own size and timeouts.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "deals.datasource", name = "replica-routing", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             DealProperties dealProperties,
+                                                             MeterRegistry meterRegistry) {
+        DealProperties.Datasource datasource = dealProperties.getDatasource();
+        if (datasource.getReplicas().isEmpty()) {
+            throw new IllegalStateException("deals.datasource.replica-routing needs at least one deals.datasource.replicas entry");
+        }
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for (int i = 0; i < datasource.getReplicas().size(); i++) {
+            DealProperties.Replica replica = datasource.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName() != null ? replica.getName() : "replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setMinimumIdle(replica.getMinimumIdle());
+            pool.setConnectionTimeout(replica.getConnectionTimeoutMs());
+            pool.setMaxLifetime(replica.getMaxLifetimeMs());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaPools, datasource.getMaxReplicaLagMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else - writes, and
+ * reads outside a transaction such as the dedup warm-up - to the primary. Replicas take turns;
+ * one whose last measured lag is above {@code deals.datasource.max-replica-lag-ms}, or that
+ * could not be measured, is skipped, and with no replica left the read goes to the primary.
+ * Only works behind a LazyConnectionDataSourceProxy, so the connection is fetched after the
+ * transaction's read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final long maxLagMs;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, long maxLagMs) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name(), replica.pool));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMs <= maxLagMs) {
+                return replica.name();
+            }
+        }
+        return PRIMARY;
+    }
+
+    public HikariDataSource primaryPool() {
+        return primary;
+    }
+
+    public List<HikariDataSource> replicaPools() {
+        return replicas.stream().map(replica -> replica.pool).toList();
+    }
+
+    public long lagOf(String replicaName) {
+        return find(replicaName).lagMs;
+    }
+
+    public void recordLag(String replicaName, long lagMs) {
+        Replica replica = find(replicaName);
+        boolean wasUsable = replica.lagMs <= maxLagMs;
+        replica.lagMs = lagMs;
+        if (wasUsable != lagMs <= maxLagMs) {
+            log.warn("replica {} {} (lag {} ms, limit {} ms)", replicaName,
+                    wasUsable ? "out of read rotation" : "in read rotation", lagMs, maxLagMs);
+        }
+    }
+
+    public void markUnavailable(String replicaName) {
+        recordLag(replicaName, Long.MAX_VALUE);
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Replica find(String replicaName) {
+        for (Replica replica : replicas) {
+            if (replica.name().equals(replicaName)) {
+                return replica;
+            }
+        }
+        throw new IllegalArgumentException("unknown replica " + replicaName);
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        // unmeasured replicas stay out of rotation until the first lag check
+        private volatile long lagMs = Long.MAX_VALUE;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.clusteredDataWarehouse.config;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.limit.AdaptiveConcurrencyLimiter;
+import com.example.clusteredDataWarehouse.limit.SubmitLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the submit endpoints of DealsController behind the {@link AdaptiveConcurrencyLimiter}.
+ * Reads, imports and the change feed are not limited.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "deals.limiter", name = "enabled", matchIfMissing = true)
+public class SubmitLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    private final DealRouter dealRouter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SubmitLimitInterceptor(adaptiveConcurrencyLimiter, dealRouter))
+                .addPathPatterns("/api/v1/fx-deals/submit", "/api/v1/fx-deals/submit/**");
+    }
+}
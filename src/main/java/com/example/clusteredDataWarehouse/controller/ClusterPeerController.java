@@ -0,0 +1,48 @@
+package com.example.clusteredDataWarehouse.controller;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.FORWARDED_BY_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.NOT_A_CLUSTER_PEER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.PEER_TOKEN_HEADER;
+
+/**
+ * Calls the nodes of a cluster make on each other and clients have no use for. Only requests
+ * naming another configured node in {@code X-Deal-Forwarded-By} and carrying the cluster's
+ * {@code X-Deal-Peer-Token} are answered; keep the {@code /internal} paths off the public load balancer.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/internal/v1/cluster")
+public class ClusterPeerController {
+
+    private final DealRouter dealRouter;
+
+    private final DealQueryService dealQueryService;
+
+    @PostMapping("/cache/invalidations")
+    public ResponseEntity<ApiResponse> invalidateCachedDeals(@RequestHeader(value = FORWARDED_BY_HEADER, required = false) String forwardedBy,
+                                                             @RequestHeader(value = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        if (!dealRouter.isPeer(forwardedBy, peerToken)) {
+            throw new ValidationException(NOT_A_CLUSTER_PEER);
+        }
+        return dealQueryService.invalidateCachedDeals(from, to, true);
+    }
+}
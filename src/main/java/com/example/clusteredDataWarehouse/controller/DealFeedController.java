@@ -0,0 +1,41 @@
+package com.example.clusteredDataWarehouse.controller;
+
+import com.example.clusteredDataWarehouse.dto.response.DealFeedResponse;
+import com.example.clusteredDataWarehouse.service.DealFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "deals.feed", name = "enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/fx-deals/feed")
+public class DealFeedController {
+
+    private final DealFeedService dealFeedService;
+
+
+    @GetMapping
+    public ResponseEntity<DealFeedResponse> getChanges(@RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer size,
+                                                       @RequestParam(required = false) Long waitMs){
+        return dealFeedService.getChanges(after, size, waitMs);
+    }
+
+    // a reconnecting EventSource resumes from the id of the last batch it received
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                    @RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Integer size){
+        return dealFeedService.streamChanges(after != null ? after : lastEventId, size);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.clusteredDataWarehouse.controller;
+
+import com.example.clusteredDataWarehouse.dto.response.ImportProgress;
+import com.example.clusteredDataWarehouse.service.DealImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/fx-deals/imports")
+public class DealImportController {
+
+    private final DealImportService dealImportService;
+
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportProgress> uploadFile(@RequestParam("file") MultipartFile file){
+        return dealImportService.uploadFile(file);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportProgress>> getAllProgress(){
+        return dealImportService.getAllProgress();
+    }
+
+    @GetMapping("/{fileName}")
+    public ResponseEntity<ImportProgress> getProgress(@PathVariable String fileName){
+        return dealImportService.getProgress(fileName);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.clusteredDataWarehouse.controller;
+
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealRollupResponse;
+import com.example.clusteredDataWarehouse.enums.RollupGranularity;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/fx-deals/rollups")
+public class DealRollupController {
+
+    private final DealRollupService dealRollupService;
+
+
+    @GetMapping
+    public ResponseEntity<List<DealRollupResponse>> getRollups(@RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+                                                               @RequestParam(required = false) String fromCurrency,
+                                                               @RequestParam(required = false) String toCurrency,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        return dealRollupService.getRollups(granularity, fromCurrency, toCurrency, from, to);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<ApiResponse> rebuild(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        return dealRollupService.rebuild(from, to);
+    }
+}
@@ -1,26 +1,95 @@
 package com.example.clusteredDataWarehouse.controller;
 
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
 import com.example.clusteredDataWarehouse.dto.request.DealRequest;
 import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealPageResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealStatusResponse;
+import com.example.clusteredDataWarehouse.ingest.DealFrames;
+import com.example.clusteredDataWarehouse.service.DealFrameIngestService;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
 import com.example.clusteredDataWarehouse.service.DealService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.FORWARDED_BY_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.PEER_TOKEN_HEADER;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/fx-deals")
 public class DealsController {
 
     private final DealService dealService;
 
+    private final DealQueryService dealQueryService;
+
+    private final DealFrameIngestService dealFrameIngestService;
+
+    // a request that is not an authenticated peer's is routed like any other, whatever headers it sets
+    private final DealRouter dealRouter;
+
 
     @PostMapping("/submit")
-    public ResponseEntity<ApiResponse> submitDeal(@RequestBody @Valid DealRequest dealRequest){
-        return dealService.submitRequest(dealRequest);
+    public ResponseEntity<ApiResponse> submitDeal(@RequestHeader(value = FORWARDED_BY_HEADER, required = false) String forwardedBy,
+                                                  @RequestHeader(value = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                                  @RequestBody @Valid DealRequest dealRequest){
+        return dealRouter.isPeer(forwardedBy, peerToken)
+                ? dealService.submitOwnedRequest(dealRequest) : dealService.submitRequest(dealRequest);
+    }
+
+    @PostMapping("/submit/bulk")
+    public ResponseEntity<BulkDealResponse> submitDeals(@RequestHeader(value = FORWARDED_BY_HEADER, required = false) String forwardedBy,
+                                                        @RequestHeader(value = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                                        @RequestBody List<DealRequest> dealRequests){
+        return dealRouter.isPeer(forwardedBy, peerToken)
+                ? dealService.submitOwnedBulkRequest(dealRequests) : dealService.submitBulkRequest(dealRequests);
+    }
+
+    @PostMapping(value = "/submit/binary", consumes = DealFrames.MEDIA_TYPE)
+    public ResponseEntity<BulkDealResponse> submitDealFrames(InputStream frames) throws IOException {
+        return dealFrameIngestService.submitFrames(frames);
+    }
+
+    @GetMapping("/{uniqueId}/status")
+    public ResponseEntity<DealStatusResponse> getDealStatus(@RequestHeader(value = FORWARDED_BY_HEADER, required = false) String forwardedBy,
+                                                            @RequestHeader(value = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                                            @PathVariable String uniqueId){
+        return dealRouter.isPeer(forwardedBy, peerToken)
+                ? dealService.getOwnedStatus(uniqueId) : dealService.getStatus(uniqueId);
+    }
+
+    @GetMapping("/{uniqueId}")
+    public ResponseEntity<DealResponse> getDeal(@PathVariable String uniqueId){
+        return dealQueryService.getDeal(uniqueId);
+    }
+
+    @GetMapping
+    public ResponseEntity<DealPageResponse> listDeals(@RequestParam(required = false) String fromCurrency,
+                                                      @RequestParam(required = false) String toCurrency,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size){
+        return dealQueryService.listDeals(fromCurrency, toCurrency, from, to, cursor, size);
     }
 }
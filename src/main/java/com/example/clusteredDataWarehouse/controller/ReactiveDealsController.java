@@ -0,0 +1,48 @@
+package com.example.clusteredDataWarehouse.controller;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.service.ReactiveDealService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The ingestion part of {@link DealsController} on the reactive runtime.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/fx-deals")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDealsController {
+
+    private final ReactiveDealService reactiveDealService;
+
+
+    @PostMapping("/submit")
+    public Mono<ResponseEntity<ApiResponse>> submitDeal(@RequestBody @Valid DealRequest dealRequest){
+        return reactiveDealService.submitRequest(dealRequest);
+    }
+
+    @PostMapping("/submit/bulk")
+    public Mono<ResponseEntity<BulkDealResponse>> submitDeals(@RequestBody List<DealRequest> dealRequests){
+        return reactiveDealService.submitBulkRequest(dealRequests);
+    }
+
+    @GetMapping("/{uniqueId}")
+    public Mono<ResponseEntity<DealResponse>> getDeal(@PathVariable String uniqueId){
+        return reactiveDealService.getDeal(uniqueId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillReport {
+    private String fileName;
+    private long rowsRead;
+    private long loaded;
+    private long duplicates;
+    private long invalid;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,66 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.BULK_PROCESSED;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkDealResponse {
+    private String code;
+    private String message;
+    private int accepted;
+    private int duplicates;
+    private int invalid;
+    private int unavailable;
+    private List<DealItemResult> results;
+    // binary streams only: the frame that could not be read, its first deal's stream position, and why
+    private Integer failedFrame;
+    private Integer failedAt;
+    private String error;
+
+    public static BulkDealResponse of(List<DealItemResult> results) {
+        int accepted = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        int unavailable = 0;
+        for (DealItemResult result : results) {
+            switch (result.getStatus()) {
+                case ACCEPTED -> accepted++;
+                case DUPLICATE -> duplicates++;
+                case INVALID -> invalid++;
+                case UNAVAILABLE -> unavailable++;
+            }
+        }
+
+        return summarize(accepted, duplicates, invalid, unavailable, results);
+    }
+
+    public static BulkDealResponse summarize(int accepted, int duplicates, int invalid, int unavailable,
+                                             List<DealItemResult> results) {
+        int total = accepted + duplicates + invalid + unavailable;
+        ResponseCodes code = accepted == total ? ResponseCodes.SUCCESS
+                : accepted == 0 ? ResponseCodes.FAILURE
+                : ResponseCodes.PARTIAL_SUCCESS;
+
+        return BulkDealResponse.builder()
+                .code(code.getValue())
+                .message(BULK_PROCESSED)
+                .accepted(accepted)
+                .duplicates(duplicates)
+                .invalid(invalid)
+                .unavailable(unavailable)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealFeedItem {
+    private long position;
+    private String uniqueId;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealFeedResponse {
+    private List<DealFeedItem> deals;
+    private int size;
+    // pass as after to continue behind this batch; unchanged when the batch is empty
+    private long lastPosition;
+}
@@ -0,0 +1,22 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DealItemResult {
+    private int index;
+    private String uniqueId;
+    private DealItemStatus status;
+    private List<String> messages;
+}
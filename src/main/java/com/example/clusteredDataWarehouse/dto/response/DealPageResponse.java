@@ -0,0 +1,20 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DealPageResponse {
+    private List<DealResponse> deals;
+    private int size;
+    private String nextCursor;
+}
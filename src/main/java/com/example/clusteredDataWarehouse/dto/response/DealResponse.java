@@ -0,0 +1,34 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DealResponse {
+    private String uniqueId;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+
+    public static DealResponse from(Deal deal) {
+        return DealResponse.builder()
+                .uniqueId(deal.getUniqueId())
+                .fromCurrency(deal.getFromCurrency())
+                .toCurrency(deal.getToCurrency())
+                .amount(deal.getDealAmount())
+                .createdAt(deal.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealRollupResponse {
+    private String fromCurrency;
+    private String toCurrency;
+    private LocalDateTime bucketStart;
+    private long count;
+    private BigDecimal totalAmount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public static DealRollupResponse from(DealRollup rollup) {
+        return DealRollupResponse.builder()
+                .fromCurrency(rollup.getFromCurrency())
+                .toCurrency(rollup.getToCurrency())
+                .bucketStart(rollup.getBucketStart())
+                .count(rollup.getDealCount())
+                .totalAmount(rollup.getTotalAmount())
+                .minAmount(rollup.getMinAmount())
+                .maxAmount(rollup.getMaxAmount())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.clusteredDataWarehouse.dto.response;
+
+import com.example.clusteredDataWarehouse.enums.PersistenceState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DealStatusResponse {
+    private String uniqueId;
+    private PersistenceState state;
+}
@@ -1,17 +1,23 @@
 package com.example.clusteredDataWarehouse.dto.response;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-@Data
+@Value
 @Builder
 public class ErrorResponse {
 
-    private String code;
-    private List<String> messages;
+    private static final int MAX_CACHED = 256;
+
+    private static final Map<String, Map<String, ErrorResponse>> CACHE = new ConcurrentHashMap<>();
+
+    String code;
+    List<String> messages;
 
     public static ErrorResponse with (String code, String message){
         return ErrorResponse.builder()
@@ -19,4 +25,21 @@ public class ErrorResponse {
                 .messages(Collections.singletonList(message))
                 .build();
     }
+
+    /**
+     * A shared instance for a code and a constant message, such as the rejections built from
+     * {@code MessageConstants}; instances are immutable, so one per message is enough.
+     */
+    public static ErrorResponse cached(String code, String message){
+        Map<String, ErrorResponse> byMessage = CACHE.computeIfAbsent(code, key -> new ConcurrentHashMap<>());
+        ErrorResponse response = byMessage.get(message);
+        if (response != null) {
+            return response;
+        }
+        response = with(code, message);
+        if (byMessage.size() < MAX_CACHED) {
+            byMessage.putIfAbsent(message, response);
+        }
+        return response;
+    }
 }
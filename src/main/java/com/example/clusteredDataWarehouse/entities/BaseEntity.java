@@ -13,8 +13,11 @@ import java.time.LocalDateTime;
 @Setter
 public class BaseEntity {
 
+    // SEQUENCE (not IDENTITY) so Hibernate can pre-allocate ids and group inserts into JDBC batches;
+    // allocationSize should stay in line with hibernate.jdbc.batch_size.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deals_seq")
+    @SequenceGenerator(name = "deals_seq", sequenceName = "DEALS_SEQ", allocationSize = 500)
     private Long id;
 
     @CreationTimestamp
@@ -0,0 +1,30 @@
+package com.example.clusteredDataWarehouse.entities;
+
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a currency code as its {@link CurrencyCodes} SMALLINT; loaded codes are the shared
+ * String instances of CurrencyCodes.
+ */
+@Converter
+public class CurrencyCodeConverter implements AttributeConverter<String, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(String isoCode) {
+        if (isoCode == null) {
+            return null;
+        }
+        int code = CurrencyCodes.pack(isoCode);
+        if (code == CurrencyCodes.INVALID) {
+            throw new IllegalArgumentException("Not a three-letter currency code: " + isoCode);
+        }
+        return (short) code;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : CurrencyCodes.isoCode(code);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.clusteredDataWarehouse.entities;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import lombok.*;
@@ -14,15 +15,18 @@ import java.math.BigDecimal;
 @ToString
 @Builder
 @Entity
+// partitioning, indexes and the UNIQUE_ID key are defined in db/migration
 @Table(name = "DEALS")
 public class Deal  extends BaseEntity {
 
     @Column(name = "UNIQUE_ID", nullable = false)
     private String uniqueId;
 
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(name = "FROM_CURRENCY", nullable = false)
     private String fromCurrency;
 
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(name = "TO_CURRENCY", nullable = false)
     private String toCurrency;
 
@@ -0,0 +1,61 @@
+package com.example.clusteredDataWarehouse.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly aggregate of the deals of one currency pair. Maintained incrementally by
+ * {@code DealRollupRepositoryCustomImpl#increment}; day figures are summed from these rows.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Builder
+@Entity
+@IdClass(DealRollup.Key.class)
+@Table(name = "DEAL_ROLLUPS")
+public class DealRollup {
+
+    @Id
+    @Column(name = "FROM_CURRENCY", nullable = false)
+    private String fromCurrency;
+
+    @Id
+    @Column(name = "TO_CURRENCY", nullable = false)
+    private String toCurrency;
+
+    @Id
+    @Column(name = "BUCKET_START", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "DEAL_COUNT", nullable = false)
+    private long dealCount;
+
+    @Column(name = "TOTAL_AMOUNT", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "MIN_AMOUNT", nullable = false)
+    private BigDecimal minAmount;
+
+    @Column(name = "MAX_AMOUNT", nullable = false)
+    private BigDecimal maxAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String fromCurrency;
+        private String toCurrency;
+        private LocalDateTime bucketStart;
+    }
+}
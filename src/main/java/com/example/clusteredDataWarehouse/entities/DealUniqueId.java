@@ -0,0 +1,33 @@
+package com.example.clusteredDataWarehouse.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Global uniqueness key of a deal. DEALS is partitioned, so its rows cannot carry a unique
+ * constraint on UNIQUE_ID alone; a statement trigger on DEALS inserts these for the deals of each insert instead.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Builder
+@Entity
+@Table(name = "DEAL_UNIQUE_IDS")
+public class DealUniqueId {
+
+    public static final String UNIQUE_ID_CONSTRAINT = "UK_DEALS_UNIQUE_ID";
+
+    @Id
+    @Column(name = "UNIQUE_ID", nullable = false)
+    private String uniqueId;
+
+    @Column(name = "DATE_INSERTED", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum DealItemStatus {
+
+    ACCEPTED,
+    DUPLICATE,
+    INVALID,
+    // the node owning the deal could not be reached or turned the batch away; nothing was stored
+    UNAVAILABLE
+}
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum ImportState {
+
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
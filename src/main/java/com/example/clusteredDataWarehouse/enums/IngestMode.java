@@ -0,0 +1,7 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum IngestMode {
+
+    SYNC,
+    ASYNC
+}
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum PersistenceState {
+
+    QUEUED,
+    PERSISTED,
+    DUPLICATE,
+    REJECTED
+}
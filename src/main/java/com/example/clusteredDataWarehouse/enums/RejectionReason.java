@@ -0,0 +1,20 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum RejectionReason {
+    DUPLICATE("duplicate"),
+    VALIDATION("validation"),
+    BEAN_VALIDATION("bean_validation"),
+    QUEUE_FULL("queue_full"),
+    OVERLOADED("overloaded"),
+    CLIENT_QUOTA("client_quota");
+
+    private final String tag;
+
+    RejectionReason(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -3,7 +3,8 @@ package com.example.clusteredDataWarehouse.enums;
 public enum ResponseCodes {
 
     SUCCESS("00"),
-    FAILURE("01");
+    FAILURE("01"),
+    PARTIAL_SUCCESS("02");
 
     private final String value;
 
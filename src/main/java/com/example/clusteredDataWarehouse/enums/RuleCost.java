@@ -0,0 +1,13 @@
+package com.example.clusteredDataWarehouse.enums;
+
+/**
+ * What a {@code DealRule} has to do to decide, in the order rules are run.
+ */
+public enum RuleCost {
+    // reads the request only
+    FIELD,
+    // reads in-memory state, such as the allowed currencies
+    LOOKUP,
+    // queries the database
+    DATABASE
+}
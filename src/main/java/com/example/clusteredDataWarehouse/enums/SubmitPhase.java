@@ -0,0 +1,20 @@
+package com.example.clusteredDataWarehouse.enums;
+
+public enum SubmitPhase {
+    VALIDATE("validate"),
+    DEDUP("dedup"),
+    PERSIST("persist"),
+    ROLLUP("rollup"),
+    ENQUEUE("enqueue"),
+    TOTAL("total");
+
+    private final String tag;
+
+    SubmitPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.clusteredDataWarehouse.exception;
 
 import com.example.clusteredDataWarehouse.dto.response.ErrorResponse;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
 import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.util.ConstraintViolations;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.example.clusteredDataWarehouse.util.RejectionLogSampler;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
@@ -11,6 +20,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,8 +30,13 @@ import java.util.stream.Collectors;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class CustomExceptionHandler {
 
+    private final DealMetrics dealMetrics;
+
+    private final RejectionLogSampler rejectionLogSampler;
+
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -35,8 +52,37 @@ public class CustomExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
-        log.error("Invalid argument in request: {}", ex.getMessage(), ex);
-        return composeFieldErrorResponse(ex.getBindingResult().getFieldErrors());
+        return composeBeanValidationResponse(ex.getBindingResult().getFieldErrors());
+    }
+
+    // the reactive runtime's counterparts of MethodArgumentNotValidException and HttpMessageNotReadableException
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleWebExchangeBindException(WebExchangeBindException ex) {
+        return composeBeanValidationResponse(ex.getBindingResult().getFieldErrors());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleServerWebInputException(ServerWebInputException ex) {
+        log.error("Error Message: {}", ex.getMessage(), ex);
+        Throwable rootCause = ex.getMostSpecificCause();
+        return ErrorResponse.with(
+                ResponseCodes.FAILURE.getValue(),
+                rootCause.getMessage() != null ? rootCause.getMessage() : ex.getReason()
+        );
+    }
+
+    private ErrorResponse composeBeanValidationResponse(List<FieldError> fieldErrors) {
+        String fields = fieldErrors
+                .stream()
+                .map(FieldError::getField)
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+        dealMetrics.rejected(RejectionReason.BEAN_VALIDATION, fields);
+        rejectionLogSampler.log(RejectionReason.BEAN_VALIDATION, fields);
+        return composeFieldErrorResponse(fieldErrors);
     }
 
 
@@ -47,6 +93,16 @@ public class CustomExceptionHandler {
         return composeFieldErrorResponse(ex.getBindingResult().getFieldErrors());
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        log.error("Invalid request parameter: {}", ex.getMessage());
+        return ErrorResponse.with(
+                ResponseCodes.FAILURE.getValue(),
+                ex.getName() + ": invalid value '" + ex.getValue() + "'"
+        );
+    }
+
     private ErrorResponse composeFieldErrorResponse(List<FieldError> fieldErrors) {
         List<String> errors = fieldErrors
                 .stream()
@@ -62,8 +118,14 @@ public class CustomExceptionHandler {
     @ExceptionHandler(ValidationException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public ErrorResponse handleValidationException(ValidationException ex) {
-        log.error("VALIDATION ERROR: {}", ex.getMessage(), ex);
-        return ErrorResponse.with(
+        rejectionLogSampler.log(RejectionReason.VALIDATION, ex.getMessage());
+        if (ex.getMessages().size() > 1) {
+            return ErrorResponse.builder()
+                    .code(ResponseCodes.FAILURE.getValue())
+                    .messages(ex.getMessages())
+                    .build();
+        }
+        return ErrorResponse.cached(
                 ResponseCodes.FAILURE.getValue(),
                 ex.getMessage()
         );
@@ -72,8 +134,96 @@ public class CustomExceptionHandler {
     @ExceptionHandler(DuplicateException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleDuplicateException(DuplicateException ex) {
-        log.error("DUPLICATE ERROR: {}", ex.getMessage(), ex);
-        return ErrorResponse.with(
+        rejectionLogSampler.log(RejectionReason.DUPLICATE, ex.getMessage());
+        return ErrorResponse.cached(
+                ResponseCodes.FAILURE.getValue(),
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (ConstraintViolations.isUniqueIdViolation(ex)) {
+            rejectionLogSampler.log(RejectionReason.DUPLICATE, MessageConstants.NON_UNIQUE_ID);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorResponse.cached(
+                    ResponseCodes.FAILURE.getValue(),
+                    MessageConstants.NON_UNIQUE_ID
+            ));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(handleGenericException(ex));
+    }
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleQueueFullException(QueueFullException ex) {
+        rejectionLogSampler.log(RejectionReason.QUEUE_FULL, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.cached(
+                        ResponseCodes.FAILURE.getValue(),
+                        ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloadedException(OverloadedException ex) {
+        rejectionLogSampler.log(RejectionReason.OVERLOADED, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.cached(
+                        ResponseCodes.FAILURE.getValue(),
+                        ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<ErrorResponse> handleQuotaExceededException(QuotaExceededException ex) {
+        rejectionLogSampler.log(RejectionReason.CLIENT_QUOTA, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.cached(
+                        ResponseCodes.FAILURE.getValue(),
+                        ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(ForwardedRejectionException.class)
+    public ResponseEntity<byte[]> handleForwardedRejectionException(ForwardedRejectionException ex) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getHeaders().getContentType() != null) {
+            response.contentType(ex.getHeaders().getContentType());
+        }
+        String retryAfter = ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return response.body(ex.getBody());
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleNodeUnavailableException(NodeUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.cached(
+                        ResponseCodes.FAILURE.getValue(),
+                        ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNotFoundException(NotFoundException ex) {
+        log.error("NOT FOUND ERROR: {}", ex.getMessage());
+        return ErrorResponse.cached(
+                ResponseCodes.FAILURE.getValue(),
+                ex.getMessage()
+        );
+    }
+
+
+    @ExceptionHandler(ExpiredPositionException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public ErrorResponse handleExpiredPositionException(ExpiredPositionException ex) {
+        return ErrorResponse.cached(
                 ResponseCodes.FAILURE.getValue(),
                 ex.getMessage()
         );
@@ -1,6 +1,6 @@
 package com.example.clusteredDataWarehouse.exception;
 
-public class DuplicateException extends RuntimeException{
+public class DuplicateException extends RejectionException {
 
     public DuplicateException(String message) {
         super(message);
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse.exception;
+
+public class ExpiredPositionException extends RejectionException {
+
+    public ExpiredPositionException(String message) {
+        super(message);
+    }
+
+}
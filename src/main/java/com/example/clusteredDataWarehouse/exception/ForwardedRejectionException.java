@@ -0,0 +1,26 @@
+package com.example.clusteredDataWarehouse.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * A non-2xx answer of the node a request was forwarded to. It is relayed to the client as it
+ * came, since the owning node has already counted and logged the rejection.
+ */
+@Getter
+public class ForwardedRejectionException extends RejectionException {
+
+    private final HttpStatusCode status;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    public ForwardedRejectionException(String node, HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        super(node + " answered " + status.value());
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.clusteredDataWarehouse.exception;
+
+import lombok.Getter;
+
+@Getter
+public class NodeUnavailableException extends RejectionException {
+
+    private final long retryAfterSeconds;
+
+    public NodeUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse.exception;
+
+public class NotFoundException extends RejectionException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+}
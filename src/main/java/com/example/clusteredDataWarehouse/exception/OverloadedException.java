@@ -0,0 +1,14 @@
+package com.example.clusteredDataWarehouse.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OverloadedException extends RejectionException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
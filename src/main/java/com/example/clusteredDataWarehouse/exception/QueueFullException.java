@@ -0,0 +1,15 @@
+package com.example.clusteredDataWarehouse.exception;
+
+import lombok.Getter;
+
+@Getter
+public class QueueFullException extends RejectionException {
+
+    private final long retryAfterSeconds;
+
+    public QueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.clusteredDataWarehouse.exception;
+
+/**
+ * Base of the exceptions that reject a client request. Rejections are expected, frequent and
+ * fully described by their message, so they skip stack-trace capture and suppression tracking;
+ * the fill-in of a stack trace is most of the cost of throwing.
+ */
+public abstract class RejectionException extends RuntimeException {
+
+    protected RejectionException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,10 +1,23 @@
 package com.example.clusteredDataWarehouse.exception;
 
-public class ValidationException extends RuntimeException{
+import lombok.Getter;
 
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+public class ValidationException extends RejectionException {
+
+    private final List<String> messages;
 
     public ValidationException(String message) {
         super(message);
+        this.messages = Collections.singletonList(message);
+    }
+
+    public ValidationException(List<String> messages) {
+        super(String.join(", ", messages));
+        this.messages = List.copyOf(messages);
     }
 
 }
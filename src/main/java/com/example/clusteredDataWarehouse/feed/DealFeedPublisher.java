@@ -0,0 +1,127 @@
+package com.example.clusteredDataWarehouse.feed;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.repository.DealOutboxRepository;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns the outbox rows written by the DEALS trigger into the change feed: committed rows without a
+ * position are numbered in outbox order, in batches of {@code deals.feed.batch-size}, each batch in
+ * its own transaction under the publisher advisory lock. On the other nodes of a cluster the lock
+ * is taken and this only follows the last position, so their waiting readers still wake up.
+ * Readers wait on a ReentrantLock rather than a monitor, which does not pin virtual threads.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DealFeedPublisher {
+
+    private final DealOutboxRepository dealOutboxRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DealProperties dealProperties;
+
+    private final DealMetrics dealMetrics;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock positionLock = new ReentrantLock();
+
+    private final Condition positionAdvanced = positionLock.newCondition();
+
+    private volatile long lastPosition;
+
+    @Scheduled(fixedDelayString = "${deals.feed.publish-interval-ms:200}")
+    public void scheduledPublish() {
+        if (dealProperties.getFeed().isEnabled()) {
+            publish();
+        }
+    }
+
+    // outbox rows older than the retention are dropped even with the feed off, so it cannot grow unbounded
+    @Scheduled(fixedDelayString = "${deals.feed.purge-interval-ms:60000}")
+    public void scheduledPurge() {
+        purge(LocalDateTime.now().minusHours(dealProperties.getFeed().getRetentionHours()));
+    }
+
+    /** Publishes every committed outbox row; returns how many got a position on this node. */
+    public synchronized int publish() {
+        int batchSize = dealProperties.getFeed().getBatchSize();
+        int published = 0;
+        Integer assigned;
+        do {
+            assigned = transactionTemplate.execute(status -> dealOutboxRepository.tryLockPublisher()
+                    ? dealOutboxRepository.assignPositions(batchSize)
+                    : null);
+            if (assigned != null && assigned > 0) {
+                published += assigned;
+                dealMetrics.feedPublished(assigned);
+            }
+            advance(dealOutboxRepository.lastPosition());
+        } while (assigned != null && assigned == batchSize);
+        return published;
+    }
+
+    public synchronized int purge(LocalDateTime recordedBefore) {
+        Integer purged = transactionTemplate.execute(status -> dealOutboxRepository.tryLockPublisher()
+                ? dealOutboxRepository.purge(recordedBefore)
+                : 0);
+        if (purged != null && purged > 0) {
+            log.info("purged {} change feed rows recorded before {}", purged, recordedBefore);
+        }
+        return purged == null ? 0 : purged;
+    }
+
+    public long lastPosition() {
+        return lastPosition;
+    }
+
+    /**
+     * Waits until a position above {@code position} is published or the timeout passes, and
+     * returns the last published position.
+     */
+    public long awaitPositionAfter(long position, long timeoutMs) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        positionLock.lock();
+        try {
+            while (lastPosition <= position && remaining > 0) {
+                remaining = positionAdvanced.awaitNanos(remaining);
+            }
+            return lastPosition;
+        } finally {
+            positionLock.unlock();
+        }
+    }
+
+    /** Runs on the publishing thread after each advance, so it must only hand work off. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private void advance(long position) {
+        if (position == lastPosition) {
+            return;
+        }
+        positionLock.lock();
+        try {
+            lastPosition = position;
+            positionAdvanced.signalAll();
+        } finally {
+            positionLock.unlock();
+        }
+        listeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.clusteredDataWarehouse.feed;
+
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A downstream consumer fed by {@link DealFeedSinkDispatcher}. Every sink bean gets the change feed
+ * in position order, in batches of up to {@code deals.feed.batch-size}, from a cursor stored in
+ * DEAL_FEED_CURSORS under its name. Delivery is at-least-once: a batch is redelivered when
+ * {@link #deliver} throws or the process dies before the cursor is saved, so sinks should skip
+ * positions they have already seen.
+ */
+public interface DealFeedSink {
+
+    /** Key of the stored cursor; one delivery per name runs at a time across the cluster. */
+    String name();
+
+    void deliver(List<DealFeedItem> deals) throws IOException;
+}
@@ -0,0 +1,86 @@
+package com.example.clusteredDataWarehouse.feed;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+import com.example.clusteredDataWarehouse.repository.DealOutboxRepository;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Feeds every {@link DealFeedSink} bean from its stored cursor. A batch is delivered while its
+ * cursor row is locked and the cursor moves in the same transaction, so a failed delivery is
+ * retried from the same position on the next run. A new sink starts at the oldest retained change;
+ * a sink that fell behind the retention skips the purged changes with a warning.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "deals.feed", name = "enabled", matchIfMissing = true)
+public class DealFeedSinkDispatcher {
+
+    private final List<DealFeedSink> dealFeedSinks;
+
+    private final DealOutboxRepository dealOutboxRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DealProperties dealProperties;
+
+    private final DealMetrics dealMetrics;
+
+    @Scheduled(fixedDelayString = "${deals.feed.publish-interval-ms:200}")
+    public void dispatch() {
+        for (DealFeedSink sink : dealFeedSinks) {
+            try {
+                deliverPending(sink);
+            } catch (RuntimeException ex) {
+                log.warn("change feed delivery to sink {} failed, it is retried from its cursor", sink.name(), ex);
+            }
+        }
+    }
+
+    public int deliverPending(DealFeedSink sink) {
+        int batchSize = dealProperties.getFeed().getBatchSize();
+        int delivered = 0;
+        int batch;
+        do {
+            Integer sent = transactionTemplate.execute(status -> deliverBatch(sink, batchSize));
+            batch = sent == null ? 0 : sent;
+            delivered += batch;
+        } while (batch == batchSize);
+        return delivered;
+    }
+
+    private int deliverBatch(DealFeedSink sink, int batchSize) {
+        long oldestRetained = Math.max(dealOutboxRepository.oldestPosition() - 1, 0);
+        Long position = dealOutboxRepository.lockSinkPosition(sink.name(), oldestRetained);
+        if (position == null) {
+            return 0;
+        }
+        if (position < oldestRetained) {
+            log.warn("sink {} missed change feed positions {} to {}, they were purged", sink.name(), position + 1, oldestRetained);
+            position = oldestRetained;
+        }
+        List<DealFeedItem> deals = dealOutboxRepository.findAfter(position, batchSize);
+        if (deals.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.deliver(deals);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        dealOutboxRepository.saveSinkPosition(sink.name(), deals.get(deals.size() - 1).getPosition());
+        dealMetrics.feedDelivered(sink.name(), deals.size());
+        return deals.size();
+    }
+}
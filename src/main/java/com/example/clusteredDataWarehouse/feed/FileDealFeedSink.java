@@ -0,0 +1,59 @@
+package com.example.clusteredDataWarehouse.feed;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the change feed to {@code deals.feed.file-sink} as NDJSON, one deal with its position per
+ * line. Each batch is forced to disk before its cursor is saved; after a crash the file may end with
+ * a repeated batch.
+ */
+@Component
+@ConditionalOnProperty(prefix = "deals.feed", name = "file-sink")
+@RequiredArgsConstructor
+public class FileDealFeedSink implements DealFeedSink {
+
+    private final DealProperties dealProperties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<DealFeedItem> deals) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(deals.size() * 128);
+        for (DealFeedItem deal : deals) {
+            objectMapper.writeValue(lines, deal);
+            lines.write('\n');
+        }
+        Path file = Paths.get(dealProperties.getFeed().getFileSink());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
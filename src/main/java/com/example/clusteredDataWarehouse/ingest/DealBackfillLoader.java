@@ -0,0 +1,407 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.BackfillReport;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.storage.DealPartitionManager;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.DealRequestValidator;
+import com.example.clusteredDataWarehouse.util.DealRowParser;
+import com.example.clusteredDataWarehouse.util.RejectedRows;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+/**
+ * Loads historical deals with COPY instead of JPA. Validated rows are copied in chunks into a
+ * session-local staging table and merged into DEALS with one transaction per chunk: keys already
+ * in DEAL_UNIQUE_IDS and repeats within the chunk are deleted from the staging table and reported
+ * as duplicates, the remaining rows are inserted with ids from reserved DEALS_SEQ blocks, and their
+ * rollups are incremented from the same staging rows. The DEAL_UNIQUE_IDS trigger still guards
+ * the insert, so a live submit racing the merge rolls the chunk back and it is merged again.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DealBackfillLoader {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private static final String CREATE_STAGING_SQL = "CREATE TEMPORARY TABLE IF NOT EXISTS DEALS_BACKFILL ("
+            + " LINE BIGINT NOT NULL, UNIQUE_ID VARCHAR(255) NOT NULL, FROM_CURRENCY SMALLINT NOT NULL,"
+            + " TO_CURRENCY SMALLINT NOT NULL, AMOUNT NUMERIC(38, 2) NOT NULL, DATE_INSERTED TIMESTAMP(6) NOT NULL)"
+            + " ON COMMIT DELETE ROWS";
+
+    private static final String DROP_STAGING_SQL = "DROP TABLE IF EXISTS DEALS_BACKFILL";
+
+    private static final String COPY_SQL = "COPY DEALS_BACKFILL"
+            + " (LINE, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED) FROM STDIN";
+
+    // the ids Hibernate's pooled optimizer takes from one DEALS_SEQ value V are (V - increment, V]
+    private static final String SELECT_ID_BLOCK_SQL = "SELECT increment_by FROM pg_sequences"
+            + " WHERE schemaname = current_schema() AND sequencename = 'deals_seq'";
+
+    private static final String RESERVE_ID_BLOCKS_SQL = "SELECT nextval('DEALS_SEQ') FROM generate_series(1, ?)";
+
+    private static final String DELETE_EXISTING_SQL = "DELETE FROM DEALS_BACKFILL s"
+            + " WHERE EXISTS (SELECT 1 FROM DEAL_UNIQUE_IDS k WHERE k.UNIQUE_ID = s.UNIQUE_ID)"
+            + " RETURNING s.LINE, s.UNIQUE_ID";
+
+    private static final String DELETE_REPEATED_SQL = "DELETE FROM DEALS_BACKFILL s"
+            + " WHERE EXISTS (SELECT 1 FROM DEALS_BACKFILL f WHERE f.UNIQUE_ID = s.UNIQUE_ID AND f.LINE < s.LINE)"
+            + " RETURNING s.LINE, s.UNIQUE_ID";
+
+    private static final String MERGE_SQL = "INSERT INTO DEALS"
+            + " (ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED)"
+            + " SELECT b.HI - ? + 1 + s.RN % ?, s.UNIQUE_ID, s.FROM_CURRENCY, s.TO_CURRENCY, s.AMOUNT, s.DATE_INSERTED"
+            + " FROM (SELECT *, row_number() OVER (ORDER BY LINE) - 1 AS RN FROM DEALS_BACKFILL) s"
+            + " JOIN unnest(?) WITH ORDINALITY AS b(HI, BLOCK) ON b.BLOCK = s.RN / ? + 1";
+
+    // keys in the same order as DealRollupServiceImpl locks them
+    private static final String INCREMENT_ROLLUPS_SQL = "INSERT INTO DEAL_ROLLUPS"
+            + " (FROM_CURRENCY, TO_CURRENCY, BUCKET_START, DEAL_COUNT, TOTAL_AMOUNT, MIN_AMOUNT, MAX_AMOUNT)"
+            + " SELECT CURRENCY_ISO(FROM_CURRENCY), CURRENCY_ISO(TO_CURRENCY), date_trunc('hour', DATE_INSERTED),"
+            + " COUNT(*), SUM(AMOUNT), MIN(AMOUNT), MAX(AMOUNT)"
+            + " FROM DEALS_BACKFILL GROUP BY FROM_CURRENCY, TO_CURRENCY, date_trunc('hour', DATE_INSERTED)"
+            + " ORDER BY FROM_CURRENCY, TO_CURRENCY, 3"
+            + " ON CONFLICT (FROM_CURRENCY, TO_CURRENCY, BUCKET_START) DO UPDATE SET"
+            + " DEAL_COUNT = DEAL_ROLLUPS.DEAL_COUNT + EXCLUDED.DEAL_COUNT,"
+            + " TOTAL_AMOUNT = DEAL_ROLLUPS.TOTAL_AMOUNT + EXCLUDED.TOTAL_AMOUNT,"
+            + " MIN_AMOUNT = LEAST(DEAL_ROLLUPS.MIN_AMOUNT, EXCLUDED.MIN_AMOUNT),"
+            + " MAX_AMOUNT = GREATEST(DEAL_ROLLUPS.MAX_AMOUNT, EXCLUDED.MAX_AMOUNT)";
+
+    private final DataSource dataSource;
+
+    private final DealProperties dealProperties;
+
+    private final DealRequestValidator dealRequestValidator;
+
+    private final DealPartitionManager dealPartitionManager;
+
+    private final DealMetrics dealMetrics;
+
+    private final ObjectMapper objectMapper;
+
+    public BackfillReport load(Path file) throws IOException, SQLException {
+        String fileName = file.getFileName().toString();
+        DealRowParser.Format format = DealRowParser.formatOf(fileName);
+        if (format == null) {
+            throw new IllegalArgumentException(UNSUPPORTED_IMPORT_FORMAT);
+        }
+
+        DealProperties.Backfill backfill = dealProperties.getBackfill();
+        DealRowParser parser = new DealRowParser(format, objectMapper);
+        Load load = new Load(fileName);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             BufferedWriter rejected = Files.newBufferedWriter(file.resolveSibling(fileName + RejectedRows.SUFFIX),
+                     StandardCharsets.UTF_8);
+             Connection connection = dataSource.getConnection()) {
+            rejected.write(RejectedRows.HEADER);
+            rejected.newLine();
+            connection.setAutoCommit(false);
+            long idBlock = prepareSession(connection);
+
+            try {
+                List<StagedDeal> chunk = new ArrayList<>(backfill.getChunkSize());
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber == 1 && parser.readHeader(line)) {
+                        continue;
+                    }
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    load.rowsRead++;
+                    StagedDeal deal = stage(parser, line, lineNumber, load, rejected);
+                    if (deal != null) {
+                        chunk.add(deal);
+                    }
+                    if (chunk.size() >= backfill.getChunkSize()) {
+                        mergeChunk(connection, idBlock, chunk, load, rejected);
+                    }
+                }
+                mergeChunk(connection, idBlock, chunk, load, rejected);
+            } finally {
+                connection.rollback();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DROP_STAGING_SQL);
+                }
+                connection.commit();
+            }
+        }
+
+        BackfillReport report = load.report();
+        log.info("backfill of {} completed: {} rows read, {} loaded, {} duplicates, {} invalid, {} rows/s",
+                fileName, report.getRowsRead(), report.getLoaded(), report.getDuplicates(), report.getInvalid(),
+                report.getRowsPerSecond());
+        return report;
+    }
+
+    private long prepareSession(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_SQL);
+            long idBlock;
+            try (ResultSet resultSet = statement.executeQuery(SELECT_ID_BLOCK_SQL)) {
+                if (!resultSet.next()) {
+                    throw new IllegalStateException("sequence DEALS_SEQ not found");
+                }
+                idBlock = resultSet.getLong(1);
+            }
+            connection.commit();
+            return idBlock;
+        }
+    }
+
+    private StagedDeal stage(DealRowParser parser, String line, long lineNumber, Load load, BufferedWriter rejected)
+            throws IOException {
+        DealRowParser.Row row;
+        try {
+            row = parser.parseRow(line);
+        } catch (IllegalArgumentException ex) {
+            RejectedRows.write(rejected, lineNumber, null, DealItemStatus.INVALID, UNREADABLE_ROW + ": " + ex.getMessage());
+            load.invalid++;
+            return null;
+        }
+
+        DealRequest dealRequest = row.dealRequest();
+        LocalDateTime createdAt = row.createdAt() == null ? LocalDateTime.now() : row.createdAt();
+        List<String> violations = dealRequestValidator.findViolations(dealRequest);
+        if (violations.isEmpty() && load.retentionCutoff != null && createdAt.isBefore(load.retentionCutoff)) {
+            dealMetrics.rejected(RejectionReason.VALIDATION, BEFORE_RETENTION_WINDOW);
+            violations = Collections.singletonList(BEFORE_RETENTION_WINDOW);
+        }
+        if (!violations.isEmpty()) {
+            RejectedRows.write(rejected, lineNumber, dealRequest == null ? null : dealRequest.getUniqueId(),
+                    DealItemStatus.INVALID, String.join("; ", violations));
+            load.invalid++;
+            return null;
+        }
+        return new StagedDeal(lineNumber, dealRequest, createdAt);
+    }
+
+    private void mergeChunk(Connection connection, long idBlock, List<StagedDeal> chunk, Load load,
+                            BufferedWriter rejected) throws IOException, SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        createPartitions(chunk, load);
+
+        Map<Long, String> duplicates;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                duplicates = merge(connection, idBlock, chunk);
+                connection.commit();
+                break;
+            } catch (SQLException ex) {
+                connection.rollback();
+                if (!UNIQUE_VIOLATION.equals(ex.getSQLState()) || attempt >= dealProperties.getBackfill().getMaxAttempts()) {
+                    throw ex;
+                }
+                log.warn("a backfill chunk of {} raced a concurrent insert, merging it again", load.fileName);
+            }
+        }
+
+        for (Map.Entry<Long, String> duplicate : duplicates.entrySet()) {
+            RejectedRows.write(rejected, duplicate.getKey(), duplicate.getValue(), DealItemStatus.DUPLICATE, NON_UNIQUE_ID);
+            dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+        }
+        rejected.flush();
+        int loaded = chunk.size() - duplicates.size();
+        dealMetrics.persisted(loaded);
+        load.loaded += loaded;
+        load.duplicates += duplicates.size();
+        chunk.clear();
+        log.info("backfill of {}: {} rows read, {} loaded, {} rows/s", load.fileName, load.rowsRead, load.loaded,
+                load.rowsPerSecond());
+    }
+
+    // DEALS_DEFAULT must not collect a month's rows before that month gets its partition
+    private void createPartitions(List<StagedDeal> chunk, Load load) {
+        if (!dealProperties.getPartitions().isEnabled()) {
+            return;
+        }
+        for (StagedDeal deal : chunk) {
+            YearMonth month = YearMonth.from(deal.createdAt());
+            if (load.partitionedMonths.add(month)) {
+                dealPartitionManager.createPartitions(month, 1);
+            }
+        }
+    }
+
+    private Map<Long, String> merge(Connection connection, long idBlock, List<StagedDeal> chunk)
+            throws IOException, SQLException {
+        copy(connection, chunk);
+
+        Map<Long, String> duplicates = new TreeMap<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE DEALS_BACKFILL");
+            // left to itself the planner hashes all of DEAL_UNIQUE_IDS for every chunk; index probes
+            // cost the same however many deals are already stored
+            statement.execute("SET LOCAL enable_hashjoin = off");
+            statement.execute("SET LOCAL enable_mergejoin = off");
+            collect(statement.executeQuery(DELETE_EXISTING_SQL), duplicates);
+            statement.execute("RESET enable_hashjoin");
+            statement.execute("RESET enable_mergejoin");
+            collect(statement.executeQuery(DELETE_REPEATED_SQL), duplicates);
+        }
+
+        int fresh = chunk.size() - duplicates.size();
+        if (fresh == 0) {
+            return duplicates;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+            statement.setLong(1, idBlock);
+            statement.setLong(2, idBlock);
+            statement.setArray(3, connection.createArrayOf("bigint", reserveIdBlocks(connection, idBlock, fresh)));
+            statement.setLong(4, idBlock);
+            statement.executeUpdate();
+        }
+        if (dealProperties.getRollup().isEnabled()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(INCREMENT_ROLLUPS_SQL);
+            }
+        }
+        return duplicates;
+    }
+
+    private void copy(Connection connection, List<StagedDeal> chunk) throws IOException, SQLException {
+        try (Writer writer = new OutputStreamWriter(new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                COPY_SQL, COPY_BUFFER_BYTES), StandardCharsets.UTF_8)) {
+            StringBuilder row = new StringBuilder(128);
+            for (StagedDeal deal : chunk) {
+                DealRequest dealRequest = deal.dealRequest();
+                row.setLength(0);
+                row.append(deal.line()).append('\t');
+                appendEscaped(row, dealRequest.getUniqueId());
+                row.append('\t').append(CurrencyCodes.pack(dealRequest.getFromCurrency()))
+                        .append('\t').append(CurrencyCodes.pack(dealRequest.getToCurrency()))
+                        .append('\t').append(dealRequest.getAmount().toPlainString())
+                        .append('\t').append(deal.createdAt())
+                        .append('\n');
+                writer.append(row);
+            }
+        }
+    }
+
+    // block values below one increment would give ids below 1, so they are skipped
+    private static Long[] reserveIdBlocks(Connection connection, long idBlock, int rows) throws SQLException {
+        int needed = (int) ((rows + idBlock - 1) / idBlock);
+        List<Long> blocks = new ArrayList<>(needed);
+        try (PreparedStatement statement = connection.prepareStatement(RESERVE_ID_BLOCKS_SQL)) {
+            while (blocks.size() < needed) {
+                statement.setInt(1, needed - blocks.size());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long value = resultSet.getLong(1);
+                        if (value >= idBlock) {
+                            blocks.add(value);
+                        }
+                    }
+                }
+            }
+        }
+        return blocks.toArray(new Long[0]);
+    }
+
+    private static void collect(ResultSet resultSet, Map<Long, String> duplicates) throws SQLException {
+        try (resultSet) {
+            while (resultSet.next()) {
+                duplicates.put(resultSet.getLong(1), resultSet.getString(2));
+            }
+        }
+    }
+
+    // COPY's text format: backslash, tab and line breaks are escaped
+    private static void appendEscaped(StringBuilder row, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+    }
+
+    private record StagedDeal(long line, DealRequest dealRequest, LocalDateTime createdAt) {
+    }
+
+    private final class Load {
+        private final String fileName;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final Set<YearMonth> partitionedMonths = new HashSet<>();
+        // rows before it would land in a detached month
+        private final LocalDateTime retentionCutoff;
+        private long rowsRead;
+        private long loaded;
+        private long duplicates;
+        private long invalid;
+
+        private Load(String fileName) {
+            this.fileName = fileName;
+            DealProperties.Partitions partitions = dealProperties.getPartitions();
+            this.retentionCutoff = partitions.isEnabled() && partitions.getRetentionMonths() > 0
+                    ? YearMonth.now().minusMonths(partitions.getRetentionMonths()).atDay(1).atStartOfDay()
+                    : null;
+        }
+
+        private double rowsPerSecond() {
+            double elapsedSeconds = Math.max(Duration.ofNanos(System.nanoTime() - startNanos).toMillis(), 1) / 1000.0;
+            return Math.round(rowsRead / elapsedSeconds * 10) / 10.0;
+        }
+
+        private BackfillReport report() {
+            return BackfillReport.builder()
+                    .fileName(fileName)
+                    .rowsRead(rowsRead)
+                    .loaded(loaded)
+                    .duplicates(duplicates)
+                    .invalid(invalid)
+                    .rowsPerSecond(rowsPerSecond())
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+        }
+    }
+}
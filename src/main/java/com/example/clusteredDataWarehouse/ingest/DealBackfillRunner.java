@@ -0,0 +1,45 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Runs the process as a one-off backfill of {@code deals.backfill.file} (see the "backfill"
+ * profile) and exits with 0 once the file is loaded, 1 when the load failed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "deals.backfill", name = "file")
+public class DealBackfillRunner implements ApplicationRunner {
+
+    private final DealBackfillLoader dealBackfillLoader;
+
+    private final DealProperties dealProperties;
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String file = dealProperties.getBackfill().getFile();
+        int exitCode = 0;
+        try {
+            dealBackfillLoader.load(Paths.get(file));
+        } catch (Exception ex) {
+            // chunks merged before the failure stay; a rerun reports their rows as duplicates
+            log.error("backfill of {} failed", file, ex);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> status));
+    }
+}
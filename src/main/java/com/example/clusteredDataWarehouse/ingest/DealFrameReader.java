@@ -0,0 +1,121 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.DEAL_FRAME_TOO_LARGE;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.MALFORMED_DEAL_FRAME;
+
+/**
+ * Reads {@link DealFrames} one frame at a time; only the current frame is held in memory.
+ * Currency codes of three upper-case letters are the shared String instances of {@link CurrencyCodes}.
+ */
+public class DealFrameReader {
+
+    private final DataInputStream in;
+
+    private final int maxFrameBytes;
+
+    private byte[] frame = new byte[0];
+
+    private boolean headerRead;
+
+    public DealFrameReader(InputStream in, int maxFrameBytes) {
+        this.in = new DataInputStream(in);
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    /**
+     * The deals of the next frame, or null at the end of the stream.
+     */
+    public List<DealRequest> nextFrame() throws IOException {
+        if (!headerRead) {
+            readHeader();
+            headerRead = true;
+        }
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException ex) {
+            return null;
+        }
+        if (length < Integer.BYTES) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+        if (length > maxFrameBytes) {
+            throw new ValidationException(DEAL_FRAME_TOO_LARGE);
+        }
+        if (frame.length < length) {
+            frame = new byte[Math.max(length, Math.min(maxFrameBytes, frame.length * 2))];
+        }
+        try {
+            in.readFully(frame, 0, length);
+        } catch (EOFException ex) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+        return decode(ByteBuffer.wrap(frame, 0, length));
+    }
+
+    private void readHeader() throws IOException {
+        byte[] header = new byte[3];
+        try {
+            in.readFully(header);
+        } catch (EOFException ex) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+        if (header[0] != DealFrames.MAGIC_0 || header[1] != DealFrames.MAGIC_1 || header[2] != DealFrames.VERSION) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+    }
+
+    private static List<DealRequest> decode(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / DealFrames.FIXED_DEAL_BYTES) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+        List<DealRequest> deals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < DealFrames.FIXED_DEAL_BYTES) {
+                throw new ValidationException(MALFORMED_DEAL_FRAME);
+            }
+            int idLength = buffer.get() & 0xff;
+            if (buffer.remaining() < idLength + DealFrames.FIXED_DEAL_BYTES - 1) {
+                throw new ValidationException(MALFORMED_DEAL_FRAME);
+            }
+            String uniqueId = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), idLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + idLength);
+            String fromCurrency = currency(buffer);
+            String toCurrency = currency(buffer);
+            long unscaledAmount = buffer.getLong();
+            int scale = buffer.get();
+            deals.add(new DealRequest(uniqueId, fromCurrency, toCurrency, BigDecimal.valueOf(unscaledAmount, scale)));
+        }
+        if (buffer.hasRemaining()) {
+            throw new ValidationException(MALFORMED_DEAL_FRAME);
+        }
+        return deals;
+    }
+
+    private static String currency(ByteBuffer buffer) {
+        byte first = buffer.get();
+        byte second = buffer.get();
+        byte third = buffer.get();
+        int code = CurrencyCodes.pack(first, second, third);
+        if (code != CurrencyCodes.INVALID) {
+            return CurrencyCodes.isoCode(code);
+        }
+        // anything else is passed on as sent and rejected by validation
+        return new String(new byte[]{first, second, third}, StandardCharsets.ISO_8859_1).trim();
+    }
+}
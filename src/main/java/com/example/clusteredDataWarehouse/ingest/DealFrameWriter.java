@@ -0,0 +1,72 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes {@link DealFrames} for feed clients, tests and benchmarks.
+ */
+public class DealFrameWriter {
+
+    private final DataOutputStream out;
+
+    private final ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream frame = new DataOutputStream(frameBytes);
+
+    public DealFrameWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(new byte[]{DealFrames.MAGIC_0, DealFrames.MAGIC_1, DealFrames.VERSION});
+    }
+
+    /**
+     * @throws IllegalArgumentException for a deal the format cannot carry: an id over 255 bytes,
+     *                                  a currency that is not 3 ASCII characters, or an amount
+     *                                  beyond 64 bits unscaled or a scale outside a byte
+     */
+    public void writeFrame(List<DealRequest> deals) throws IOException {
+        frameBytes.reset();
+        frame.writeInt(deals.size());
+        for (DealRequest deal : deals) {
+            byte[] uniqueId = deal.getUniqueId().getBytes(StandardCharsets.UTF_8);
+            if (uniqueId.length > DealFrames.MAX_ID_LENGTH) {
+                throw new IllegalArgumentException("uniqueId longer than " + DealFrames.MAX_ID_LENGTH + " bytes: " + deal.getUniqueId());
+            }
+            frame.writeByte(uniqueId.length);
+            frame.write(uniqueId);
+            frame.write(currency(deal.getFromCurrency()));
+            frame.write(currency(deal.getToCurrency()));
+            BigDecimal amount = deal.getAmount();
+            if (amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("amount scale out of range: " + amount);
+            }
+            try {
+                frame.writeLong(amount.unscaledValue().longValueExact());
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException("amount does not fit 64 bits unscaled: " + amount);
+            }
+            frame.writeByte(amount.scale());
+        }
+        out.writeInt(frameBytes.size());
+        frameBytes.writeTo(out);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static byte[] currency(String code) {
+        byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != DealFrames.CURRENCY_LENGTH) {
+            throw new IllegalArgumentException("currency must be 3 characters: " + code);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+/**
+ * The binary deal feed ({@code application/x-deal-frames}), all integers big-endian:
+ * <pre>
+ * stream := 'D' 'F' version:u8 frame*
+ * frame  := length:i32 count:i32 deal{count}        length counts the bytes after itself
+ * deal   := idLength:u8 uniqueId:utf8[idLength] from:ascii[3] to:ascii[3] unscaledAmount:i64 scale:i8
+ * </pre>
+ * A frame is one batch; the stream ends at a frame boundary.
+ */
+public final class DealFrames {
+
+    public static final String MEDIA_TYPE = "application/x-deal-frames";
+
+    static final byte MAGIC_0 = 'D';
+    static final byte MAGIC_1 = 'F';
+    static final byte VERSION = 1;
+
+    static final int CURRENCY_LENGTH = 3;
+    static final int MAX_ID_LENGTH = 255;
+    // idLength, two currencies, unscaled amount and scale
+    static final int FIXED_DEAL_BYTES = 1 + 2 * CURRENCY_LENGTH + Long.BYTES + 1;
+
+    private DealFrames() {
+    }
+}
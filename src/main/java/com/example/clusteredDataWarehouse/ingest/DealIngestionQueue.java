@@ -0,0 +1,187 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.PersistenceState;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.exception.QueueFullException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.INGEST_QUEUE_FULL;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.NON_UNIQUE_ID;
+
+@Slf4j
+@Component
+public class DealIngestionQueue {
+
+    private final DealProperties dealProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<QueuedDeal> queue;
+
+    private final Map<String, PersistenceState> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, PersistenceState> completed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private DealJournal journal;
+
+    // journal number of the last deal handed to the writer; only the writer thread drains
+    private long drainedThrough;
+
+    public DealIngestionQueue(DealProperties dealProperties, ObjectMapper objectMapper) {
+        this.dealProperties = dealProperties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(dealProperties.getIngest().getQueueCapacity());
+        int statusCacheSize = dealProperties.getIngest().getStatusCacheSize();
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PersistenceState> eldest) {
+                return size() > statusCacheSize;
+            }
+        });
+    }
+
+    public void enqueue(DealRequest dealRequest) {
+        byte[] entry;
+        try {
+            entry = objectMapper.writeValueAsBytes(dealRequest);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        DealJournal currentJournal;
+        long sequence;
+        lock.lock();
+        try {
+            if (queue.remainingCapacity() == 0) {
+                throw new QueueFullException(INGEST_QUEUE_FULL, dealProperties.getIngest().getRetryAfterSeconds());
+            }
+            if (pending.putIfAbsent(dealRequest.getUniqueId(), PersistenceState.QUEUED) != null) {
+                throw new DuplicateException(NON_UNIQUE_ID);
+            }
+            currentJournal = journal();
+            sequence = currentJournal.append(entry);
+            queue.add(new QueuedDeal(sequence, dealRequest));
+        } finally {
+            lock.unlock();
+        }
+        currentJournal.awaitDurable(sequence);
+    }
+
+    public List<DealRequest> drain(int maxBatchSize, long maxDelayMs) throws InterruptedException {
+        QueuedDeal first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        List<QueuedDeal> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            QueuedDeal next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        drainedThrough = batch.get(batch.size() - 1).sequence();
+        return batch.stream().map(QueuedDeal::dealRequest).toList();
+    }
+
+    public void complete(String uniqueId, PersistenceState state) {
+        if (state != PersistenceState.PERSISTED) {
+            completed.put(uniqueId, state);
+        }
+        pending.remove(uniqueId);
+    }
+
+    public PersistenceState statusOf(String uniqueId) {
+        PersistenceState state = pending.get(uniqueId);
+        return state != null ? state : completed.get(uniqueId);
+    }
+
+    /**
+     * The journaled deals of the previous run that were not yet persisted. Deals enqueued since
+     * this run started are not among them; they reach the writer through the queue.
+     */
+    public List<DealRequest> recoverJournal() {
+        List<DealRequest> recovered = new ArrayList<>();
+        DealJournal currentJournal = journal();
+        drainedThrough = Math.max(drainedThrough, currentJournal.recoverableThrough());
+        for (String entry : currentJournal.readUnpersisted()) {
+            try {
+                recovered.add(objectMapper.readValue(entry, DealRequest.class));
+            } catch (JsonProcessingException ex) {
+                log.error("skipping unreadable journal entry: {}", ex.getOriginalMessage());
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Moves the journal checkpoint past every deal drained or recovered so far, once the writer has
+     * completed them, and drops the journal segments behind it.
+     */
+    public void releaseJournal() {
+        journal().release(drainedThrough);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private DealJournal journal() {
+        lock.lock();
+        try {
+            if (journal == null) {
+                journal = new DealJournal(Paths.get(dealProperties.getIngest().getJournalDirectory()),
+                        dealProperties.getIngest().getJournalSegmentBytes());
+            }
+            return journal;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record QueuedDeal(long sequence, DealRequest dealRequest) {
+    }
+}
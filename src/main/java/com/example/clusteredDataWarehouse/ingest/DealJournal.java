@@ -0,0 +1,259 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only NDJSON journal of accepted deals. Appends are cheap; durability is
+ * reached through {@link #awaitDurable(long)}, where one fsync covers every entry
+ * appended before it started (group commit). Locks are {@link ReentrantLock}s rather than
+ * monitors so that virtual threads blocked on file I/O do not pin their carrier.
+ *
+ * <p>Entries are numbered in append order and written to segment files named after their first
+ * number. {@link #release(long)} records how far the deals are persisted in a checkpoint file,
+ * rolls the current segment once it is full and deletes the segments wholly behind the checkpoint,
+ * so the journal stays small while the queue is never empty.
+ */
+public class DealJournal implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("deals-(\\d{20})\\.journal");
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+
+    private final long segmentBytes;
+
+    // first entry number -> segment file; guarded by writeLock
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private final long recoverableThrough;
+
+    private FileChannel channel;
+
+    private volatile long appendedSequence;
+
+    private volatile long persistedSequence;
+
+    private long writePosition;
+
+    private long durableSequence;
+
+    public DealJournal(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            persistedSequence = readCheckpoint();
+            long lastSequence = persistedSequence;
+            boolean appendToLast = false;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        segments.put(Long.parseLong(matcher.group(1)), file);
+                    }
+                }
+            }
+            if (!segments.isEmpty()) {
+                Map.Entry<Long, Path> last = segments.lastEntry();
+                long lines = dropTornEntry(last.getValue());
+                // entry numbers are positions in their segment, so a segment the checkpoint has
+                // moved past is not appended to
+                appendToLast = last.getKey() + lines - 1 >= persistedSequence;
+                lastSequence = Math.max(lastSequence, last.getKey() + lines - 1);
+            }
+            this.appendedSequence = lastSequence;
+            this.durableSequence = lastSequence;
+            this.recoverableThrough = lastSequence;
+            if (appendToLast) {
+                channel = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE);
+                writePosition = channel.size();
+            } else {
+                openSegment(lastSequence + 1);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public long append(byte[] entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length + 1).put(entry).put((byte) '\n').flip();
+        writeLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                writePosition += channel.write(buffer, writePosition);
+            }
+            return ++appendedSequence;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void awaitDurable(long sequence) {
+        syncLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            FileChannel current;
+            long target;
+            writeLock.lock();
+            try {
+                current = channel;
+                target = appendedSequence;
+            } finally {
+                writeLock.unlock();
+            }
+            // segments are only rolled under syncLock, after being forced, so current stays open
+            current.force(false);
+            durableSequence = target;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** The entries that were on disk when the journal was opened and are behind no checkpoint. */
+    public List<String> readUnpersisted() {
+        List<String> entries = new ArrayList<>();
+        List<Map.Entry<Long, Path>> files;
+        writeLock.lock();
+        try {
+            files = new ArrayList<>(segments.entrySet());
+        } finally {
+            writeLock.unlock();
+        }
+        long persisted = persistedSequence;
+        for (Map.Entry<Long, Path> segment : files) {
+            long sequence = segment.getKey();
+            try (BufferedReader reader = Files.newBufferedReader(segment.getValue(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null && sequence <= recoverableThrough) {
+                    if (sequence > persisted && !line.isBlank()) {
+                        entries.add(line);
+                    }
+                    sequence++;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return entries;
+    }
+
+    public long recoverableThrough() {
+        return recoverableThrough;
+    }
+
+    /**
+     * Records that every entry up to {@code sequence} is persisted: the checkpoint moves on, a full
+     * segment is rolled, and segments with nothing after the checkpoint are deleted.
+     */
+    public void release(long sequence) {
+        if (sequence <= persistedSequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            writeCheckpoint(sequence);
+            persistedSequence = sequence;
+            writeLock.lock();
+            try {
+                if (writePosition >= segmentBytes) {
+                    channel.force(false);
+                    durableSequence = Math.max(durableSequence, appendedSequence);
+                    channel.close();
+                    openSegment(appendedSequence + 1);
+                }
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                Long next = segments.higherKey(oldest.getKey());
+                while (next != null && next - 1 <= sequence) {
+                    Files.deleteIfExists(oldest.getValue());
+                    segments.remove(oldest.getKey());
+                    oldest = segments.firstEntry();
+                    next = segments.higherKey(oldest.getKey());
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("deals-%020d.journal", firstSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        writePosition = channel.size();
+        segments.put(firstSequence, file);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        return Files.exists(file) ? Long.parseLong(Files.readString(file).trim()) : 0;
+    }
+
+    // a lost checkpoint only means replaying deals that are stored already, which the writer reports as duplicates
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporary, Long.toString(sequence));
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // an append cut short by a crash was never acknowledged; counts the complete entries that remain
+    private static long dropTornEntry(Path file) throws IOException {
+        try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long position = 0;
+            long lastNewline = -1;
+            long lines = 0;
+            int read;
+            while ((read = segment.read(buffer.clear(), position)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lastNewline = position + i;
+                        lines++;
+                    }
+                }
+                position += read;
+            }
+            if (lastNewline + 1 < position) {
+                segment.truncate(lastNewline + 1);
+            }
+            return lines;
+        }
+    }
+}
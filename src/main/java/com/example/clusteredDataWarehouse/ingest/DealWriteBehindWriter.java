@@ -0,0 +1,195 @@
+package com.example.clusteredDataWarehouse.ingest;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.PersistenceState;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.service.DealService;
+import com.example.clusteredDataWarehouse.util.ConstraintViolations;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.DEAL_NOT_STORED;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.NON_UNIQUE_ID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "deals.ingest", name = "mode", havingValue = "async")
+public class DealWriteBehindWriter implements SmartLifecycle {
+
+    private static final long RETRY_BACKOFF_MS = 1_000;
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private final DealIngestionQueue dealIngestionQueue;
+
+    private final DealService dealService;
+
+    private final DealProperties dealProperties;
+
+    private final DealMetrics dealMetrics;
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "deal-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(30_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop only after the web server has stopped accepting submissions
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        replayJournal();
+        DealProperties.Ingest ingest = dealProperties.getIngest();
+        while (running || dealIngestionQueue.size() > 0) {
+            try {
+                List<DealRequest> batch = dealIngestionQueue.drain(ingest.getMaxBatchSize(), ingest.getMaxBatchDelayMs());
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                List<DealItemResult> results = persistWithRetry(batch);
+                for (DealItemResult result : results) {
+                    dealIngestionQueue.complete(result.getUniqueId(), stateOf(result));
+                }
+                dealIngestionQueue.releaseJournal();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void replayJournal() {
+        List<DealRequest> recovered = dealIngestionQueue.recoverJournal();
+        if (recovered.isEmpty()) {
+            return;
+        }
+        log.info("replaying {} journaled deals", recovered.size());
+        int batchSize = dealProperties.getIngest().getMaxBatchSize();
+        try {
+            for (int from = 0; from < recovered.size(); from += batchSize) {
+                for (DealItemResult result : persistWithRetry(recovered.subList(from, Math.min(from + batchSize, recovered.size())))) {
+                    if (result.getStatus() == DealItemStatus.INVALID) {
+                        dealIngestionQueue.complete(result.getUniqueId(), PersistenceState.REJECTED);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        dealIngestionQueue.releaseJournal();
+    }
+
+    /**
+     * Retries a batch while the database is unreachable or the failure is otherwise transient, up to
+     * {@code deals.ingest.max-write-attempts} times. A batch that still fails is halved until the
+     * deals that cannot be stored are alone; those are answered as invalid, so one bad deal does not
+     * hold up the writer, the queue behind it or the journal replay. A deal that lost a race for its
+     * {@code uniqueId} is answered as a duplicate, as a synchronous submit would be.
+     */
+    private List<DealItemResult> persistWithRetry(List<DealRequest> batch) throws InterruptedException {
+        int maxAttempts = dealProperties.getIngest().getMaxWriteAttempts();
+        long backoffMs = RETRY_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return dealService.processBatch(batch);
+            } catch (RuntimeException ex) {
+                if (!isTransient(ex) || attempt >= maxAttempts) {
+                    return splitAfterFailure(batch, ex);
+                }
+                log.warn("write-behind batch of {} deals failed (attempt {} of {}), retrying: {}",
+                        batch.size(), attempt, maxAttempts, ex.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private List<DealItemResult> splitAfterFailure(List<DealRequest> batch, RuntimeException ex) throws InterruptedException {
+        if (batch.size() == 1) {
+            String uniqueId = batch.get(0) != null ? batch.get(0).getUniqueId() : null;
+            if (ConstraintViolations.isUniqueIdViolation(ex)) {
+                dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                return List.of(DealItemResult.builder()
+                        .uniqueId(uniqueId)
+                        .status(DealItemStatus.DUPLICATE)
+                        .messages(List.of(NON_UNIQUE_ID))
+                        .build());
+            }
+            log.error("write-behind deal {} could not be stored, rejecting it: {}", uniqueId, ex.getMessage());
+            return List.of(DealItemResult.builder()
+                    .uniqueId(uniqueId)
+                    .status(DealItemStatus.INVALID)
+                    .messages(List.of(DEAL_NOT_STORED))
+                    .build());
+        }
+        log.error("write-behind batch of {} deals failed, splitting it: {}", batch.size(), ex.getMessage());
+        int half = batch.size() / 2;
+        List<DealItemResult> results = new ArrayList<>(persistWithRetry(batch.subList(0, half)));
+        results.addAll(persistWithRetry(batch.subList(half, batch.size())));
+        return results;
+    }
+
+    private static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PersistenceState stateOf(DealItemResult result) {
+        return switch (result.getStatus()) {
+            case ACCEPTED -> PersistenceState.PERSISTED;
+            case DUPLICATE -> PersistenceState.DUPLICATE;
+            // the writer only holds deals this node owns, so no other node can be unavailable for them
+            case INVALID, UNAVAILABLE -> PersistenceState.REJECTED;
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.clusteredDataWarehouse.limit;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.exception.OverloadedException;
+import com.example.clusteredDataWarehouse.exception.QuotaExceededException;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.CLIENT_QUOTA_EXCEEDED;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.SUBMIT_OVERLOADED;
+
+/**
+ * Bounds the submits a node works on at once, so a slow database sheds load at the door instead
+ * of queueing every request on a connection. The limit follows the persist latency, gradient
+ * style: while a persist takes at most {@code tolerance} times its long-run average the limit
+ * grows by about its square root, and when persists slow down it shrinks in proportion, never
+ * below min-limit. Single submits and batches keep separate averages, batches per deal, so bulk
+ * and write-behind traffic moves the limit as well. A request takes a permit per
+ * {@code bytes-per-permit} of its body, up to half the limit, and within the limit every client
+ * with submits in flight gets an equal share; it may go over its share only while the node is at
+ * most half full.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "deals.limiter", name = "enabled", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final DealProperties dealProperties;
+
+    private final DealMetrics dealMetrics;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final ConcurrentMap<String, AtomicInteger> inflightByClient = new ConcurrentHashMap<>();
+
+    private volatile double limit;
+
+    // guarded by this
+    private double longLatency;
+
+    // per deal; guarded by this
+    private double longBatchLatency;
+
+    public AdaptiveConcurrencyLimiter(DealProperties dealProperties, DealMetrics dealMetrics) {
+        this.dealProperties = dealProperties;
+        this.dealMetrics = dealMetrics;
+        this.limit = dealProperties.getLimiter().getInitialLimit();
+        dealMetrics.addPersistListener((nanos, deals, batch) -> {
+            if (batch) {
+                onBatchPersist(nanos, deals);
+            } else {
+                onPersist(nanos);
+            }
+        });
+    }
+
+    public void acquire(String client) {
+        acquire(client, 1);
+    }
+
+    /**
+     * Admits a submit of the client taking {@code permits} of the limit or rejects it; every
+     * admitted submit must be released with the same permits. A null client is only held to the
+     * node's limit, not to a share of it.
+     */
+    public void acquire(String client, int permits) {
+        int currentLimit = getLimit();
+        int current = inflight.addAndGet(permits);
+        if (current > currentLimit) {
+            inflight.addAndGet(-permits);
+            dealMetrics.rejected(RejectionReason.OVERLOADED, SUBMIT_OVERLOADED);
+            throw new OverloadedException(SUBMIT_OVERLOADED, dealProperties.getLimiter().getRetryAfterSeconds());
+        }
+        if (client == null) {
+            return;
+        }
+        AtomicInteger clientInflight = inflightByClient.compute(client, (key, count) -> {
+            if (count == null) {
+                return new AtomicInteger(permits);
+            }
+            count.addAndGet(permits);
+            return count;
+        });
+        int clients = inflightByClient.size();
+        int fairShare = Math.max(1, (int) Math.ceil((double) currentLimit / clients));
+        if (clients > 1 && clientInflight.get() > fairShare && current > currentLimit / 2) {
+            release(client, permits);
+            dealMetrics.rejected(RejectionReason.CLIENT_QUOTA, CLIENT_QUOTA_EXCEEDED);
+            throw new QuotaExceededException(CLIENT_QUOTA_EXCEEDED, dealProperties.getLimiter().getRetryAfterSeconds());
+        }
+    }
+
+    public void release(String client) {
+        release(client, 1);
+    }
+
+    public void release(String client, int permits) {
+        if (client != null) {
+            inflightByClient.computeIfPresent(client, (key, count) -> count.addAndGet(-permits) == 0 ? null : count);
+        }
+        inflight.addAndGet(-permits);
+    }
+
+    /** Permits for a request body of the given length, -1 when unknown. */
+    public int permitsFor(long contentLength) {
+        long bytesPerPermit = dealProperties.getLimiter().getBytesPerPermit();
+        long permits = 1 + Math.max(0, contentLength) / bytesPerPermit;
+        return (int) Math.max(1, Math.min(permits, getLimit() / 2));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public synchronized void onPersist(long nanos) {
+        double latency = Math.max(nanos, 1);
+        longLatency = averaged(longLatency, latency);
+        adjust(longLatency, latency);
+    }
+
+    // a batch stores its deals in fewer round trips, so its per-deal latency is not compared with single submits
+    public synchronized void onBatchPersist(long nanos, int deals) {
+        double latency = Math.max((double) nanos / Math.max(deals, 1), 1);
+        longBatchLatency = averaged(longBatchLatency, latency);
+        adjust(longBatchLatency, latency);
+    }
+
+    private double averaged(double average, double latency) {
+        average = average == 0 ? latency : average + (latency - average) / dealProperties.getLimiter().getLongWindow();
+        // after a slow spell the average lags far behind; let it catch up instead of keeping the limit low
+        return average > 2 * latency ? average * 0.95 : average;
+    }
+
+    private void adjust(double longAverage, double latency) {
+        DealProperties.Limiter settings = dealProperties.getLimiter();
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getTolerance() * longAverage / latency));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - settings.getSmoothing()) + next * settings.getSmoothing();
+        // a node using less than half its limit has not shown it can take more
+        if (next > current && inflight.get() < current / 2) {
+            return;
+        }
+        limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), next));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("deals.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Concurrent submits the node admits")
+                .register(registry);
+        Gauge.builder("deals.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Submits in flight")
+                .register(registry);
+        Gauge.builder("deals.limiter.clients", inflightByClient, ConcurrentMap::size)
+                .description("Clients with submits in flight")
+                .register(registry);
+    }
+}
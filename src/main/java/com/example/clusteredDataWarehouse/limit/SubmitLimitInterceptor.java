@@ -0,0 +1,57 @@
+package com.example.clusteredDataWarehouse.limit;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.CLIENT_ID_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.FORWARDED_BY_HEADER;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.PEER_TOKEN_HEADER;
+
+/**
+ * Holds a limiter slot for each submit request until it completes. A rejection is thrown from
+ * here, before the body is read, and answered by the exception handler like any other.
+ * Submits forwarded by a peer only count against the node's limit: their client was held to its
+ * share by the node it called, and all of a peer's clients would otherwise share one. Only a
+ * request {@link DealRouter#isPeer authenticated as a peer's} counts as forwarded. A request
+ * takes more of the limit the larger its body; a chunked body without a length takes one permit.
+ */
+@RequiredArgsConstructor
+public class SubmitLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMISSION_ATTRIBUTE = SubmitLimitInterceptor.class.getName() + ".admission";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final DealRouter dealRouter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = clientOf(request);
+        int permits = limiter.permitsFor(request.getContentLengthLong());
+        limiter.acquire(client, permits);
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(client, permits));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            limiter.release(admission.client(), admission.permits());
+        }
+    }
+
+    // null for a submit forwarded by a peer
+    String clientOf(HttpServletRequest request) {
+        if (dealRouter.isPeer(request.getHeader(FORWARDED_BY_HEADER), request.getHeader(PEER_TOKEN_HEADER))) {
+            return null;
+        }
+        String client = request.getHeader(CLIENT_ID_HEADER);
+        return client != null && !client.isBlank() ? "client:" + client : "address:" + request.getRemoteAddr();
+    }
+
+    private record Admission(String client, int permits) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The DEAL_IMPORT_CHECKPOINTS table of V6__create_deal_import_checkpoints.sql. {@link #save} is
+ * meant to run in the transaction that stored the chunk the checkpoint covers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DealImportCheckpointRepository {
+
+    private static final String SAVE_SQL = "INSERT INTO DEAL_IMPORT_CHECKPOINTS (NODE, FILE_NAME, COMMITTED_LINES, REJECTED_BYTES,"
+            + " ACCEPTED, DUPLICATES, INVALID, UNAVAILABLE, UPDATED_AT) VALUES (?, ?, ?, ?, ?, ?, ?, ?, LOCALTIMESTAMP)"
+            + " ON CONFLICT (NODE, FILE_NAME) DO UPDATE SET COMMITTED_LINES = EXCLUDED.COMMITTED_LINES,"
+            + " REJECTED_BYTES = EXCLUDED.REJECTED_BYTES, ACCEPTED = EXCLUDED.ACCEPTED, DUPLICATES = EXCLUDED.DUPLICATES,"
+            + " INVALID = EXCLUDED.INVALID, UNAVAILABLE = EXCLUDED.UNAVAILABLE, UPDATED_AT = EXCLUDED.UPDATED_AT";
+
+    private static final RowMapper<Checkpoint> CHECKPOINT_MAPPER = (resultSet, rowNum) -> new Checkpoint(
+            resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+            resultSet.getLong(4), resultSet.getLong(5), resultSet.getLong(6));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Checkpoint> find(String node, String fileName) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query("SELECT COMMITTED_LINES, REJECTED_BYTES, ACCEPTED, DUPLICATES,"
+                + " INVALID, UNAVAILABLE FROM DEAL_IMPORT_CHECKPOINTS WHERE NODE = ? AND FILE_NAME = ?",
+                CHECKPOINT_MAPPER, node, fileName);
+        return checkpoints.stream().findFirst();
+    }
+
+    public void save(String node, String fileName, Checkpoint checkpoint) {
+        jdbcTemplate.update(SAVE_SQL, node, fileName, checkpoint.getCommittedLines(), checkpoint.getRejectedBytes(),
+                checkpoint.getAccepted(), checkpoint.getDuplicates(), checkpoint.getInvalid(), checkpoint.getUnavailable());
+    }
+
+    public void delete(String node, String fileName) {
+        jdbcTemplate.update("DELETE FROM DEAL_IMPORT_CHECKPOINTS WHERE NODE = ? AND FILE_NAME = ?", node, fileName);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Checkpoint {
+        private long committedLines;
+        private long rejectedBytes;
+        private long accepted;
+        private long duplicates;
+        private long invalid;
+        private long unavailable;
+    }
+}
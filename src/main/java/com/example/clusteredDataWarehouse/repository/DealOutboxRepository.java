@@ -0,0 +1,92 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The DEAL_OUTBOX and DEAL_FEED_CURSORS tables of V5__create_deal_outbox.sql. Positions are only
+ * assigned by {@link #assignPositions}, whose caller must hold {@link #tryLockPublisher} in the same
+ * transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DealOutboxRepository {
+
+    // one publisher per database, whichever node gets the lock
+    private static final long PUBLISHER_LOCK = 0x4445414c46454544L;
+
+    private static final String ASSIGN_POSITIONS_SQL = "WITH LAST AS (SELECT COALESCE(MAX(POSITION), 0) AS POSITION FROM DEAL_OUTBOX),"
+            + " PENDING AS (SELECT ID, row_number() OVER (ORDER BY ID) AS RN"
+            + " FROM (SELECT ID FROM DEAL_OUTBOX WHERE POSITION IS NULL ORDER BY ID LIMIT ?) P)"
+            + " UPDATE DEAL_OUTBOX O SET POSITION = LAST.POSITION + PENDING.RN FROM PENDING, LAST WHERE O.ID = PENDING.ID";
+
+    private static final String FIND_AFTER_SQL = "SELECT POSITION, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED"
+            + " FROM DEAL_OUTBOX WHERE POSITION > ? ORDER BY POSITION LIMIT ?";
+
+    // the row holding the highest position is kept, it is where the next positions continue from
+    private static final String PURGE_SQL = "DELETE FROM DEAL_OUTBOX WHERE RECORDED_AT < ?"
+            + " AND (POSITION IS NULL OR POSITION < (SELECT MAX(POSITION) FROM DEAL_OUTBOX))";
+
+    private static final RowMapper<DealFeedItem> ITEM_MAPPER = (resultSet, rowNum) -> DealFeedItem.builder()
+            .position(resultSet.getLong(1))
+            .uniqueId(resultSet.getString(2))
+            .fromCurrency(CurrencyCodes.isoCode(resultSet.getShort(3)))
+            .toCurrency(CurrencyCodes.isoCode(resultSet.getShort(4)))
+            .amount(resultSet.getBigDecimal(5))
+            .createdAt(resultSet.getTimestamp(6).toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transaction-scoped; false when another node is publishing. */
+    public boolean tryLockPublisher() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, PUBLISHER_LOCK));
+    }
+
+    public int assignPositions(int limit) {
+        return jdbcTemplate.update(ASSIGN_POSITIONS_SQL, limit);
+    }
+
+    public long lastPosition() {
+        Long position = jdbcTemplate.queryForObject("SELECT MAX(POSITION) FROM DEAL_OUTBOX", Long.class);
+        return position == null ? 0 : position;
+    }
+
+    /** Lowest position still retained, 0 when nothing was published yet. */
+    public long oldestPosition() {
+        Long position = jdbcTemplate.queryForObject("SELECT MIN(POSITION) FROM DEAL_OUTBOX", Long.class);
+        return position == null ? 0 : position;
+    }
+
+    public List<DealFeedItem> findAfter(long position, int limit) {
+        return jdbcTemplate.query(FIND_AFTER_SQL, ITEM_MAPPER, position, limit);
+    }
+
+    public int purge(LocalDateTime recordedBefore) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(recordedBefore));
+    }
+
+    /**
+     * Locks the cursor of a sink for the current transaction, creating it at {@code initialPosition}.
+     * Null when another node holds it.
+     */
+    public Long lockSinkPosition(String sink, long initialPosition) {
+        jdbcTemplate.update("INSERT INTO DEAL_FEED_CURSORS (SINK, POSITION, UPDATED_AT) VALUES (?, ?, LOCALTIMESTAMP)"
+                + " ON CONFLICT (SINK) DO NOTHING", sink, initialPosition);
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT POSITION FROM DEAL_FEED_CURSORS WHERE SINK = ? FOR UPDATE SKIP LOCKED", Long.class, sink);
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    public void saveSinkPosition(String sink, long position) {
+        jdbcTemplate.update("UPDATE DEAL_FEED_CURSORS SET POSITION = ?, UPDATED_AT = LOCALTIMESTAMP WHERE SINK = ?", position, sink);
+    }
+}
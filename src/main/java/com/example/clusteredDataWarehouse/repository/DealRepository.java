@@ -2,10 +2,51 @@ package com.example.clusteredDataWarehouse.repository;
 
 import com.example.clusteredDataWarehouse.entities.Deal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface DealRepository extends JpaRepository<Deal, Long> {
+public interface DealRepository extends JpaRepository<Deal, Long>, DealRepositoryCustom {
+
+    // uniqueId lookups go through the unpartitioned key table: one index probe instead of one per partition.
+    // The duplicate checks run in a read-write transaction of their own so that, with replica routing,
+    // they read the primary and never miss a deal a replica has not replayed yet.
+    @Transactional
+    @Query("select count(k) > 0 from DealUniqueId k where k.uniqueId = :uniqueId")
+    boolean existsByUniqueId(@Param("uniqueId") String uniqueId);
+
+    // the key's DATE_INSERTED lets the planner prune DEALS down to the one partition holding the deal.
+    // On its own it reads the primary, as the idempotency check needs; DealQueryService's cache misses
+    // call it inside a read-only transaction, which it joins, so they read a replica
+    @Transactional
+    @Query("select d from Deal d, DealUniqueId k where k.uniqueId = :uniqueId"
+            + " and d.uniqueId = k.uniqueId and d.createdAt = k.createdAt")
+    Optional<Deal> findByUniqueId(@Param("uniqueId") String uniqueId);
+
+    @Query("select k.createdAt from DealUniqueId k where k.uniqueId = :uniqueId")
+    Optional<LocalDateTime> findCreatedAtByUniqueId(@Param("uniqueId") String uniqueId);
+
+    // keyset (seek) pages: the (DATE_INSERTED, ID) row comparison continues right after the previous
+    // page's last row, so the cost stays flat however deep the caller pages. The redundant
+    // DATE_INSERTED >= :afterCreatedAt is what partition pruning can use; row comparisons are not.
+    // The currencies are CurrencyCodes, as stored.
+    @Query(value = "SELECT * FROM DEALS WHERE FROM_CURRENCY = :fromCurrency AND TO_CURRENCY = :toCurrency"
+            + " AND DATE_INSERTED >= :afterCreatedAt AND DATE_INSERTED < :to AND (DATE_INSERTED, ID) > (:afterCreatedAt, :afterId)"
+            + " ORDER BY DATE_INSERTED, ID LIMIT :limit", nativeQuery = true)
+    List<Deal> findPairPage(@Param("fromCurrency") short fromCurrency, @Param("toCurrency") short toCurrency,
+                            @Param("to") LocalDateTime to, @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                            @Param("afterId") long afterId, @Param("limit") int limit);
 
-    boolean existsByUniqueId(String uniqueId);
+    @Query(value = "SELECT * FROM DEALS WHERE DATE_INSERTED >= :afterCreatedAt AND DATE_INSERTED < :to"
+            + " AND (DATE_INSERTED, ID) > (:afterCreatedAt, :afterId)"
+            + " ORDER BY DATE_INSERTED, ID LIMIT :limit", nativeQuery = true)
+    List<Deal> findPage(@Param("to") LocalDateTime to, @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                        @Param("afterId") long afterId, @Param("limit") int limit);
 }
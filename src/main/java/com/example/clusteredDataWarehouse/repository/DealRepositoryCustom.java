@@ -0,0 +1,14 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface DealRepositoryCustom {
+
+    void saveAllInBatches(List<Deal> deals);
+
+    Set<String> findExistingUniqueIds(Collection<String> uniqueIds);
+}
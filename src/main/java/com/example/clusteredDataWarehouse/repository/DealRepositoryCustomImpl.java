@@ -0,0 +1,60 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DealRepositoryCustomImpl implements DealRepositoryCustom {
+
+    private static final String FIND_EXISTING_UNIQUE_IDS_SQL = "SELECT UNIQUE_ID FROM DEAL_UNIQUE_IDS WHERE UNIQUE_ID = ANY(?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void saveAllInBatches(List<Deal> deals) {
+        for (int i = 0; i < deals.size(); i++) {
+            entityManager.persist(deals.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // the ids go in as one array parameter: one statement and one plan for any batch size, where an
+    // IN list needs a statement per chunk of ids and a differently shaped one per chunk size.
+    // Read-write like the other duplicate checks, so it reads the primary
+    @Override
+    @Transactional
+    public Set<String> findExistingUniqueIds(Collection<String> uniqueIds) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_EXISTING_UNIQUE_IDS_SQL)) {
+                statement.setArray(1, connection.createArrayOf("varchar", uniqueIds.toArray()));
+                Set<String> existingIds = new HashSet<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        existingIds.add(resultSet.getString(1));
+                    }
+                }
+                return existingIds;
+            }
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DealRollupRepository extends JpaRepository<DealRollup, DealRollup.Key>, DealRollupRepositoryCustom {
+}
@@ -0,0 +1,18 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import com.example.clusteredDataWarehouse.enums.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DealRollupRepositoryCustom {
+
+    void increment(Collection<DealRollup> deltas);
+
+    List<DealRollup> findRollups(RollupGranularity granularity, String fromCurrency, String toCurrency,
+                                 LocalDateTime from, LocalDateTime to);
+
+    int rebuild(LocalDateTime from, LocalDateTime to);
+}
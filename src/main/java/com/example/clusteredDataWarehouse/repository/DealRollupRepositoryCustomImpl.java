@@ -0,0 +1,90 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import com.example.clusteredDataWarehouse.enums.RollupGranularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class DealRollupRepositoryCustomImpl implements DealRollupRepositoryCustom {
+
+    private static final String INCREMENT_SQL = "INSERT INTO DEAL_ROLLUPS"
+            + " (FROM_CURRENCY, TO_CURRENCY, BUCKET_START, DEAL_COUNT, TOTAL_AMOUNT, MIN_AMOUNT, MAX_AMOUNT)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (FROM_CURRENCY, TO_CURRENCY, BUCKET_START) DO UPDATE SET"
+            + " DEAL_COUNT = DEAL_ROLLUPS.DEAL_COUNT + EXCLUDED.DEAL_COUNT,"
+            + " TOTAL_AMOUNT = DEAL_ROLLUPS.TOTAL_AMOUNT + EXCLUDED.TOTAL_AMOUNT,"
+            + " MIN_AMOUNT = LEAST(DEAL_ROLLUPS.MIN_AMOUNT, EXCLUDED.MIN_AMOUNT),"
+            + " MAX_AMOUNT = GREATEST(DEAL_ROLLUPS.MAX_AMOUNT, EXCLUDED.MAX_AMOUNT)";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM DEAL_ROLLUPS WHERE BUCKET_START >= ? AND BUCKET_START < ?";
+
+    private static final String REBUILD_RANGE_SQL = "INSERT INTO DEAL_ROLLUPS"
+            + " (FROM_CURRENCY, TO_CURRENCY, BUCKET_START, DEAL_COUNT, TOTAL_AMOUNT, MIN_AMOUNT, MAX_AMOUNT)"
+            + " SELECT CURRENCY_ISO(FROM_CURRENCY), CURRENCY_ISO(TO_CURRENCY), date_trunc('hour', DATE_INSERTED),"
+            + " COUNT(*), SUM(AMOUNT), MIN(AMOUNT), MAX(AMOUNT)"
+            + " FROM DEALS WHERE DATE_INSERTED >= ? AND DATE_INSERTED < ?"
+            + " GROUP BY FROM_CURRENCY, TO_CURRENCY, date_trunc('hour', DATE_INSERTED)";
+
+    private static final RowMapper<DealRollup> ROLLUP_MAPPER = (rs, rowNum) -> DealRollup.builder()
+            .fromCurrency(rs.getString("FROM_CURRENCY"))
+            .toCurrency(rs.getString("TO_CURRENCY"))
+            .bucketStart(rs.getTimestamp("BUCKET").toLocalDateTime())
+            .dealCount(rs.getLong("DEAL_COUNT"))
+            .totalAmount(rs.getBigDecimal("TOTAL_AMOUNT"))
+            .minAmount(rs.getBigDecimal("MIN_AMOUNT"))
+            .maxAmount(rs.getBigDecimal("MAX_AMOUNT"))
+            .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void increment(Collection<DealRollup> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (DealRollup delta : deltas) {
+            rows.add(new Object[]{delta.getFromCurrency(), delta.getToCurrency(), Timestamp.valueOf(delta.getBucketStart()),
+                    delta.getDealCount(), delta.getTotalAmount(), delta.getMinAmount(), delta.getMaxAmount()});
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DealRollup> findRollups(RollupGranularity granularity, String fromCurrency, String toCurrency,
+                                        LocalDateTime from, LocalDateTime to) {
+        String bucket = granularity == RollupGranularity.HOUR ? "BUCKET_START" : "date_trunc('day', BUCKET_START)";
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        String pairFilter = "";
+        if (fromCurrency != null) {
+            pairFilter = " AND FROM_CURRENCY = ? AND TO_CURRENCY = ?";
+            args.add(fromCurrency);
+            args.add(toCurrency);
+        }
+        String sql = "SELECT FROM_CURRENCY, TO_CURRENCY, " + bucket + " AS BUCKET,"
+                + " CAST(SUM(DEAL_COUNT) AS BIGINT) AS DEAL_COUNT, SUM(TOTAL_AMOUNT) AS TOTAL_AMOUNT,"
+                + " MIN(MIN_AMOUNT) AS MIN_AMOUNT, MAX(MAX_AMOUNT) AS MAX_AMOUNT"
+                + " FROM DEAL_ROLLUPS WHERE BUCKET_START >= ? AND BUCKET_START < ?" + pairFilter
+                + " GROUP BY FROM_CURRENCY, TO_CURRENCY, BUCKET"
+                + " ORDER BY FROM_CURRENCY, TO_CURRENCY, BUCKET";
+        return jdbcTemplate.query(sql, ROLLUP_MAPPER, args.toArray());
+    }
+
+    @Override
+    @Transactional
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        jdbcTemplate.update(DELETE_RANGE_SQL, start, end);
+        return jdbcTemplate.update(REBUILD_RANGE_SQL, start, end);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.clusteredDataWarehouse.repository;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The queries of the reactive submit path over R2DBC. Each statement is the non-blocking twin of
+ * the JPA or JDBC one in {@link DealRepository} and {@link DealRollupRepositoryCustomImpl}; the
+ * DEAL_UNIQUE_IDS trigger still settles concurrent submits of one uniqueId.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveDealRepository {
+
+    // Hibernate's pooled optimizer hands out (value - allocationSize, value] for every DEALS_SEQ value
+    // it fetches, so a value fetched here is never handed out there
+    private static final String INSERT_SQL = "INSERT INTO DEALS"
+            + " (ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED)"
+            + " VALUES (nextval('DEALS_SEQ'), $1, $2, $3, $4, $5)";
+
+    private static final String INCREMENT_SQL = "INSERT INTO DEAL_ROLLUPS"
+            + " (FROM_CURRENCY, TO_CURRENCY, BUCKET_START, DEAL_COUNT, TOTAL_AMOUNT, MIN_AMOUNT, MAX_AMOUNT)"
+            + " VALUES ($1, $2, $3, $4, $5, $6, $7)"
+            + " ON CONFLICT (FROM_CURRENCY, TO_CURRENCY, BUCKET_START) DO UPDATE SET"
+            + " DEAL_COUNT = DEAL_ROLLUPS.DEAL_COUNT + EXCLUDED.DEAL_COUNT,"
+            + " TOTAL_AMOUNT = DEAL_ROLLUPS.TOTAL_AMOUNT + EXCLUDED.TOTAL_AMOUNT,"
+            + " MIN_AMOUNT = LEAST(DEAL_ROLLUPS.MIN_AMOUNT, EXCLUDED.MIN_AMOUNT),"
+            + " MAX_AMOUNT = GREATEST(DEAL_ROLLUPS.MAX_AMOUNT, EXCLUDED.MAX_AMOUNT)";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsByUniqueId(String uniqueId) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM DEAL_UNIQUE_IDS WHERE UNIQUE_ID = :uniqueId)")
+                .bind("uniqueId", uniqueId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    // one array parameter for the whole batch, as in DealRepositoryCustomImpl
+    public Flux<String> findExistingUniqueIds(Collection<String> uniqueIds) {
+        return databaseClient.sql("SELECT UNIQUE_ID FROM DEAL_UNIQUE_IDS WHERE UNIQUE_ID = ANY(:uniqueIds)")
+                .bind("uniqueIds", uniqueIds.toArray(new String[0]))
+                .map(row -> row.get(0, String.class))
+                .all();
+    }
+
+    public Mono<Deal> findByUniqueId(String uniqueId) {
+        return databaseClient.sql("SELECT D.ID, D.UNIQUE_ID, D.FROM_CURRENCY, D.TO_CURRENCY, D.AMOUNT, D.DATE_INSERTED"
+                        + " FROM DEALS D JOIN DEAL_UNIQUE_IDS K"
+                        + " ON D.UNIQUE_ID = K.UNIQUE_ID AND D.DATE_INSERTED = K.DATE_INSERTED"
+                        + " WHERE K.UNIQUE_ID = :uniqueId")
+                .bind("uniqueId", uniqueId)
+                .map(ReactiveDealRepository::toDeal)
+                .one();
+    }
+
+    public Mono<LocalDateTime> findCreatedAtByUniqueId(String uniqueId) {
+        return databaseClient.sql("SELECT DATE_INSERTED FROM DEAL_UNIQUE_IDS WHERE UNIQUE_ID = :uniqueId")
+                .bind("uniqueId", uniqueId)
+                .map(row -> row.get(0, LocalDateTime.class))
+                .one();
+    }
+
+    /**
+     * Inserts the deals as one batch; their createdAt must be set.
+     */
+    public Mono<Void> insertAll(List<Deal> deals) {
+        if (deals.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < deals.size(); i++) {
+                Deal deal = deals.get(i);
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, deal.getUniqueId())
+                        .bind(1, (short) CurrencyCodes.pack(deal.getFromCurrency()))
+                        .bind(2, (short) CurrencyCodes.pack(deal.getToCurrency()))
+                        .bind(3, deal.getDealAmount())
+                        .bind(4, deal.getCreatedAt());
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+
+    public Mono<Void> increment(Collection<DealRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INCREMENT_SQL);
+            boolean first = true;
+            for (DealRollup delta : deltas) {
+                if (!first) {
+                    statement.add();
+                }
+                first = false;
+                statement.bind(0, delta.getFromCurrency())
+                        .bind(1, delta.getToCurrency())
+                        .bind(2, delta.getBucketStart())
+                        .bind(3, delta.getDealCount())
+                        .bind(4, delta.getTotalAmount())
+                        .bind(5, delta.getMinAmount())
+                        .bind(6, delta.getMaxAmount());
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+
+    private static Deal toDeal(Readable row) {
+        Deal deal = Deal.builder()
+                .uniqueId(row.get(1, String.class))
+                .fromCurrency(CurrencyCodes.isoCode(row.get(2, Short.class)))
+                .toCurrency(CurrencyCodes.isoCode(row.get(3, Short.class)))
+                .dealAmount(row.get(4, BigDecimal.class))
+                .build();
+        deal.setId(row.get(0, Long.class));
+        deal.setCreatedAt(row.get(5, LocalDateTime.class));
+        return deal;
+    }
+}
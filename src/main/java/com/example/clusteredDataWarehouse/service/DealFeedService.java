@@ -0,0 +1,11 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.response.DealFeedResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DealFeedService {
+    ResponseEntity<DealFeedResponse> getChanges(Long after, Integer size, Long waitMs);
+
+    SseEmitter streamChanges(Long after, Integer size);
+}
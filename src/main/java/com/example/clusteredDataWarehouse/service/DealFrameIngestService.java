@@ -0,0 +1,11 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DealFrameIngestService {
+    ResponseEntity<BulkDealResponse> submitFrames(InputStream frames) throws IOException;
+}
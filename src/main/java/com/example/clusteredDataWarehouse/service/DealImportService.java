@@ -0,0 +1,18 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.response.ImportProgress;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface DealImportService {
+    ResponseEntity<ImportProgress> uploadFile(MultipartFile file);
+
+    ResponseEntity<ImportProgress> getProgress(String fileName);
+
+    ResponseEntity<List<ImportProgress>> getAllProgress();
+
+    ImportProgress importFile(Path file);
+}
@@ -0,0 +1,21 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealPageResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+
+public interface DealQueryService {
+    ResponseEntity<DealResponse> getDeal(String uniqueId);
+
+    ResponseEntity<DealPageResponse> listDeals(String fromCurrency, String toCurrency, LocalDateTime from,
+                                               LocalDateTime to, String cursor, Integer size);
+
+    /**
+     * Drops the cached deals created in [from, to) on this node and, unless the call came from a
+     * peer, on every other node of the cluster.
+     */
+    ResponseEntity<ApiResponse> invalidateCachedDeals(LocalDateTime from, LocalDateTime to, boolean fromPeer);
+}
@@ -0,0 +1,26 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealRollupResponse;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import com.example.clusteredDataWarehouse.enums.RollupGranularity;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DealRollupService {
+    void record(Collection<Deal> deals);
+
+    /**
+     * The increments {@link #record} applies for the deals, in lock order; empty when rollups are disabled.
+     */
+    Collection<DealRollup> deltas(Collection<Deal> deals);
+
+    ResponseEntity<List<DealRollupResponse>> getRollups(RollupGranularity granularity, String fromCurrency,
+                                                        String toCurrency, LocalDateTime from, LocalDateTime to);
+
+    ResponseEntity<ApiResponse> rebuild(LocalDateTime from, LocalDateTime to);
+}
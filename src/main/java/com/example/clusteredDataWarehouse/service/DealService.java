@@ -2,8 +2,25 @@ package com.example.clusteredDataWarehouse.service;
 
 import com.example.clusteredDataWarehouse.dto.request.DealRequest;
 import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.dto.response.DealStatusResponse;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+
 public interface DealService {
     ResponseEntity<ApiResponse> submitRequest(DealRequest dealRequest);
+
+    ResponseEntity<ApiResponse> submitOwnedRequest(DealRequest dealRequest);
+
+    ResponseEntity<BulkDealResponse> submitBulkRequest(List<DealRequest> dealRequests);
+
+    ResponseEntity<BulkDealResponse> submitOwnedBulkRequest(List<DealRequest> dealRequests);
+
+    List<DealItemResult> processBatch(List<DealRequest> dealRequests);
+
+    ResponseEntity<DealStatusResponse> getStatus(String uniqueId);
+
+    ResponseEntity<DealStatusResponse> getOwnedStatus(String uniqueId);
 }
@@ -0,0 +1,22 @@
+package com.example.clusteredDataWarehouse.service;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link DealService} and {@link DealQueryService} on the reactive runtime: the same validation,
+ * duplicate handling and responses, persisted over R2DBC.
+ */
+public interface ReactiveDealService {
+    Mono<ResponseEntity<ApiResponse>> submitRequest(DealRequest dealRequest);
+
+    Mono<ResponseEntity<BulkDealResponse>> submitBulkRequest(List<DealRequest> dealRequests);
+
+    Mono<ResponseEntity<DealResponse>> getDeal(String uniqueId);
+}
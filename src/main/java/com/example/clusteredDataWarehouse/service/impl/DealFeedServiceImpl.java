@@ -0,0 +1,177 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedResponse;
+import com.example.clusteredDataWarehouse.exception.ExpiredPositionException;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.feed.DealFeedPublisher;
+import com.example.clusteredDataWarehouse.repository.DealOutboxRepository;
+import com.example.clusteredDataWarehouse.service.DealFeedService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+/**
+ * Reads the change feed for consumers that tail it. A position is the consumer's cursor: every
+ * answer carries the last position it holds, and reading after it continues without gaps or
+ * repeats. Long-polls wait on the publisher instead of re-querying; streams are served by one push
+ * thread that wakes on each published batch and sends every subscriber what it has not seen yet.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "deals.feed", name = "enabled", matchIfMissing = true)
+public class DealFeedServiceImpl implements DealFeedService {
+
+    static final String EVENT_NAME = "deals";
+
+    private final DealOutboxRepository dealOutboxRepository;
+
+    private final DealFeedPublisher dealFeedPublisher;
+
+    private final DealProperties dealProperties;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean pushScheduled = new AtomicBoolean();
+
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deal-feed-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DealFeedServiceImpl(DealOutboxRepository dealOutboxRepository, DealFeedPublisher dealFeedPublisher,
+                               DealProperties dealProperties) {
+        this.dealOutboxRepository = dealOutboxRepository;
+        this.dealFeedPublisher = dealFeedPublisher;
+        this.dealProperties = dealProperties;
+        dealFeedPublisher.addListener(this::schedulePush);
+    }
+
+    @Override
+    public ResponseEntity<DealFeedResponse> getChanges(Long after, Integer size, Long waitMs) {
+        int batchSize = resolveSize(size);
+        long position = resolvePosition(after);
+        long wait = Math.min(waitMs == null ? 0 : Math.max(waitMs, 0), dealProperties.getFeed().getMaxWaitMs());
+
+        List<DealFeedItem> deals = dealOutboxRepository.findAfter(position, batchSize);
+        if (deals.isEmpty() && wait > 0) {
+            try {
+                if (dealFeedPublisher.awaitPositionAfter(position, wait) > position) {
+                    deals = dealOutboxRepository.findAfter(position, batchSize);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ResponseEntity.ok(DealFeedResponse.builder()
+                .deals(deals)
+                .size(deals.size())
+                .lastPosition(deals.isEmpty() ? position : deals.get(deals.size() - 1).getPosition())
+                .build());
+    }
+
+    @Override
+    public SseEmitter streamChanges(Long after, Integer size) {
+        Subscription subscription = new Subscription(new SseEmitter(dealProperties.getFeed().getStreamTimeoutMs()),
+                resolvePosition(after), resolveSize(size));
+        subscription.emitter.onCompletion(() -> subscriptions.remove(subscription));
+        subscription.emitter.onTimeout(() -> subscriptions.remove(subscription));
+        subscription.emitter.onError(ex -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        schedulePush();
+        return subscription.emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private int resolveSize(Integer size) {
+        int batchSize = size == null ? DealQueryServiceImpl.DEFAULT_PAGE_SIZE : size;
+        if (batchSize < 1 || batchSize > DealQueryServiceImpl.MAX_PAGE_SIZE) {
+            throw new ValidationException(INVALID_PAGE_SIZE);
+        }
+        return batchSize;
+    }
+
+    // no position starts at the oldest retained change; one before it was purged cannot be resumed
+    private long resolvePosition(Long after) {
+        long oldestRetained = Math.max(dealOutboxRepository.oldestPosition() - 1, 0);
+        if (after == null) {
+            return oldestRetained;
+        }
+        if (after < 0) {
+            throw new ValidationException(INVALID_FEED_POSITION);
+        }
+        if (after < oldestRetained) {
+            throw new ExpiredPositionException(FEED_POSITION_EXPIRED);
+        }
+        return after;
+    }
+
+    private void schedulePush() {
+        if (!subscriptions.isEmpty() && pushScheduled.compareAndSet(false, true)) {
+            pushExecutor.execute(this::push);
+        }
+    }
+
+    private void push() {
+        pushScheduled.set(false);
+        long oldestRetained = Math.max(dealOutboxRepository.oldestPosition() - 1, 0);
+        for (Subscription subscription : subscriptions) {
+            try {
+                if (subscription.position < oldestRetained) {
+                    // the subscriber reconnects from its last event id and is told it expired
+                    subscription.emitter.complete();
+                    continue;
+                }
+                List<DealFeedItem> deals;
+                while (!(deals = dealOutboxRepository.findAfter(subscription.position, subscription.size)).isEmpty()) {
+                    long lastPosition = deals.get(deals.size() - 1).getPosition();
+                    subscription.emitter.send(SseEmitter.event()
+                            .id(Long.toString(lastPosition))
+                            .name(EVENT_NAME)
+                            .data(deals, MediaType.APPLICATION_JSON));
+                    subscription.position = lastPosition;
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("change feed subscriber dropped at position {}", subscription.position, ex);
+                subscriptions.remove(subscription);
+            } catch (RuntimeException ex) {
+                log.warn("change feed push failed, retried on the next publish", ex);
+            }
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final int size;
+        private volatile long position;
+
+        private Subscription(SseEmitter emitter, long position, int size) {
+            this.emitter = emitter;
+            this.position = position;
+            this.size = size;
+        }
+    }
+}
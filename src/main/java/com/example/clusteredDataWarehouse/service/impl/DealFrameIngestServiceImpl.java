@@ -0,0 +1,96 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.ingest.DealFrameReader;
+import com.example.clusteredDataWarehouse.service.DealFrameIngestService;
+import com.example.clusteredDataWarehouse.service.DealService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.BATCH_TOO_LARGE;
+import static com.example.clusteredDataWarehouse.util.MessageConstants.EMPTY_BATCH;
+
+/**
+ * Feeds a binary deal stream through {@link DealService#processBatch}, one transaction per
+ * frame, while the rest of the stream is still arriving. The response lists only the rejected
+ * deals, indexed by their position in the whole stream. A frame that cannot be read ends the
+ * stream; when frames before it are already stored, the answer is a 422 that still carries their
+ * summary and says where to resume.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DealFrameIngestServiceImpl implements DealFrameIngestService {
+
+    private final DealService dealService;
+
+    private final DealProperties dealProperties;
+
+    @Override
+    public ResponseEntity<BulkDealResponse> submitFrames(InputStream frames) throws IOException {
+        DealFrameReader reader = new DealFrameReader(frames, dealProperties.getBinary().getMaxFrameBytes());
+        int offset = 0;
+        int accepted = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        int unavailable = 0;
+        List<DealItemResult> rejected = new ArrayList<>();
+        int frameIndex = 0;
+        List<DealRequest> frame;
+        while (true) {
+            try {
+                frame = reader.nextFrame();
+                if (frame != null && frame.size() > dealProperties.getBulk().getMaxSize()) {
+                    throw new ValidationException(BATCH_TOO_LARGE);
+                }
+            } catch (ValidationException ex) {
+                if (frameIndex == 0) {
+                    throw ex;
+                }
+                log.info("fx deal frames stopped at frame {}: {} of {} accepted", frameIndex, accepted, offset);
+                BulkDealResponse response = BulkDealResponse.summarize(accepted, duplicates, invalid, unavailable, rejected);
+                response.setFailedFrame(frameIndex);
+                response.setFailedAt(offset);
+                response.setError(ex.getMessage());
+                return ResponseEntity.unprocessableEntity().body(response);
+            }
+            if (frame == null) {
+                break;
+            }
+            frameIndex++;
+            if (frame.isEmpty()) {
+                continue;
+            }
+            for (DealItemResult result : dealService.processBatch(frame)) {
+                switch (result.getStatus()) {
+                    case ACCEPTED -> accepted++;
+                    case DUPLICATE -> duplicates++;
+                    case INVALID -> invalid++;
+                    case UNAVAILABLE -> unavailable++;
+                }
+                if (result.getStatus() != DealItemStatus.ACCEPTED) {
+                    result.setIndex(offset + result.getIndex());
+                    rejected.add(result);
+                }
+            }
+            offset += frame.size();
+        }
+        if (offset == 0) {
+            throw new ValidationException(EMPTY_BATCH);
+        }
+        log.info("fx deal frames processed: {} of {} accepted", accepted, offset);
+        return ResponseEntity.ok(BulkDealResponse.summarize(accepted, duplicates, invalid, unavailable, rejected));
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.dto.response.ImportProgress;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.ImportState;
+import com.example.clusteredDataWarehouse.exception.NotFoundException;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.repository.DealImportCheckpointRepository;
+import com.example.clusteredDataWarehouse.repository.DealImportCheckpointRepository.Checkpoint;
+import com.example.clusteredDataWarehouse.service.DealImportService;
+import com.example.clusteredDataWarehouse.service.DealService;
+import com.example.clusteredDataWarehouse.util.DealRowParser;
+import com.example.clusteredDataWarehouse.util.RejectedRows;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DealImportServiceImpl implements DealImportService {
+
+    private static final String DONE_SUFFIX = ".done";
+    private static final String UPLOAD_SUFFIX = ".uploading";
+
+    private final DealService dealService;
+
+    private final DealProperties dealProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final DealImportCheckpointRepository dealImportCheckpointRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final Map<String, ImportProgress> imports = new ConcurrentHashMap<>();
+
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deal-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public ResponseEntity<ImportProgress> uploadFile(MultipartFile file) {
+        String fileName = file.getOriginalFilename() == null ? "" : Paths.get(file.getOriginalFilename()).getFileName().toString();
+        if (DealRowParser.formatOf(fileName) == null) {
+            throw new ValidationException(UNSUPPORTED_IMPORT_FORMAT);
+        }
+
+        Path directory = importDirectory();
+        Path target = directory.resolve(fileName);
+        if (Files.exists(target) || Files.exists(directory.resolve(fileName + DONE_SUFFIX))) {
+            throw new ValidationException(IMPORT_ALREADY_EXISTS);
+        }
+
+        Path upload = directory.resolve(fileName + UPLOAD_SUFFIX);
+        try {
+            file.transferTo(upload);
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        enqueue(target);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(imports.get(fileName));
+    }
+
+    @Override
+    public ResponseEntity<ImportProgress> getProgress(String fileName) {
+        ImportProgress progress = imports.get(fileName);
+        if (progress == null) {
+            throw new NotFoundException(IMPORT_NOT_FOUND);
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    @Override
+    public ResponseEntity<List<ImportProgress>> getAllProgress() {
+        return ResponseEntity.ok(imports.values()
+                .stream()
+                .sorted(Comparator.comparing(ImportProgress::getFileName))
+                .collect(Collectors.toList()));
+    }
+
+    @Scheduled(fixedDelayString = "${deals.file-import.poll-interval-ms:5000}")
+    public void scanDropFolder() {
+        if (!dealProperties.getFileImport().isWatchEnabled()) {
+            return;
+        }
+        findImportFiles().forEach(this::enqueue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedImports() {
+        findImportFiles().stream()
+                .filter(file -> dealImportCheckpointRepository.find(node(), file.getFileName().toString()).isPresent())
+                .forEach(this::enqueue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    @Override
+    public ImportProgress importFile(Path file) {
+        String fileName = file.getFileName().toString();
+        Path rejectedFile = siblingOf(file, RejectedRows.SUFFIX);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+
+        try {
+            Checkpoint checkpoint = readCheckpoint(fileName);
+            boolean resuming = checkpoint.getCommittedLines() > 0;
+            if (resuming) {
+                log.info("resuming import of {} after line {}", fileName, checkpoint.getCommittedLines());
+                try (FileChannel channel = FileChannel.open(rejectedFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.truncate(checkpoint.getRejectedBytes());
+                }
+            }
+
+            ImportProgress progress = publish(ImportProgress.builder()
+                    .fileName(fileName)
+                    .state(ImportState.RUNNING)
+                    .committedLines(checkpoint.getCommittedLines())
+                    .accepted(checkpoint.getAccepted())
+                    .duplicates(checkpoint.getDuplicates())
+                    .invalid(checkpoint.getInvalid())
+                    .unavailable(checkpoint.getUnavailable())
+                    .startedAt(startedAt)
+                    .build());
+
+            DealRowParser parser = new DealRowParser(DealRowParser.formatOf(fileName), objectMapper);
+            int chunkSize = dealProperties.getFileImport().getChunkSize();
+            List<DealRequest> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkLines = new ArrayList<>(chunkSize);
+            long rowsProcessed = 0;
+
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 BufferedWriter rejected = Files.newBufferedWriter(rejectedFile, StandardCharsets.UTF_8,
+                         StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         resuming ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (!resuming) {
+                    rejected.write(RejectedRows.HEADER);
+                    rejected.newLine();
+                }
+
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber == 1 && parser.readHeader(line)) {
+                        continue;
+                    }
+                    if (lineNumber <= checkpoint.getCommittedLines() || line.isBlank()) {
+                        continue;
+                    }
+
+                    try {
+                        chunk.add(parser.parse(line));
+                        chunkLines.add(lineNumber);
+                    } catch (IllegalArgumentException ex) {
+                        RejectedRows.write(rejected, lineNumber, null, DealItemStatus.INVALID, UNREADABLE_ROW + ": " + ex.getMessage());
+                        checkpoint.setInvalid(checkpoint.getInvalid() + 1);
+                        rowsProcessed++;
+                    }
+
+                    if (chunk.size() >= chunkSize) {
+                        rowsProcessed += commitChunk(chunk, chunkLines, lineNumber, checkpoint, rejected, rejectedFile, fileName);
+                        progress = publish(progressOf(progress, checkpoint, rowsProcessed, startNanos));
+                    }
+                }
+                rowsProcessed += commitChunk(chunk, chunkLines, lineNumber, checkpoint, rejected, rejectedFile, fileName);
+            }
+
+            // dropped before the move: a crash in between re-imports the file, which only finds duplicates
+            dealImportCheckpointRepository.delete(node(), fileName);
+            Files.move(file, siblingOf(file, DONE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+
+            log.info("import of {} completed: {} accepted, {} duplicates, {} invalid",
+                    fileName, checkpoint.getAccepted(), checkpoint.getDuplicates(), checkpoint.getInvalid());
+            return publish(progressOf(progress, checkpoint, rowsProcessed, startNanos).toBuilder()
+                    .state(ImportState.COMPLETED)
+                    .finishedAt(LocalDateTime.now())
+                    .build());
+        } catch (Exception ex) {
+            log.error("import of {} failed: {}", fileName, ex.getMessage(), ex);
+            ImportProgress current = imports.getOrDefault(fileName, ImportProgress.builder().fileName(fileName).build());
+            return publish(current.toBuilder()
+                    .state(ImportState.FAILED)
+                    .finishedAt(LocalDateTime.now())
+                    .message(ex.getMessage())
+                    .build());
+        }
+    }
+
+    private void enqueue(Path file) {
+        String fileName = file.getFileName().toString();
+        ImportProgress queued = ImportProgress.builder()
+                .fileName(fileName)
+                .state(ImportState.QUEUED)
+                .build();
+        ImportProgress existing = imports.putIfAbsent(fileName, queued);
+        if (existing != null) {
+            // failed imports stay parked until a restart resumes them from their checkpoint
+            return;
+        }
+        importExecutor.execute(() -> importFile(file));
+    }
+
+    /**
+     * Stores the chunk and saves the checkpoint after it in one transaction, so a restart neither
+     * skips a chunk that was rolled back nor repeats one that was stored.
+     */
+    private long commitChunk(List<DealRequest> chunk, List<Long> chunkLines, long lineNumber, Checkpoint checkpoint,
+                             BufferedWriter rejected, Path rejectedFile, String fileName) {
+        int committedRows = chunk.size();
+        transactionOperations.executeWithoutResult(status -> {
+            try {
+                storeChunk(chunk, chunkLines, checkpoint, rejected);
+                rejected.flush();
+                checkpoint.setCommittedLines(lineNumber);
+                checkpoint.setRejectedBytes(Files.size(rejectedFile));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            dealImportCheckpointRepository.save(node(), fileName, checkpoint);
+        });
+        chunk.clear();
+        chunkLines.clear();
+        return committedRows;
+    }
+
+    private void storeChunk(List<DealRequest> chunk, List<Long> chunkLines, Checkpoint checkpoint,
+                            BufferedWriter rejected) throws IOException {
+        if (!chunk.isEmpty()) {
+            List<DealItemResult> results = dealService.processBatch(new ArrayList<>(chunk));
+            for (DealItemResult result : results) {
+                switch (result.getStatus()) {
+                    case ACCEPTED -> checkpoint.setAccepted(checkpoint.getAccepted() + 1);
+                    case DUPLICATE -> checkpoint.setDuplicates(checkpoint.getDuplicates() + 1);
+                    case INVALID -> checkpoint.setInvalid(checkpoint.getInvalid() + 1);
+                    case UNAVAILABLE -> checkpoint.setUnavailable(checkpoint.getUnavailable() + 1);
+                }
+                if (result.getStatus() != DealItemStatus.ACCEPTED) {
+                    RejectedRows.write(rejected, chunkLines.get(result.getIndex()), result.getUniqueId(),
+                            result.getStatus(), String.join("; ", result.getMessages()));
+                }
+            }
+        }
+    }
+
+    private ImportProgress progressOf(ImportProgress progress, Checkpoint checkpoint, long rowsProcessed, long startNanos) {
+        double elapsedSeconds = Math.max(Duration.ofNanos(System.nanoTime() - startNanos).toMillis(), 1) / 1000.0;
+        return progress.toBuilder()
+                .committedLines(checkpoint.getCommittedLines())
+                .rowsProcessed(rowsProcessed)
+                .accepted(checkpoint.getAccepted())
+                .duplicates(checkpoint.getDuplicates())
+                .invalid(checkpoint.getInvalid())
+                .unavailable(checkpoint.getUnavailable())
+                .rowsPerSecond(Math.round(rowsProcessed / elapsedSeconds * 10) / 10.0)
+                .build();
+    }
+
+    private ImportProgress publish(ImportProgress progress) {
+        imports.put(progress.getFileName(), progress);
+        return progress;
+    }
+
+    private Checkpoint readCheckpoint(String fileName) {
+        return dealImportCheckpointRepository.find(node(), fileName).orElseGet(Checkpoint::new);
+    }
+
+    private String node() {
+        return dealProperties.getCluster().getSelf();
+    }
+
+    private List<Path> findImportFiles() {
+        Path directory = Paths.get(dealProperties.getFileImport().getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> DealRowParser.formatOf(file.getFileName().toString()) != null)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Path importDirectory() {
+        Path directory = Paths.get(dealProperties.getFileImport().getDirectory());
+        try {
+            return Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Path siblingOf(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+}
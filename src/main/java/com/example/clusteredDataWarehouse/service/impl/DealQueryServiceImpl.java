@@ -0,0 +1,188 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealPageResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.exception.NotFoundException;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
+import com.example.clusteredDataWarehouse.storage.DealArchive;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import com.example.clusteredDataWarehouse.util.DealCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class DealQueryServiceImpl implements DealQueryService {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Comparator<Deal> DEAL_ORDER = Comparator
+            .comparing(Deal::getCreatedAt)
+            .thenComparing(Deal::getId);
+
+    private final DealRepository dealRepository;
+
+    private final DealArchive dealArchive;
+
+    private final DealCache dealCache;
+
+    private final DealRouter dealRouter;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DealQueryServiceImpl(DealRepository dealRepository, DealArchive dealArchive, DealCache dealCache,
+                                DealRouter dealRouter, PlatformTransactionManager transactionManager) {
+        this.dealRepository = dealRepository;
+        this.dealArchive = dealArchive;
+        this.dealCache = dealCache;
+        this.dealRouter = dealRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // the cache is checked before any transaction, so a hit needs no connection; a miss is read in a
+    // read-only transaction, which the repository's lookups join, so with replica routing it reads a replica
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<DealResponse> getDeal(String uniqueId) {
+        return dealCache.get(uniqueId, () -> readOnlyTransaction.execute(status -> loadDeal(uniqueId)))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new NotFoundException(DEAL_NOT_FOUND));
+    }
+
+    // archived deals keep their key, whose DATE_INSERTED points at the archive day to read
+    private Optional<DealResponse> loadDeal(String uniqueId) {
+        return dealRepository.findByUniqueId(uniqueId)
+                .or(() -> dealRepository.findCreatedAtByUniqueId(uniqueId)
+                        .flatMap(createdAt -> dealArchive.find(uniqueId, createdAt)))
+                .map(DealResponse::from);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ApiResponse> invalidateCachedDeals(LocalDateTime from, LocalDateTime to, boolean fromPeer) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(INVALID_DATE_RANGE);
+        }
+        int invalidated = dealCache.invalidateCreatedBetween(from, to);
+        log.info("invalidated {} cached deals created between {} and {}", invalidated, from, to);
+        if (!fromPeer) {
+            dealRouter.broadcastCacheInvalidation(from, to);
+        }
+        return ResponseEntity.ok(ApiResponse.builder()
+                .code(ResponseCodes.SUCCESS.getValue())
+                .message(CACHE_INVALIDATED + ": " + invalidated + " deals")
+                .build());
+    }
+
+    @Override
+    public ResponseEntity<DealPageResponse> listDeals(String fromCurrency, String toCurrency, LocalDateTime from,
+                                                      LocalDateTime to, String cursor, Integer size) {
+        if ((fromCurrency == null) != (toCurrency == null)) {
+            throw new ValidationException(INCOMPLETE_CURRENCY_PAIR);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException(INVALID_PAGE_SIZE);
+        }
+        LocalDateTime lower = from == null ? MIN_DATE : from;
+        LocalDateTime upper = to == null ? MAX_DATE : to;
+        if (!lower.isBefore(upper)) {
+            throw new ValidationException(INVALID_DATE_RANGE);
+        }
+
+        // with no cursor the seek starts at (from, Long.MIN_VALUE), i.e. DATE_INSERTED >= from
+        LocalDateTime afterCreatedAt = lower;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            Position position = decodeCursor(cursor);
+            afterCreatedAt = position.createdAt();
+            afterId = position.id();
+        }
+
+        // one extra row tells us whether there is a next page without a count query; archived and
+        // live rows are merged so a page may span the archive boundary
+        String pairFrom = fromCurrency == null ? null : fromCurrency.toUpperCase(Locale.ROOT);
+        String pairTo = toCurrency == null ? null : toCurrency.toUpperCase(Locale.ROOT);
+        List<Deal> deals = new ArrayList<>(dealArchive.page(pairFrom, pairTo, upper, afterCreatedAt, afterId, pageSize + 1));
+        if (pairFrom == null) {
+            deals.addAll(dealRepository.findPage(upper, afterCreatedAt, afterId, pageSize + 1));
+        } else {
+            int fromCode = CurrencyCodes.pack(pairFrom);
+            int toCode = CurrencyCodes.pack(pairTo);
+            // a code that cannot be packed was never stored
+            if (fromCode != CurrencyCodes.INVALID && toCode != CurrencyCodes.INVALID) {
+                deals.addAll(dealRepository.findPairPage((short) fromCode, (short) toCode, upper, afterCreatedAt,
+                        afterId, pageSize + 1));
+            }
+        }
+        deals.sort(DEAL_ORDER);
+        if (deals.size() > pageSize + 1) {
+            deals = deals.subList(0, pageSize + 1);
+        }
+
+        String nextCursor = null;
+        if (deals.size() > pageSize) {
+            deals = deals.subList(0, pageSize);
+            Deal last = deals.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return ResponseEntity.ok(DealPageResponse.builder()
+                .deals(deals.stream().map(DealResponse::from).collect(Collectors.toList()))
+                .size(deals.size())
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    static String encodeCursor(LocalDateTime createdAt, long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            if (separator < 0) {
+                throw new ValidationException(INVALID_CURSOR);
+            }
+            return new Position(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+
+    record Position(LocalDateTime createdAt, long id) {
+    }
+}
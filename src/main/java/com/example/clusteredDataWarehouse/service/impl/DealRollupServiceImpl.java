@@ -0,0 +1,125 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealRollupResponse;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.entities.DealRollup;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.enums.RollupGranularity;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.repository.DealRollupRepository;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
+import com.example.clusteredDataWarehouse.storage.DealPartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DealRollupServiceImpl implements DealRollupService {
+
+    // upserts are issued in key order so concurrent batches lock shared buckets in the same order
+    private static final Comparator<DealRollup.Key> KEY_ORDER = Comparator
+            .comparing(DealRollup.Key::getFromCurrency)
+            .thenComparing(DealRollup.Key::getToCurrency)
+            .thenComparing(DealRollup.Key::getBucketStart);
+
+    private final DealRollupRepository dealRollupRepository;
+
+    private final DealProperties dealProperties;
+
+    private final DealPartitionManager dealPartitionManager;
+
+    @Override
+    public void record(Collection<Deal> deals) {
+        Collection<DealRollup> deltas = deltas(deals);
+        if (!deltas.isEmpty()) {
+            dealRollupRepository.increment(deltas);
+        }
+    }
+
+    @Override
+    public Collection<DealRollup> deltas(Collection<Deal> deals) {
+        if (!dealProperties.getRollup().isEnabled() || deals.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<DealRollup.Key, DealRollup> deltas = new TreeMap<>(KEY_ORDER);
+        for (Deal deal : deals) {
+            DealRollup.Key key = new DealRollup.Key(deal.getFromCurrency(), deal.getToCurrency(),
+                    RollupGranularity.HOUR.truncate(deal.getCreatedAt()));
+            DealRollup delta = deltas.get(key);
+            if (delta == null) {
+                deltas.put(key, DealRollup.builder()
+                        .fromCurrency(key.getFromCurrency())
+                        .toCurrency(key.getToCurrency())
+                        .bucketStart(key.getBucketStart())
+                        .dealCount(1)
+                        .totalAmount(deal.getDealAmount())
+                        .minAmount(deal.getDealAmount())
+                        .maxAmount(deal.getDealAmount())
+                        .build());
+                continue;
+            }
+            delta.setDealCount(delta.getDealCount() + 1);
+            delta.setTotalAmount(delta.getTotalAmount().add(deal.getDealAmount()));
+            delta.setMinAmount(delta.getMinAmount().min(deal.getDealAmount()));
+            delta.setMaxAmount(delta.getMaxAmount().max(deal.getDealAmount()));
+        }
+        return deltas.values();
+    }
+
+    @Override
+    public ResponseEntity<List<DealRollupResponse>> getRollups(RollupGranularity granularity, String fromCurrency,
+                                                               String toCurrency, LocalDateTime from, LocalDateTime to) {
+        if ((fromCurrency == null) != (toCurrency == null)) {
+            throw new ValidationException(INCOMPLETE_CURRENCY_PAIR);
+        }
+        LocalDateTime upper = to == null ? LocalDateTime.now() : to;
+        LocalDateTime lower = from == null ? upper.minusDays(1) : from;
+        if (!lower.isBefore(upper)) {
+            throw new ValidationException(INVALID_DATE_RANGE);
+        }
+
+        List<DealRollup> rollups = dealRollupRepository.findRollups(granularity,
+                fromCurrency == null ? null : fromCurrency.toUpperCase(Locale.ROOT),
+                toCurrency == null ? null : toCurrency.toUpperCase(Locale.ROOT),
+                granularity.truncate(lower), granularity.ceil(upper));
+        return ResponseEntity.ok(rollups.stream().map(DealRollupResponse::from).collect(Collectors.toList()));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse> rebuild(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime lower = RollupGranularity.HOUR.truncate(from);
+        LocalDateTime upper = RollupGranularity.HOUR.ceil(to);
+        if (!lower.isBefore(upper)) {
+            throw new ValidationException(INVALID_DATE_RANGE);
+        }
+        // DEALS no longer has the rows of detached and archived months; rebuilding them would wipe their rollups
+        if (dealPartitionManager.detachedThrough().filter(lower::isBefore).isPresent()) {
+            throw new ValidationException(ROLLUP_RANGE_DETACHED);
+        }
+
+        int buckets = dealRollupRepository.rebuild(lower, upper);
+        log.info("rebuilt {} rollup buckets between {} and {}", buckets, lower, upper);
+        return ResponseEntity.ok(ApiResponse.builder()
+                .code(ResponseCodes.SUCCESS.getValue())
+                .message(ROLLUPS_REBUILT + ": " + buckets + " buckets")
+                .build());
+    }
+}
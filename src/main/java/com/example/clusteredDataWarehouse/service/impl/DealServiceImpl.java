@@ -1,20 +1,57 @@
 package com.example.clusteredDataWarehouse.service.impl;
 
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.config.DealProperties;
 import com.example.clusteredDataWarehouse.dto.request.DealRequest;
 import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealStatusResponse;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.IngestMode;
+import com.example.clusteredDataWarehouse.enums.PersistenceState;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
 import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.enums.SubmitPhase;
 import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.exception.ForwardedRejectionException;
+import com.example.clusteredDataWarehouse.exception.NodeUnavailableException;
+import com.example.clusteredDataWarehouse.exception.NotFoundException;
+import com.example.clusteredDataWarehouse.exception.QueueFullException;
 import com.example.clusteredDataWarehouse.exception.ValidationException;
 import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.ingest.DealIngestionQueue;
 import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
 import com.example.clusteredDataWarehouse.service.DealService;
-import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import com.example.clusteredDataWarehouse.util.ConstraintViolations;
+import com.example.clusteredDataWarehouse.util.DealCache;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.DealRequestValidator;
+import com.example.clusteredDataWarehouse.util.IdempotencyCache;
+import com.example.clusteredDataWarehouse.util.UniqueIdIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
 
@@ -25,49 +62,348 @@ public class DealServiceImpl implements DealService {
 
     private final DealRepository dealRepository;
 
-    private final CurrencyValidator currencyValidator;
+    private final DealRequestValidator dealRequestValidator;
+
+    private final DealProperties dealProperties;
+
+    private final UniqueIdIndex uniqueIdIndex;
+
+    private final DealIngestionQueue dealIngestionQueue;
+
+    private final DealRollupService dealRollupService;
+
+    private final DealMetrics dealMetrics;
+
+    private final IdempotencyCache idempotencyCache;
+
+    private final DealRouter dealRouter;
+
+    private final DealCache dealCache;
+
+    private final TransactionOperations transactionOperations;
 
     @Override
     public ResponseEntity<ApiResponse> submitRequest(DealRequest dealRequest) {
-        validateRequest(dealRequest);
-        saveDeal(dealRequest);
-        return ResponseEntity.ok(ApiResponse.builder()
-                .code(ResponseCodes.SUCCESS.getValue())
-                .message(SUCCESS)
+        if (!dealRouter.isLocal(dealRequest.getUniqueId())) {
+            return dealRouter.forwardSubmit(dealRouter.ownerOf(dealRequest.getUniqueId()), dealRequest);
+        }
+        return submitOwnedRequest(dealRequest);
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse> submitOwnedRequest(DealRequest dealRequest) {
+        return dealMetrics.timeSubmit(SubmitPhase.TOTAL, () -> {
+            IdempotencyCache.Entry cached = idempotencyCache.isEnabled()
+                    ? idempotencyCache.find(dealRequest.getUniqueId()) : null;
+            if (cached != null) {
+                if (!cached.matches(dealRequest)) {
+                    dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                    throw new DuplicateException(NON_UNIQUE_ID);
+                }
+                return replay(cached.status(), cached.response());
+            }
+
+            Deal stored = validateRequest(dealRequest);
+            if (stored != null) {
+                // a retry whose cache entry expired or was evicted; the stored row is as good a witness
+                ResponseEntity<ApiResponse> response = acceptedResponse();
+                idempotencyCache.put(dealRequest, response.getStatusCode(), response.getBody());
+                return replay(response.getStatusCode(), response.getBody());
+            }
+            if (dealProperties.getIngest().getMode() == IngestMode.ASYNC) {
+                enqueueDeal(dealRequest);
+            } else {
+                saveDeal(dealRequest);
+            }
+            ResponseEntity<ApiResponse> response = acceptedResponse();
+            idempotencyCache.put(dealRequest, response.getStatusCode(), response.getBody());
+            return response;
+        });
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<BulkDealResponse> submitBulkRequest(List<DealRequest> dealRequests) {
+        validateBatchSize(dealRequests);
+        return ResponseEntity.ok(BulkDealResponse.of(processBatch(dealRequests)));
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<BulkDealResponse> submitOwnedBulkRequest(List<DealRequest> dealRequests) {
+        validateBatchSize(dealRequests);
+        return ResponseEntity.ok(BulkDealResponse.of(
+                dealMetrics.timeBatch(SubmitPhase.TOTAL, () -> doProcessBatch(dealRequests))));
+    }
+
+    @Override
+    @Transactional
+    public List<DealItemResult> processBatch(List<DealRequest> dealRequests) {
+        return dealMetrics.timeBatch(SubmitPhase.TOTAL, () -> dealRouter.isEnabled()
+                ? routeBatch(dealRequests)
+                : doProcessBatch(dealRequests));
+    }
+
+    private void validateBatchSize(List<DealRequest> dealRequests) {
+        if (dealRequests == null || dealRequests.isEmpty()) {
+            throw new ValidationException(EMPTY_BATCH);
+        }
+        if (dealRequests.size() > dealProperties.getBulk().getMaxSize()) {
+            throw new ValidationException(BATCH_TOO_LARGE);
+        }
+    }
+
+    /**
+     * Splits a batch by owning node: every foreign share is sent to its owner as one bulk
+     * request, then the local share is processed here. Item indexes are mapped back to the
+     * caller's batch. Each node commits its own share; the local writes come last so this
+     * transaction holds no row locks (the shared rollup rows) while other nodes write theirs.
+     * Since shares commit separately, a share whose owner cannot take it is reported item by item
+     * as {@link DealItemStatus#UNAVAILABLE} rather than failing a batch that is partly stored.
+     */
+    private List<DealItemResult> routeBatch(List<DealRequest> dealRequests) {
+        Map<String, List<Integer>> indexesByNode = new LinkedHashMap<>();
+        indexesByNode.put(dealRouter.self(), new ArrayList<>());
+        for (int i = 0; i < dealRequests.size(); i++) {
+            DealRequest dealRequest = dealRequests.get(i);
+            String node = dealRouter.ownerOf(dealRequest != null ? dealRequest.getUniqueId() : null);
+            indexesByNode.computeIfAbsent(node, key -> new ArrayList<>()).add(i);
+        }
+
+        DealItemResult[] results = new DealItemResult[dealRequests.size()];
+        List<Integer> localIndexes = indexesByNode.remove(dealRouter.self());
+        for (Map.Entry<String, List<Integer>> share : indexesByNode.entrySet()) {
+            List<DealRequest> shareRequests = select(dealRequests, share.getValue());
+            List<DealItemResult> shareResults;
+            try {
+                shareResults = dealRouter.forwardBulk(share.getKey(), shareRequests).getResults();
+            } catch (NodeUnavailableException | ForwardedRejectionException ex) {
+                log.warn("share of {} deals not stored on {}: {}", shareRequests.size(), share.getKey(), ex.getMessage());
+                shareResults = unavailableResults(shareRequests,
+                        ex instanceof NodeUnavailableException ? OWNER_NODE_UNAVAILABLE : OWNER_NODE_REJECTED);
+            }
+            placeResults(shareResults, share.getValue(), results);
+        }
+        if (!localIndexes.isEmpty()) {
+            placeResults(doProcessBatch(select(dealRequests, localIndexes)), localIndexes, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private static List<DealRequest> select(List<DealRequest> dealRequests, List<Integer> indexes) {
+        List<DealRequest> selected = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> selected.add(dealRequests.get(index)));
+        return selected;
+    }
+
+    private static List<DealItemResult> unavailableResults(List<DealRequest> shareRequests, String message) {
+        List<DealItemResult> shareResults = new ArrayList<>(shareRequests.size());
+        for (int i = 0; i < shareRequests.size(); i++) {
+            shareResults.add(DealItemResult.builder()
+                    .index(i)
+                    .uniqueId(shareRequests.get(i).getUniqueId())
+                    .status(DealItemStatus.UNAVAILABLE)
+                    .messages(Collections.singletonList(message))
+                    .build());
+        }
+        return shareResults;
+    }
+
+    private static void placeResults(List<DealItemResult> shareResults, List<Integer> indexes, DealItemResult[] results) {
+        for (DealItemResult result : shareResults) {
+            int index = indexes.get(result.getIndex());
+            result.setIndex(index);
+            results[index] = result;
+        }
+    }
+
+    private List<DealItemResult> doProcessBatch(List<DealRequest> dealRequests) {
+        dealMetrics.recordBatchSize(dealRequests.size());
+        List<DealItemResult> results = new ArrayList<>(dealRequests.size());
+        List<DealRequest> candidates = new ArrayList<>();
+        List<List<String>> violations = dealMetrics.timeBatch(SubmitPhase.VALIDATE,
+                () -> dealRequestValidator.findBatchViolations(dealRequests));
+        for (int i = 0; i < dealRequests.size(); i++) {
+            DealRequest dealRequest = dealRequests.get(i);
+            List<String> itemViolations = violations.get(i);
+            results.add(DealItemResult.builder()
+                    .index(i)
+                    .uniqueId(dealRequest != null ? dealRequest.getUniqueId() : null)
+                    .status(itemViolations.isEmpty() ? DealItemStatus.ACCEPTED : DealItemStatus.INVALID)
+                    .messages(itemViolations.isEmpty() ? null : itemViolations)
+                    .build());
+            if (itemViolations.isEmpty()) {
+                candidates.add(dealRequest);
+            }
+        }
+
+        Set<String> existingIds = dealMetrics.timeBatch(SubmitPhase.DEDUP, () -> findExistingUniqueIds(candidates));
+        Set<String> seenIds = new HashSet<>();
+        List<Deal> deals = new ArrayList<>(candidates.size());
+        for (DealItemResult result : results) {
+            if (result.getStatus() != DealItemStatus.ACCEPTED) {
+                continue;
+            }
+            if (existingIds.contains(result.getUniqueId()) || !seenIds.add(result.getUniqueId())) {
+                result.setStatus(DealItemStatus.DUPLICATE);
+                result.setMessages(Collections.singletonList(NON_UNIQUE_ID));
+                dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                continue;
+            }
+            deals.add(buildDeal(dealRequests.get(result.getIndex())));
+        }
+
+        dealMetrics.timeBatchPersist(deals.size(), () -> dealRepository.saveAllInBatches(deals));
+        dealMetrics.timeBatch(SubmitPhase.ROLLUP, () -> dealRollupService.record(deals));
+        deals.forEach(deal -> uniqueIdIndex.add(deal.getUniqueId()));
+        dealMetrics.persisted(deals.size());
+        log.info("fx deal batch saved: {} of {} accepted", deals.size(), dealRequests.size());
+        return results;
+    }
+
+    // a deal still queued is only known to its owner's queue
+    @Override
+    public ResponseEntity<DealStatusResponse> getStatus(String uniqueId) {
+        if (!dealRouter.isLocal(uniqueId)) {
+            return dealRouter.forwardStatus(dealRouter.ownerOf(uniqueId), uniqueId);
+        }
+        return getOwnedStatus(uniqueId);
+    }
+
+    @Override
+    public ResponseEntity<DealStatusResponse> getOwnedStatus(String uniqueId) {
+        PersistenceState state = dealIngestionQueue.statusOf(uniqueId);
+        if (state == null && dealRepository.existsByUniqueId(uniqueId)) {
+            state = PersistenceState.PERSISTED;
+        }
+        if (state == null) {
+            throw new NotFoundException(DEAL_NOT_FOUND);
+        }
+        return ResponseEntity.ok(DealStatusResponse.builder()
+                .uniqueId(uniqueId)
+                .state(state)
                 .build());
     }
 
-    private void validateRequest(DealRequest dealRequest) {
-        boolean dealExists = dealRepository.existsByUniqueId(dealRequest.getUniqueId());
+    /**
+     * Rejects invalid deals and duplicates, in that order: the rules are in-memory, so a deal they
+     * reject never costs a database round trip. In idempotency mode a deal identical to the stored
+     * one with its uniqueId is not a duplicate: the stored deal is returned so the submit can be
+     * answered as a replay.
+     */
+    private Deal validateRequest(DealRequest dealRequest) {
+        List<String> violations = dealMetrics.timeSubmit(SubmitPhase.VALIDATE,
+                () -> dealRequestValidator.findBusinessViolations(dealRequest));
+        if (!violations.isEmpty()) {
+            dealMetrics.rejected(RejectionReason.VALIDATION, violations);
+            throw new ValidationException(violations);
+        }
+
+        boolean dealExists = dealMetrics.timeSubmit(SubmitPhase.DEDUP, () ->
+                uniqueIdIndex.mightContain(dealRequest.getUniqueId())
+                        && dealRepository.existsByUniqueId(dealRequest.getUniqueId()));
         if (dealExists) {
+            Deal stored = idempotencyCache.isEnabled()
+                    ? dealRepository.findByUniqueId(dealRequest.getUniqueId()).orElse(null) : null;
+            if (stored != null && isSameDeal(stored, dealRequest)) {
+                return stored;
+            }
+            dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
             throw new DuplicateException(NON_UNIQUE_ID);
         }
+        return null;
+    }
 
-        BigDecimal amount = dealRequest.getAmount();
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new ValidationException(INVALID_DEAL_AMOUNT);
-        }
+    private boolean isSameDeal(Deal deal, DealRequest dealRequest) {
+        return Objects.equals(deal.getFromCurrency(), dealRequest.getFromCurrency())
+                && Objects.equals(deal.getToCurrency(), dealRequest.getToCurrency())
+                && deal.getDealAmount() != null && dealRequest.getAmount() != null
+                && deal.getDealAmount().compareTo(dealRequest.getAmount()) == 0;
+    }
 
-        boolean isValidFromCurrencyCode = currencyValidator.isValidCurrencyCode(dealRequest.getFromCurrency());
-        if (!isValidFromCurrencyCode) {
-            throw new ValidationException(INVALID_FROM_CURRENCY_CODE);
+    private ResponseEntity<ApiResponse> acceptedResponse() {
+        if (dealProperties.getIngest().getMode() == IngestMode.ASYNC) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.builder()
+                    .code(ResponseCodes.SUCCESS.getValue())
+                    .message(ACCEPTED)
+                    .build());
         }
+        return ResponseEntity.ok(ApiResponse.builder()
+                .code(ResponseCodes.SUCCESS.getValue())
+                .message(SUCCESS)
+                .build());
+    }
 
-        boolean isValidToCurrencyCode = currencyValidator.isValidCurrencyCode(dealRequest.getToCurrency());
-        if (!isValidToCurrencyCode) {
-            throw new ValidationException(INVALID_TO_CURRENCY_CODE);
-        }
+    private ResponseEntity<ApiResponse> replay(HttpStatusCode status, ApiResponse response) {
+        dealMetrics.replayed();
+        return ResponseEntity.status(status)
+                .header(IDEMPOTENT_REPLAY_HEADER, "true")
+                .body(response);
     }
 
-    private void saveDeal(DealRequest dealRequest) {
-        Deal deal = Deal.builder()
+    // one set-based lookup for the whole batch, for the ids the Bloom filter cannot rule out
+    private Set<String> findExistingUniqueIds(List<DealRequest> dealRequests) {
+        List<String> uniqueIds = dealRequests.stream()
+                .map(DealRequest::getUniqueId)
+                .filter(uniqueIdIndex::mightContain)
+                .collect(Collectors.toList());
+        return uniqueIds.isEmpty() ? Collections.emptySet() : dealRepository.findExistingUniqueIds(uniqueIds);
+    }
+
+    private Deal buildDeal(DealRequest dealRequest) {
+        return Deal.builder()
                 .dealAmount(dealRequest.getAmount())
                 .fromCurrency(dealRequest.getFromCurrency())
                 .toCurrency(dealRequest.getToCurrency())
                 .uniqueId(dealRequest.getUniqueId())
                 .build();
-        log.info("fx deal saved");
-        dealRepository.save(deal);
+    }
+
+    private void enqueueDeal(DealRequest dealRequest) {
+        try {
+            dealMetrics.timeSubmit(SubmitPhase.ENQUEUE, () -> dealIngestionQueue.enqueue(dealRequest));
+        } catch (QueueFullException ex) {
+            dealMetrics.rejected(RejectionReason.QUEUE_FULL, INGEST_QUEUE_FULL);
+            throw ex;
+        } catch (DuplicateException ex) {
+            dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+            throw ex;
+        }
+        dealMetrics.queued(1);
+    }
+
+    /**
+     * Stores the deal and its rollup increment in one transaction, as a batch does: a failed
+     * increment rolls the deal back and fails the submit rather than leaving its hour short.
+     * The insert is flushed before the increment so a duplicate surfaces as a persist failure.
+     */
+    private void saveDeal(DealRequest dealRequest) {
+        Deal deal = buildDeal(dealRequest);
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                dealMetrics.timeSubmit(SubmitPhase.PERSIST, () -> dealRepository.saveAndFlush(deal));
+                dealMetrics.timeSubmit(SubmitPhase.ROLLUP, () -> dealRollupService.record(Collections.singletonList(deal)));
+            });
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isUniqueIdViolation(ex)) {
+                dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                throw new DuplicateException(NON_UNIQUE_ID);
+            }
+            throw ex;
+        }
+        uniqueIdIndex.add(deal.getUniqueId());
+        dealCache.put(cachedResponse(deal));
+        dealMetrics.persisted(1);
+        log.debug("fx deal saved");
+    }
+
+    // the driver rounds DATE_INSERTED to microseconds, half up; cache what a lookup would read back
+    private static DealResponse cachedResponse(Deal deal) {
+        DealResponse response = DealResponse.from(deal);
+        if (response.getCreatedAt() != null) {
+            response.setCreatedAt(response.getCreatedAt().plusNanos(500).truncatedTo(ChronoUnit.MICROS));
+        }
+        return response;
     }
 
 
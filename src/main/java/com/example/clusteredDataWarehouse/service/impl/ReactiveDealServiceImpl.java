@@ -0,0 +1,230 @@
+package com.example.clusteredDataWarehouse.service.impl;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.IngestMode;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.exception.NotFoundException;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.repository.ReactiveDealRepository;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
+import com.example.clusteredDataWarehouse.service.ReactiveDealService;
+import com.example.clusteredDataWarehouse.storage.DealArchive;
+import com.example.clusteredDataWarehouse.util.ConstraintViolations;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.DealRequestValidator;
+import com.example.clusteredDataWarehouse.util.UniqueIdIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+/**
+ * The submit path of {@link DealServiceImpl} without a blocked thread per request: the checks run in
+ * the same order with the same messages, and only the database calls are R2DBC. Bulk validation is
+ * CPU work and runs on the parallel scheduler, never on the event loop. Write-behind ingestion,
+ * idempotent replays and clustering stay on the servlet runtime.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDealServiceImpl implements ReactiveDealService {
+
+    private final ReactiveDealRepository reactiveDealRepository;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final DealRequestValidator dealRequestValidator;
+
+    private final DealProperties dealProperties;
+
+    private final UniqueIdIndex uniqueIdIndex;
+
+    private final DealRollupService dealRollupService;
+
+    private final DealArchive dealArchive;
+
+    private final DealMetrics dealMetrics;
+
+    public ReactiveDealServiceImpl(ReactiveDealRepository reactiveDealRepository, TransactionalOperator transactionalOperator,
+                                   DealRequestValidator dealRequestValidator, DealProperties dealProperties,
+                                   UniqueIdIndex uniqueIdIndex, DealRollupService dealRollupService,
+                                   DealArchive dealArchive, DealMetrics dealMetrics) {
+        if (dealProperties.getIngest().getMode() == IngestMode.ASYNC || dealProperties.getIdempotency().isEnabled()
+                || dealProperties.getCluster().isEnabled()) {
+            throw new IllegalStateException("The reactive runtime supports neither deals.ingest.mode=async,"
+                    + " deals.idempotency nor deals.cluster");
+        }
+        this.reactiveDealRepository = reactiveDealRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.dealRequestValidator = dealRequestValidator;
+        this.dealProperties = dealProperties;
+        this.uniqueIdIndex = uniqueIdIndex;
+        this.dealRollupService = dealRollupService;
+        this.dealArchive = dealArchive;
+        this.dealMetrics = dealMetrics;
+    }
+
+    @Override
+    public Mono<ResponseEntity<ApiResponse>> submitRequest(DealRequest dealRequest) {
+        String uniqueId = dealRequest.getUniqueId();
+        Mono<Boolean> dealExists = uniqueIdIndex.mightContain(uniqueId)
+                ? reactiveDealRepository.existsByUniqueId(uniqueId)
+                : Mono.just(false);
+        // the in-memory rules go first, as on the servlet stack
+        List<String> violations = dealRequestValidator.findBusinessViolations(dealRequest);
+        if (!violations.isEmpty()) {
+            dealMetrics.rejected(RejectionReason.VALIDATION, violations);
+            return Mono.error(new ValidationException(violations));
+        }
+        return dealExists.flatMap(exists -> {
+            if (exists) {
+                dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                return Mono.error(new DuplicateException(NON_UNIQUE_ID));
+            }
+            return saveDeal(buildDeal(dealRequest));
+        }).thenReturn(ResponseEntity.ok(ApiResponse.builder()
+                .code(ResponseCodes.SUCCESS.getValue())
+                .message(SUCCESS)
+                .build()));
+    }
+
+    @Override
+    public Mono<ResponseEntity<BulkDealResponse>> submitBulkRequest(List<DealRequest> dealRequests) {
+        if (dealRequests == null || dealRequests.isEmpty()) {
+            return Mono.error(new ValidationException(EMPTY_BATCH));
+        }
+        if (dealRequests.size() > dealProperties.getBulk().getMaxSize()) {
+            return Mono.error(new ValidationException(BATCH_TOO_LARGE));
+        }
+
+        return Mono.fromCallable(() -> validate(dealRequests))
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(results -> findExistingUniqueIds(results)
+                        .flatMap(existingIds -> {
+                            List<Deal> deals = markDuplicates(results, existingIds, dealRequests);
+                            Mono<Void> persist = reactiveDealRepository.insertAll(deals)
+                                    .then(Mono.defer(() -> reactiveDealRepository.increment(dealRollupService.deltas(deals))));
+                            return transactionalOperator.transactional(persist)
+                                    .then(Mono.fromRunnable(() -> {
+                                        deals.forEach(deal -> uniqueIdIndex.add(deal.getUniqueId()));
+                                        dealMetrics.persisted(deals.size());
+                                        log.info("fx deal batch saved: {} of {} accepted", deals.size(), dealRequests.size());
+                                    }));
+                        })
+                        .then(Mono.fromSupplier(() -> ResponseEntity.ok(BulkDealResponse.of(results)))));
+    }
+
+    @Override
+    public Mono<ResponseEntity<DealResponse>> getDeal(String uniqueId) {
+        // archived deals keep their key, whose DATE_INSERTED points at the archive day to read
+        Mono<Deal> archived = reactiveDealRepository.findCreatedAtByUniqueId(uniqueId)
+                .flatMap(createdAt -> Mono.fromCallable(() -> dealArchive.find(uniqueId, createdAt).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()));
+        return reactiveDealRepository.findByUniqueId(uniqueId)
+                .switchIfEmpty(archived)
+                .map(deal -> ResponseEntity.ok(DealResponse.from(deal)))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(DEAL_NOT_FOUND)));
+    }
+
+    private List<DealItemResult> validate(List<DealRequest> dealRequests) {
+        dealMetrics.recordBatchSize(dealRequests.size());
+        List<List<String>> violations = dealRequestValidator.findBatchViolations(dealRequests);
+        List<DealItemResult> results = new ArrayList<>(dealRequests.size());
+        for (int i = 0; i < dealRequests.size(); i++) {
+            DealRequest dealRequest = dealRequests.get(i);
+            List<String> itemViolations = violations.get(i);
+            results.add(DealItemResult.builder()
+                    .index(i)
+                    .uniqueId(dealRequest != null ? dealRequest.getUniqueId() : null)
+                    .status(itemViolations.isEmpty() ? DealItemStatus.ACCEPTED : DealItemStatus.INVALID)
+                    .messages(itemViolations.isEmpty() ? null : itemViolations)
+                    .build());
+        }
+        return results;
+    }
+
+    private Mono<Set<String>> findExistingUniqueIds(List<DealItemResult> results) {
+        List<String> uniqueIds = results.stream()
+                .filter(result -> result.getStatus() == DealItemStatus.ACCEPTED)
+                .map(DealItemResult::getUniqueId)
+                .filter(uniqueIdIndex::mightContain)
+                .collect(Collectors.toList());
+        if (uniqueIds.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+        return reactiveDealRepository.findExistingUniqueIds(uniqueIds)
+                .collect(Collectors.toSet());
+    }
+
+    private List<Deal> markDuplicates(List<DealItemResult> results, Set<String> existingIds, List<DealRequest> dealRequests) {
+        Set<String> seenIds = new HashSet<>();
+        List<Deal> deals = new ArrayList<>();
+        for (DealItemResult result : results) {
+            if (result.getStatus() != DealItemStatus.ACCEPTED) {
+                continue;
+            }
+            if (existingIds.contains(result.getUniqueId()) || !seenIds.add(result.getUniqueId())) {
+                result.setStatus(DealItemStatus.DUPLICATE);
+                result.setMessages(Collections.singletonList(NON_UNIQUE_ID));
+                dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                continue;
+            }
+            deals.add(buildDeal(dealRequests.get(result.getIndex())));
+        }
+        return deals;
+    }
+
+    private Deal buildDeal(DealRequest dealRequest) {
+        Deal deal = Deal.builder()
+                .dealAmount(dealRequest.getAmount())
+                .fromCurrency(dealRequest.getFromCurrency())
+                .toCurrency(dealRequest.getToCurrency())
+                .uniqueId(dealRequest.getUniqueId())
+                .build();
+        deal.setCreatedAt(LocalDateTime.now());
+        return deal;
+    }
+
+    private Mono<Void> saveDeal(Deal deal) {
+        List<Deal> deals = Collections.singletonList(deal);
+        return reactiveDealRepository.insertAll(deals)
+                .onErrorMap(ConstraintViolations::isUniqueIdViolation, ex -> {
+                    dealMetrics.rejected(RejectionReason.DUPLICATE, NON_UNIQUE_ID);
+                    return new DuplicateException(NON_UNIQUE_ID);
+                })
+                .then(Mono.defer(() -> {
+                    uniqueIdIndex.add(deal.getUniqueId());
+                    dealMetrics.persisted(1);
+                    return reactiveDealRepository.increment(dealRollupService.deltas(deals))
+                            // the deal itself is stored; a missed increment is repaired by a rollup rebuild of its hour
+                            .onErrorResume(DataAccessException.class, ex -> {
+                                log.warn("rollup update failed for fx deal {} at {}", deal.getUniqueId(),
+                                        deal.getCreatedAt(), ex);
+                                return Mono.empty();
+                            });
+                }));
+    }
+}
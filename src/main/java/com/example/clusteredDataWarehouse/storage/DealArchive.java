@@ -0,0 +1,185 @@
+package com.example.clusteredDataWarehouse.storage;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the deal archive. Files are laid out as
+ * {@code <directory>/date=yyyy-MM-dd/pair=FROM-TO/part-<partition>.dcol}, each holding one day
+ * of one currency pair in (DATE_INSERTED, ID) order, so a range read walks the day directories
+ * in order and merges the pair files of a day.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DealArchive {
+
+    static final String FILE_SUFFIX = ".dcol";
+
+    private static final String DATE_PREFIX = "date=";
+    private static final String PAIR_PREFIX = "pair=";
+
+    private static final Comparator<Deal> DEAL_ORDER = Comparator
+            .comparing(Deal::getCreatedAt)
+            .thenComparing(Deal::getId);
+
+    private final DealProperties dealProperties;
+
+    public Path getDirectory() {
+        return Paths.get(dealProperties.getArchive().getDirectory());
+    }
+
+    static Path fileFor(Path root, LocalDate day, String fromCurrency, String toCurrency, String partition) {
+        return root.resolve(DATE_PREFIX + day)
+                .resolve(PAIR_PREFIX + fromCurrency + "-" + toCurrency)
+                .resolve("part-" + partition + FILE_SUFFIX);
+    }
+
+    public Optional<Deal> find(String uniqueId, LocalDateTime createdAt) {
+        LocalDateTime to = createdAt.plusNanos(1_000);
+        for (Path file : filesOf(createdAt.toLocalDate(), null, null)) {
+            try (DealColumnarReader reader = new DealColumnarReader(file, createdAt, to)) {
+                for (Deal deal = reader.read(); deal != null; deal = reader.read()) {
+                    if (deal.getUniqueId().equals(uniqueId)) {
+                        return Optional.of(deal);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<LocalDate> lastDay() {
+        List<LocalDate> days = days(LocalDate.MIN, LocalDateTime.MAX);
+        return days.isEmpty() ? Optional.empty() : Optional.of(days.get(days.size() - 1));
+    }
+
+    /**
+     * The first {@code limit} archived deals after the (afterCreatedAt, afterId) position and
+     * before {@code to}, in (DATE_INSERTED, ID) order; a null pair matches every pair.
+     */
+    public List<Deal> page(String fromCurrency, String toCurrency, LocalDateTime to,
+                           LocalDateTime afterCreatedAt, long afterId, int limit) {
+        List<Deal> deals = new ArrayList<>();
+        for (LocalDate day : days(afterCreatedAt.toLocalDate(), to)) {
+            readDay(day, fromCurrency, toCurrency, to, afterCreatedAt, afterId, limit - deals.size(), deals);
+            if (deals.size() >= limit) {
+                break;
+            }
+        }
+        return deals;
+    }
+
+    private void readDay(LocalDate day, String fromCurrency, String toCurrency, LocalDateTime to,
+                         LocalDateTime afterCreatedAt, long afterId, int limit, List<Deal> deals) {
+        List<DealColumnarReader> readers = new ArrayList<>();
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing(Cursor::head, DEAL_ORDER));
+        try {
+            for (Path file : filesOf(day, fromCurrency, toCurrency)) {
+                DealColumnarReader reader = new DealColumnarReader(file, afterCreatedAt, to);
+                readers.add(reader);
+                Cursor cursor = new Cursor(reader);
+                if (cursor.advance(afterCreatedAt, afterId)) {
+                    heads.add(cursor);
+                }
+            }
+            int added = 0;
+            while (added < limit && !heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                deals.add(cursor.head);
+                added++;
+                if (cursor.advance(afterCreatedAt, afterId)) {
+                    heads.add(cursor);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            for (DealColumnarReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    log.warn("failed to close archive reader", ex);
+                }
+            }
+        }
+    }
+
+    private List<LocalDate> days(LocalDate firstDay, LocalDateTime to) {
+        Path root = getDirectory();
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> entries = Files.list(root)) {
+            return entries.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(DATE_PREFIX))
+                    .map(name -> LocalDate.parse(name.substring(DATE_PREFIX.length())))
+                    .filter(day -> !day.isBefore(firstDay) && day.atStartOfDay().isBefore(to))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<Path> filesOf(LocalDate day, String fromCurrency, String toCurrency) {
+        Path dayDirectory = getDirectory().resolve(DATE_PREFIX + day);
+        if (!Files.isDirectory(dayDirectory)) {
+            return Collections.emptyList();
+        }
+        String pairDirectory = fromCurrency == null ? null : PAIR_PREFIX + fromCurrency + "-" + toCurrency;
+        try (Stream<Path> files = Files.walk(dayDirectory, 2)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .filter(file -> pairDirectory == null || file.getParent().getFileName().toString().equals(pairDirectory))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Cursor {
+        private final DealColumnarReader reader;
+        private Deal head;
+
+        private Cursor(DealColumnarReader reader) {
+            this.reader = reader;
+        }
+
+        private Deal head() {
+            return head;
+        }
+
+        // moves to the next deal strictly after the (afterCreatedAt, afterId) position
+        private boolean advance(LocalDateTime afterCreatedAt, long afterId) throws IOException {
+            for (head = reader.read(); head != null; head = reader.read()) {
+                int compare = head.getCreatedAt().compareTo(afterCreatedAt);
+                if (compare > 0 || (compare == 0 && head.getId() > afterId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
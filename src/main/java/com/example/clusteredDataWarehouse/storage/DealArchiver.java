@@ -0,0 +1,219 @@
+package com.example.clusteredDataWarehouse.storage;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves partitions detached by {@link DealPartitionManager} into the columnar archive. A
+ * partition is streamed into staging files and moved into place, the archived files are read back
+ * and checked against the table's row count and id sum, and only then is the table dropped. File
+ * names carry the partition name, so an export interrupted before the drop is simply redone over
+ * the same files.
+ *
+ * <p>Each partition is archived in a transaction holding the partition maintenance lock, so only
+ * one node of a cluster archives at a time, never while partitions are being detached. The archive
+ * directory is shared by the nodes, which all read archived ranges from it.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DealArchiver {
+
+    private static final String STAGING_DIRECTORY = ".staging";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DealProperties dealProperties;
+
+    private final DealPartitionManager dealPartitionManager;
+
+    private final DealArchive dealArchive;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${deals.archive.cron:0 30 1 * * *}")
+    public void scheduledArchive() {
+        if (dealProperties.getArchive().isEnabled()) {
+            archiveDetachedPartitions();
+        }
+    }
+
+    public List<String> archiveDetachedPartitions() {
+        List<String> archived = new ArrayList<>();
+        for (String partition : dealPartitionManager.detachedPartitions()) {
+            try {
+                Long rows = transactionTemplate.execute(status -> {
+                    if (!dealPartitionManager.tryLockMaintenance()) {
+                        return null;
+                    }
+                    // another node may have archived it since the list was read
+                    if (!dealPartitionManager.detachedPartitions().contains(partition)) {
+                        return -1L;
+                    }
+                    try {
+                        return archivePartition(partition);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                if (rows == null) {
+                    log.info("archiving skipped, another node holds the partition maintenance lock");
+                    break;
+                }
+                if (rows >= 0) {
+                    log.info("archived {} deals of partition {}", rows, partition);
+                    archived.add(partition);
+                }
+            } catch (Exception ex) {
+                log.error("archiving partition {} failed, it is kept in the database", partition, ex);
+            }
+        }
+        return archived;
+    }
+
+    long archivePartition(String partition) throws IOException {
+        if (DealPartitionManager.monthOf(partition) == null) {
+            throw new IllegalArgumentException("not a deal partition: " + partition);
+        }
+        Path root = dealArchive.getDirectory();
+        Path staging = root.resolve(STAGING_DIRECTORY).resolve(partition);
+        FileSystemUtils.deleteRecursively(staging);
+        Files.createDirectories(staging);
+
+        List<Path> stagedFiles = new ArrayList<>();
+        PartitionExport export = new PartitionExport(staging, partition, stagedFiles);
+        try {
+            jdbcTemplate.query(connection -> {
+                connection.setAutoCommit(false);
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED FROM " + partition
+                                + " ORDER BY FROM_CURRENCY, TO_CURRENCY, DATE_INSERTED, ID");
+                statement.setFetchSize(dealProperties.getArchive().getFetchSize());
+                return statement;
+            }, resultSet -> {
+                Deal deal = Deal.builder()
+                        .uniqueId(resultSet.getString(2))
+                        .fromCurrency(CurrencyCodes.isoCode(resultSet.getShort(3)))
+                        .toCurrency(CurrencyCodes.isoCode(resultSet.getShort(4)))
+                        .dealAmount(resultSet.getBigDecimal(5))
+                        .build();
+                deal.setId(resultSet.getLong(1));
+                deal.setCreatedAt(resultSet.getTimestamp(6).toLocalDateTime());
+                export.write(deal);
+            });
+        } finally {
+            export.close();
+        }
+
+        Checksum expected = jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(ID), 0) FROM " + partition,
+                (resultSet, row) -> new Checksum(resultSet.getLong(1), resultSet.getBigDecimal(2)));
+        if (expected == null || expected.rows() != export.rows) {
+            throw new IllegalStateException("exported " + export.rows + " of " + (expected == null ? "?" : expected.rows())
+                    + " deals of " + partition);
+        }
+
+        List<Path> archivedFiles = new ArrayList<>(stagedFiles.size());
+        for (Path stagedFile : stagedFiles) {
+            Path target = root.resolve(staging.relativize(stagedFile));
+            Files.createDirectories(target.getParent());
+            Files.move(stagedFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            archivedFiles.add(target);
+        }
+        FileSystemUtils.deleteRecursively(staging);
+        verify(partition, archivedFiles, expected);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        return export.rows;
+    }
+
+    // reads the files back where the other nodes will read them; the table is only dropped if they hold every deal
+    private static void verify(String partition, List<Path> files, Checksum expected) throws IOException {
+        YearMonth month = DealPartitionManager.monthOf(partition);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        long rows = 0;
+        BigDecimal idSum = BigDecimal.ZERO;
+        for (Path file : files) {
+            try (DealColumnarReader reader = new DealColumnarReader(file, from, to)) {
+                for (Deal deal = reader.read(); deal != null; deal = reader.read()) {
+                    rows++;
+                    idSum = idSum.add(BigDecimal.valueOf(deal.getId()));
+                }
+            }
+        }
+        if (rows != expected.rows() || idSum.compareTo(expected.idSum()) != 0) {
+            throw new IllegalStateException("archive of " + partition + " holds " + rows + " of " + expected.rows()
+                    + " deals or differs in their ids");
+        }
+    }
+
+    private record Checksum(long rows, BigDecimal idSum) {
+    }
+
+    // one open writer at a time: rows arrive grouped by pair and ordered by date within a pair
+    private final class PartitionExport {
+        private final Path staging;
+        private final String partition;
+        private final List<Path> stagedFiles;
+        private DealColumnarWriter writer;
+        private LocalDate day;
+        private String fromCurrency;
+        private String toCurrency;
+        private long rows;
+
+        private PartitionExport(Path staging, String partition, List<Path> stagedFiles) {
+            this.staging = staging;
+            this.partition = partition;
+            this.stagedFiles = stagedFiles;
+        }
+
+        private void write(Deal deal) {
+            try {
+                LocalDate dealDay = deal.getCreatedAt().toLocalDate();
+                if (writer == null || !dealDay.equals(day) || !deal.getFromCurrency().equals(fromCurrency)
+                        || !deal.getToCurrency().equals(toCurrency)) {
+                    close();
+                    day = dealDay;
+                    fromCurrency = deal.getFromCurrency();
+                    toCurrency = deal.getToCurrency();
+                    Path file = DealArchive.fileFor(staging, day, fromCurrency, toCurrency, partition);
+                    Files.createDirectories(file.getParent());
+                    writer = new DealColumnarWriter(file, fromCurrency, toCurrency,
+                            dealProperties.getArchive().getRowGroupSize());
+                    stagedFiles.add(file);
+                }
+                writer.write(deal);
+                rows++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.clusteredDataWarehouse.storage;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Streams the deals of a {@link DealColumnarWriter} file whose DATE_INSERTED falls in
+ * [from, to), in file order. Row groups entirely outside the range are skipped without being
+ * decompressed, and only one decoded row group is held at a time.
+ */
+public class DealColumnarReader implements Closeable {
+
+    private final DataInputStream in;
+    private final String fromCurrency;
+    private final String toCurrency;
+    private final long fromMicros;
+    private final long toMicros;
+    private Deal[] group = new Deal[0];
+    private int position;
+    private boolean exhausted;
+
+    public DealColumnarReader(Path path, LocalDateTime from, LocalDateTime to) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+        if (in.readInt() != DealColumnarWriter.MAGIC || in.readInt() != DealColumnarWriter.VERSION) {
+            in.close();
+            throw new IOException("not a deal archive file: " + path);
+        }
+        this.fromCurrency = in.readUTF();
+        this.toCurrency = in.readUTF();
+        this.fromMicros = ColumnBlocks.toEpochMicros(from);
+        this.toMicros = ColumnBlocks.toEpochMicros(to);
+    }
+
+    /**
+     * @return the next deal in range, or null once the file has no more
+     */
+    public Deal read() throws IOException {
+        while (true) {
+            while (position < group.length) {
+                Deal deal = group[position++];
+                long micros = ColumnBlocks.toEpochMicros(deal.getCreatedAt());
+                if (micros >= toMicros) {
+                    exhausted = true;
+                    return null;
+                }
+                if (micros >= fromMicros) {
+                    return deal;
+                }
+            }
+            if (exhausted || !readRowGroup()) {
+                exhausted = true;
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readRowGroup() throws IOException {
+        while (true) {
+            int rows = in.readInt();
+            if (rows == 0) {
+                return false;
+            }
+            long minMicros = in.readLong();
+            long maxMicros = in.readLong();
+            int byteLength = in.readInt();
+            if (minMicros >= toMicros) {
+                return false;
+            }
+            if (maxMicros < fromMicros) {
+                in.skipNBytes(byteLength);
+                continue;
+            }
+            group = decode(rows);
+            position = 0;
+            return true;
+        }
+    }
+
+    private Deal[] decode(int rows) throws IOException {
+        byte[] idColumn = ColumnBlocks.readBlock(in);
+        byte[] dateColumn = ColumnBlocks.readBlock(in);
+        byte[] uniqueIdColumn = ColumnBlocks.readBlock(in);
+        byte[] amountColumn = ColumnBlocks.readBlock(in);
+        int[] idPosition = {0};
+        int[] datePosition = {0};
+        int[] uniqueIdPosition = {0};
+        int[] amountPosition = {0};
+        long id = 0;
+        long micros = 0;
+        Deal[] deals = new Deal[rows];
+        for (int i = 0; i < rows; i++) {
+            id += ColumnBlocks.readVarLong(idColumn, idPosition);
+            micros += ColumnBlocks.readVarLong(dateColumn, datePosition);
+
+            int uniqueIdLength = (int) ColumnBlocks.readVarLong(uniqueIdColumn, uniqueIdPosition);
+            String uniqueId = new String(uniqueIdColumn, uniqueIdPosition[0], uniqueIdLength, StandardCharsets.UTF_8);
+            uniqueIdPosition[0] += uniqueIdLength;
+
+            int scale = (int) ColumnBlocks.readVarLong(amountColumn, amountPosition);
+            int unscaledLength = (int) ColumnBlocks.readVarLong(amountColumn, amountPosition);
+            byte[] unscaled = new byte[unscaledLength];
+            System.arraycopy(amountColumn, amountPosition[0], unscaled, 0, unscaledLength);
+            amountPosition[0] += unscaledLength;
+
+            Deal deal = Deal.builder()
+                    .uniqueId(uniqueId)
+                    .fromCurrency(fromCurrency)
+                    .toCurrency(toCurrency)
+                    .dealAmount(new BigDecimal(new BigInteger(unscaled), scale))
+                    .build();
+            deal.setId(id);
+            deal.setCreatedAt(ColumnBlocks.fromEpochMicros(micros));
+            deals[i] = deal;
+        }
+        return deals;
+    }
+}
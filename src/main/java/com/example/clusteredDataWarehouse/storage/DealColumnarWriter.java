@@ -0,0 +1,129 @@
+package com.example.clusteredDataWarehouse.storage;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Writes the deals of one currency pair and day, in (DATE_INSERTED, ID) order, as a columnar
+ * file. Rows are buffered into row groups of a fixed size, so memory stays flat however many
+ * rows the file gets; each column of a group is a separately Deflate-compressed block, and the
+ * group header carries its DATE_INSERTED range so readers can skip groups outside a query.
+ *
+ * <pre>
+ * file      := MAGIC VERSION fromCurrency toCurrency rowGroup* 0
+ * rowGroup  := rowCount minMicros maxMicros byteLength idBlock dateBlock uniqueIdBlock amountBlock
+ * </pre>
+ */
+public class DealColumnarWriter implements Closeable {
+
+    static final int MAGIC = 0x44434F4C;
+    static final int VERSION = 1;
+
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+    private final long[] ids;
+    private final long[] createdAts;
+    private final String[] uniqueIds;
+    private final BigDecimal[] amounts;
+    private int rows;
+    private long rowCount;
+
+    public DealColumnarWriter(Path path, String fromCurrency, String toCurrency, int rowGroupSize) throws IOException {
+        this.file = new FileOutputStream(path.toFile());
+        this.out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+        this.ids = new long[rowGroupSize];
+        this.createdAts = new long[rowGroupSize];
+        this.uniqueIds = new String[rowGroupSize];
+        this.amounts = new BigDecimal[rowGroupSize];
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(fromCurrency);
+        out.writeUTF(toCurrency);
+    }
+
+    public void write(Deal deal) throws IOException {
+        ids[rows] = deal.getId();
+        createdAts[rows] = ColumnBlocks.toEpochMicros(deal.getCreatedAt());
+        uniqueIds[rows] = deal.getUniqueId();
+        amounts[rows] = deal.getDealAmount();
+        rows++;
+        rowCount++;
+        if (rows == ids.length) {
+            flushRowGroup();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Flushes the last row group, writes the end marker and forces the file to disk, so the rows
+     * can be removed from the database once this returns.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushRowGroup();
+            out.writeInt(0);
+            out.flush();
+            file.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        ByteArrayOutputStream idColumn = new ByteArrayOutputStream(rows * 2);
+        ByteArrayOutputStream dateColumn = new ByteArrayOutputStream(rows * 2);
+        ByteArrayOutputStream uniqueIdColumn = new ByteArrayOutputStream(rows * 16);
+        ByteArrayOutputStream amountColumn = new ByteArrayOutputStream(rows * 8);
+        long minMicros = Long.MAX_VALUE;
+        long maxMicros = Long.MIN_VALUE;
+        long previousId = 0;
+        long previousMicros = 0;
+        for (int i = 0; i < rows; i++) {
+            ColumnBlocks.writeVarLong(idColumn, ids[i] - previousId);
+            ColumnBlocks.writeVarLong(dateColumn, createdAts[i] - previousMicros);
+            previousId = ids[i];
+            previousMicros = createdAts[i];
+            minMicros = Math.min(minMicros, createdAts[i]);
+            maxMicros = Math.max(maxMicros, createdAts[i]);
+
+            byte[] uniqueId = uniqueIds[i].getBytes(StandardCharsets.UTF_8);
+            ColumnBlocks.writeVarLong(uniqueIdColumn, uniqueId.length);
+            uniqueIdColumn.write(uniqueId);
+
+            byte[] unscaled = amounts[i].unscaledValue().toByteArray();
+            ColumnBlocks.writeVarLong(amountColumn, amounts[i].scale());
+            ColumnBlocks.writeVarLong(amountColumn, unscaled.length);
+            amountColumn.write(unscaled);
+        }
+
+        ByteArrayOutputStream group = new ByteArrayOutputStream();
+        DataOutputStream groupOut = new DataOutputStream(group);
+        ColumnBlocks.writeBlock(groupOut, idColumn.toByteArray());
+        ColumnBlocks.writeBlock(groupOut, dateColumn.toByteArray());
+        ColumnBlocks.writeBlock(groupOut, uniqueIdColumn.toByteArray());
+        ColumnBlocks.writeBlock(groupOut, amountColumn.toByteArray());
+
+        out.writeInt(rows);
+        out.writeLong(minMicros);
+        out.writeLong(maxMicros);
+        out.writeInt(group.size());
+        group.writeTo(out);
+        rows = 0;
+    }
+}
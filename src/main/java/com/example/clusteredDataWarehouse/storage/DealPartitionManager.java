@@ -0,0 +1,184 @@
+package com.example.clusteredDataWarehouse.storage;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Keeps the monthly DEALS_yyyyMM partitions of DEALS in step with the calendar: upcoming months
+ * are created ahead of the inserts that need them, and months older than the retention window
+ * are detached. A detached partition stays behind as a plain table until it is archived, and its
+ * deals are dropped from the lookup cache of every node.
+ *
+ * <p>The nodes of a cluster share the database, so a maintenance run first takes a transaction-scoped
+ * advisory lock and is skipped on the nodes that do not get it. {@link DealArchiver} takes the same
+ * lock, so a partition is never archived while it is being detached.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DealPartitionManager {
+
+    static final String PARTITION_PREFIX = "deals_";
+
+    // one maintenance run per database, whichever node gets the lock
+    private static final long MAINTENANCE_LOCK = 0x4445414c50415254L;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String SELECT_ATTACHED_PARTITIONS = "SELECT c.relname FROM pg_inherits i"
+            + " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+            + " WHERE p.relname = 'deals' AND c.relname LIKE 'deals\\_______'";
+
+    private static final String SELECT_DETACHED_PARTITIONS = "SELECT relname FROM pg_class"
+            + " WHERE relkind = 'r' AND NOT relispartition AND relname LIKE 'deals\\_______' ORDER BY relname";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DealProperties dealProperties;
+
+    private final DealQueryService dealQueryService;
+
+    private final DealArchive dealArchive;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // once the whole node is up, so the cache invalidations reach started peers; readiness is only
+    // reported after this listener, and until then inserts fall into DEALS_DEFAULT at worst
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (dealProperties.getPartitions().isEnabled()) {
+            maintain();
+        }
+    }
+
+    @Scheduled(cron = "${deals.partitions.maintenance-cron:0 0 1 * * *}")
+    public void scheduledMaintenance() {
+        if (dealProperties.getPartitions().isEnabled()) {
+            maintain();
+        }
+    }
+
+    /** Returns the partitions detached by this run; empty when another node holds the maintenance lock. */
+    public List<String> maintain() {
+        DealProperties.Partitions partitions = dealProperties.getPartitions();
+        YearMonth currentMonth = YearMonth.now();
+        List<String> detached;
+        try {
+            detached = transactionTemplate.execute(status -> {
+                if (!tryLockMaintenance()) {
+                    log.info("deal partition maintenance skipped, another node is running it");
+                    return List.<String>of();
+                }
+                createPartitions(currentMonth, partitions.getPremakeMonths() + 1);
+                return partitions.getRetentionMonths() > 0
+                        ? detachPartitionsBefore(currentMonth.minusMonths(partitions.getRetentionMonths()))
+                        : List.<String>of();
+            });
+        } catch (DataAccessException ex) {
+            log.error("deal partition maintenance failed", ex);
+            return List.of();
+        }
+        // peers are only told once the detach is committed
+        detached.forEach(partition -> invalidateCachedDeals(monthOf(partition)));
+        return detached;
+    }
+
+    /** Transaction-scoped; false when another node is maintaining or archiving the partitions. */
+    boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK));
+    }
+
+    public List<String> createPartitions(YearMonth firstMonth, int months) {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < months; i++) {
+            YearMonth month = firstMonth.plusMonths(i);
+            String partition = partitionName(month);
+            if (attachedPartitions().contains(partition)) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF DEALS FOR VALUES FROM ('"
+                    + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            log.info("created deal partition {}", partition);
+            created.add(partition);
+        }
+        return created;
+    }
+
+    // leaves the cache invalidations to the caller, once the detach is committed
+    private List<String> detachPartitionsBefore(YearMonth cutoff) {
+        List<String> detached = new ArrayList<>();
+        for (String partition : attachedPartitions()) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(cutoff)) {
+                detachPartition(month);
+                detached.add(partition);
+            }
+        }
+        return detached;
+    }
+
+    public void detach(YearMonth month) {
+        detachPartition(month);
+        invalidateCachedDeals(month);
+    }
+
+    private void detachPartition(YearMonth month) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE DEALS DETACH PARTITION " + partition);
+        log.info("detached deal partition {}", partition);
+    }
+
+    private void invalidateCachedDeals(YearMonth month) {
+        dealQueryService.invalidateCachedDeals(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay(), false);
+    }
+
+    public List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList(SELECT_ATTACHED_PARTITIONS, String.class);
+    }
+
+    public List<String> detachedPartitions() {
+        return jdbcTemplate.queryForList(SELECT_DETACHED_PARTITIONS, String.class);
+    }
+
+    /** The end of the newest month whose deals have left DEALS, detached or archived. */
+    public Optional<LocalDateTime> detachedThrough() {
+        YearMonth newest = dealArchive.lastDay().map(YearMonth::from).orElse(null);
+        for (String partition : detachedPartitions()) {
+            YearMonth month = monthOf(partition);
+            if (month != null && (newest == null || month.isAfter(newest))) {
+                newest = month;
+            }
+        }
+        return Optional.ofNullable(newest).map(month -> month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    static YearMonth monthOf(String partition) {
+        try {
+            return YearMonth.parse(partition.toLowerCase(Locale.ROOT).substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException | IndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.clusteredDataWarehouse.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash1 = Hashing.hash64(value);
+        long hash2 = secondaryHash(hash1);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = indexOf(hash1 + i * hash2);
+            int wordIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = Hashing.hash64(value);
+        long hash2 = secondaryHash(hash1);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = indexOf(hash1 + i * hash2);
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    private long indexOf(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    private static long secondaryHash(long hash) {
+        return Long.rotateLeft(hash, 32) * 0x9e3779b97f4a7c15L | 1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.entities.DealUniqueId;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import org.hibernate.exception.ConstraintViolationException;
+
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    public static boolean isUniqueIdViolation(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && DealUniqueId.UNIQUE_ID_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            // the reactive stack's driver reports the constraint itself
+            if (cause instanceof PostgresqlException violation
+                    && DealUniqueId.UNIQUE_ID_CONSTRAINT.equalsIgnoreCase(violation.getErrorDetails().getConstraintName().orElse(null))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
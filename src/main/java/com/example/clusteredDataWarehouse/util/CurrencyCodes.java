@@ -0,0 +1,55 @@
+package com.example.clusteredDataWarehouse.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Packs a three-letter ISO 4217 code into an int in [0, {@link #COUNT}):
+ * {@code ((first - 'A') * 26 + (second - 'A')) * 26 + (third - 'A')}. The packing keeps the
+ * alphabetical order, fits a SMALLINT, and is mirrored by the CURRENCY_CODE and CURRENCY_ISO
+ * SQL functions of V3__pack_deal_currencies.sql.
+ */
+public final class CurrencyCodes {
+
+    public static final int COUNT = 26 * 26 * 26;
+
+    /** Returned for anything that is not three upper-case ASCII letters. */
+    public static final int INVALID = -1;
+
+    // decoded codes are shared String instances, filled on first use; a racing thread at worst
+    // builds an equal String once more
+    private static final String[] ISO_CODES = new String[COUNT];
+
+    private CurrencyCodes() {
+    }
+
+    public static int pack(CharSequence isoCode) {
+        if (isoCode == null || isoCode.length() != 3) {
+            return INVALID;
+        }
+        return pack(isoCode.charAt(0), isoCode.charAt(1), isoCode.charAt(2));
+    }
+
+    public static int pack(int first, int second, int third) {
+        if (!isLetter(first) || !isLetter(second) || !isLetter(third)) {
+            return INVALID;
+        }
+        return ((first - 'A') * 26 + (second - 'A')) * 26 + (third - 'A');
+    }
+
+    public static String isoCode(int code) {
+        if (code < 0 || code >= COUNT) {
+            throw new IllegalArgumentException("Not a packed currency code: " + code);
+        }
+        String isoCode = ISO_CODES[code];
+        if (isoCode == null) {
+            isoCode = new String(new byte[]{(byte) ('A' + code / 676), (byte) ('A' + code / 26 % 26),
+                    (byte) ('A' + code % 26)}, StandardCharsets.US_ASCII);
+            ISO_CODES[code] = isoCode;
+        }
+        return isoCode;
+    }
+
+    private static boolean isLetter(int c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -1,25 +1,52 @@
 package com.example.clusteredDataWarehouse.util;
 
+import com.example.clusteredDataWarehouse.config.DealProperties;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Currency;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
+/**
+ * Accepts the codes of deals.currencies.allowed, or every three-letter JDK currency when that is
+ * empty. A lookup packs the code with {@link CurrencyCodes} and tests one bit, without hashing or
+ * allocating.
+ */
 @Service
 public class CurrencyValidator {
 
-    private final Set<String> validCurrencyCodes;
+    private final long[] allowed = new long[(CurrencyCodes.COUNT + 63) >>> 6];
 
-    public CurrencyValidator() {
-        Set<Currency> availableCurrencies = Currency.getAvailableCurrencies();
-        validCurrencyCodes = new HashSet<>();
-        for (Currency currency : availableCurrencies) {
-            validCurrencyCodes.add(currency.getCurrencyCode());
+    public CurrencyValidator(DealProperties dealProperties) {
+        List<String> configured = dealProperties.getCurrencies().getAllowed();
+        Collection<String> codes = configured.isEmpty() ? availableCurrencyCodes() : configured;
+        for (String isoCode : codes) {
+            int code = CurrencyCodes.pack(isoCode);
+            if (code == CurrencyCodes.INVALID) {
+                if (!configured.isEmpty()) {
+                    throw new IllegalStateException("deals.currencies.allowed holds '" + isoCode
+                            + "', which is not a three-letter upper-case currency code");
+                }
+                continue;
+            }
+            allowed[code >>> 6] |= 1L << code;
         }
     }
 
     public boolean isValidCurrencyCode(String currencyCode) {
-        return validCurrencyCodes.contains(currencyCode);
+        return isValidCurrencyCode(CurrencyCodes.pack(currencyCode));
+    }
+
+    public boolean isValidCurrencyCode(int code) {
+        return code >= 0 && code < CurrencyCodes.COUNT && (allowed[code >>> 6] & (1L << code)) != 0;
+    }
+
+    private static Collection<String> availableCurrencyCodes() {
+        List<String> codes = new ArrayList<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            codes.add(currency.getCurrencyCode());
+        }
+        return codes;
     }
 }
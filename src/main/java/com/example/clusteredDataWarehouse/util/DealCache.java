@@ -0,0 +1,290 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Recently stored and recently read deals by uniqueId, for lookups that come back to the same
+ * deals shortly after ingest. Eviction is W-TinyLFU: new entries go through a small LRU window,
+ * and leaving it they only displace the least recently used entry of the main area when they were
+ * asked for more often, per a {@link FrequencySketch}. A one-off scan of old deals therefore does
+ * not flush the hot ones. The main area is segmented: entries read again there move from
+ * probation to a protected part of 80%. Entries expire a fixed TTL after they were written.
+ *
+ * <p>A read reorders the recency lists, so every lookup takes a lock. The cache is split into
+ * stripes by uniqueId hash, each with its own lists, sketch and lock, so lookups of different
+ * deals rarely wait on each other. A stripe holds at least {@value #MIN_STRIPE_ENTRIES} entries.
+ *
+ * <p>Deals are never updated, so an entry only goes stale when its deal leaves the database;
+ * {@link #invalidateCreatedBetween} drops those, and a read that raced an invalidation does not
+ * put back what it read.
+ */
+@Component
+public class DealCache implements MeterBinder {
+
+    private static final int WINDOW_PERCENT = 1;
+
+    private static final int PROTECTED_PERCENT = 80;
+
+    private static final int MIN_STRIPE_ENTRIES = 1_024;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public DealCache(DealProperties dealProperties) {
+        this(dealProperties, System::nanoTime);
+    }
+
+    public DealCache(DealProperties dealProperties, LongSupplier clock) {
+        DealProperties.Cache cache = dealProperties.getCache();
+        int maxEntries = Math.max(cache.getMaxEntries(), 2);
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(cache.getStripes(), maxEntries / MIN_STRIPE_ENTRIES)));
+        this.enabled = cache.isEnabled();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(cache.getTtlSeconds());
+        this.clock = clock;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxEntries / stripeCount + (i < maxEntries % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * The cached deal, or else what the loader finds, which is then cached. Not-found answers are
+     * not cached, since the deal may still arrive.
+     */
+    public Optional<DealResponse> get(String uniqueId, Supplier<Optional<DealResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Stripe stripe = stripeOf(uniqueId);
+        long generationBefore;
+        synchronized (stripe) {
+            DealResponse cached = stripe.find(uniqueId);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            generationBefore = stripe.generation;
+        }
+        misses.increment();
+        Optional<DealResponse> loaded = loader.get();
+        loaded.ifPresent(deal -> {
+            synchronized (stripe) {
+                if (stripe.generation == generationBefore) {
+                    stripe.store(deal);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /** Caches a deal that was just stored. */
+    public void put(DealResponse deal) {
+        if (enabled) {
+            Stripe stripe = stripeOf(deal.getUniqueId());
+            synchronized (stripe) {
+                stripe.store(deal);
+            }
+        }
+    }
+
+    /** Drops the deals created in [from, to); returns how many were cached. */
+    public int invalidateCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.generation++;
+                removed += removeCreatedBetween(stripe.window, from, to)
+                        + removeCreatedBetween(stripe.probation, from, to)
+                        + removeCreatedBetween(stripe.protectedEntries, from, to);
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.window.size() + stripe.probation.size() + stripe.protectedEntries.size();
+            }
+        }
+        return size;
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("deals.cache.gets", hits, LongAdder::sum)
+                .description("Deal lookups by uniqueId answered from the cache (hit) or the database (miss)")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("deals.cache.gets", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("deals.cache.evictions", evictions, LongAdder::sum)
+                .description("Cached deals dropped for room or not admitted")
+                .register(registry);
+        Gauge.builder("deals.cache.size", this, DealCache::size)
+                .description("Deals currently cached")
+                .register(registry);
+        Gauge.builder("deals.cache.hit.ratio", this, DealCache::hitRatio)
+                .description("Share of deal lookups answered from the cache since start")
+                .register(registry);
+    }
+
+    private Stripe stripeOf(String uniqueId) {
+        int hash = uniqueId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // the state of one stripe is guarded by the stripe
+    private final class Stripe {
+
+        private final int windowMax;
+        private final int protectedMax;
+        private final int mainMax;
+        private final FrequencySketch sketch;
+
+        // insertion order is recency order: an entry that is used is removed and put back at the tail
+        private final LinkedHashMap<String, Entry> window = new LinkedHashMap<>();
+        private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<String, Entry> protectedEntries = new LinkedHashMap<>();
+
+        // bumped by every invalidation
+        private long generation;
+
+        private Stripe(int maxEntries) {
+            this.windowMax = Math.max(1, maxEntries * WINDOW_PERCENT / 100);
+            this.mainMax = maxEntries - windowMax;
+            this.protectedMax = mainMax * PROTECTED_PERCENT / 100;
+            this.sketch = new FrequencySketch(maxEntries);
+        }
+
+        private DealResponse find(String uniqueId) {
+            sketch.increment(uniqueId);
+            long now = clock.getAsLong();
+            Entry entry = window.remove(uniqueId);
+            if (entry != null) {
+                if (!entry.isExpired(now)) {
+                    window.put(uniqueId, entry);
+                    return entry.deal();
+                }
+                return null;
+            }
+            entry = probation.remove(uniqueId);
+            if (entry != null) {
+                if (!entry.isExpired(now)) {
+                    protect(uniqueId, entry);
+                    return entry.deal();
+                }
+                return null;
+            }
+            entry = protectedEntries.remove(uniqueId);
+            if (entry != null && !entry.isExpired(now)) {
+                protectedEntries.put(uniqueId, entry);
+                return entry.deal();
+            }
+            return null;
+        }
+
+        private void store(DealResponse deal) {
+            String uniqueId = deal.getUniqueId();
+            Entry entry = new Entry(deal, clock.getAsLong() + ttlNanos);
+            sketch.increment(uniqueId);
+            if (window.remove(uniqueId) != null) {
+                window.put(uniqueId, entry);
+                return;
+            }
+            if (probation.remove(uniqueId) != null || protectedEntries.remove(uniqueId) != null) {
+                protect(uniqueId, entry);
+                return;
+            }
+            window.put(uniqueId, entry);
+            if (window.size() > windowMax) {
+                admit(removeEldest(window));
+            }
+        }
+
+        private void protect(String uniqueId, Entry entry) {
+            protectedEntries.put(uniqueId, entry);
+            if (protectedEntries.size() > protectedMax) {
+                Map.Entry<String, Entry> demoted = removeEldest(protectedEntries);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+
+        // the window's eldest entry either joins the main area or is dropped, whichever the
+        // frequencies favour against the main area's next victim
+        private void admit(Map.Entry<String, Entry> candidate) {
+            if (probation.size() + protectedEntries.size() < mainMax) {
+                probation.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+            LinkedHashMap<String, Entry> victims = probation.isEmpty() ? protectedEntries : probation;
+            String victim = victims.keySet().iterator().next();
+            evictions.increment();
+            if (candidate.getValue().isExpired(clock.getAsLong())
+                    || sketch.frequency(candidate.getKey()) <= sketch.frequency(victim)) {
+                return;
+            }
+            victims.remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private static Map.Entry<String, Entry> removeEldest(LinkedHashMap<String, Entry> segment) {
+        Iterator<Map.Entry<String, Entry>> iterator = segment.entrySet().iterator();
+        Map.Entry<String, Entry> eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    private static int removeCreatedBetween(LinkedHashMap<String, Entry> segment, LocalDateTime from, LocalDateTime to) {
+        int removed = 0;
+        Iterator<Entry> iterator = segment.values().iterator();
+        while (iterator.hasNext()) {
+            LocalDateTime createdAt = iterator.next().deal().getCreatedAt();
+            if (createdAt != null && !createdAt.isBefore(from) && createdAt.isBefore(to)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private record Entry(DealResponse deal, long expiresAt) {
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.enums.SubmitPhase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the deal ingestion path. Phase timers publish p50/p99/p999 and a histogram, so a
+ * slowdown can be attributed to validation, the duplicate check or the database writes.
+ *
+ * <ul>
+ *     <li>{@code deals.submit.latency{phase}} - single submits</li>
+ *     <li>{@code deals.batch.latency{phase}} and {@code deals.batch.size} - bulk, import and write-behind batches</li>
+ *     <li>{@code deals.accepted{stage}} - deals queued for write-behind or persisted</li>
+ *     <li>{@code deals.rejected{reason,detail}} - rejected deals; detail is the message or the offending fields</li>
+ *     <li>{@code deals.replayed} - retried submits answered with the original response</li>
+ *     <li>{@code deals.forwarded} - deals sent on to the node owning their uniqueId</li>
+ *     <li>{@code deals.feed.published} and {@code deals.feed.delivered{sink}} - change feed positions assigned and sink deliveries</li>
+ *     <li>{@code deals.limiter.limit}, {@code deals.limiter.inflight} and {@code deals.limiter.clients} - the submit limiter,
+ *     whose shed requests count as {@code deals.rejected{reason=overloaded|client_quota}}</li>
+ *     <li>{@code deals.cache.gets{result}}, {@code deals.cache.hit.ratio}, {@code deals.cache.size} and
+ *     {@code deals.cache.evictions} - the lookup cache, bound by {@link DealCache}</li>
+ * </ul>
+ *
+ * <p>Work run inside {@link #offTheRecord} (the start-up warm-up) still records its latencies,
+ * but moves none of the deal counters.
+ */
+@Component
+public class DealMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private static final ThreadLocal<Boolean> OFF_THE_RECORD = ThreadLocal.withInitial(() -> false);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<SubmitPhase, Timer> submitTimers = new EnumMap<>(SubmitPhase.class);
+    private final Map<SubmitPhase, Timer> batchTimers = new EnumMap<>(SubmitPhase.class);
+    private final DistributionSummary batchSize;
+    private final Counter queued;
+    private final Counter persisted;
+    private final Counter replayed;
+    private final Counter forwarded;
+    private final Counter feedPublished;
+    private final List<PersistListener> persistListeners = new CopyOnWriteArrayList<>();
+
+    public DealMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (SubmitPhase phase : SubmitPhase.values()) {
+            submitTimers.put(phase, latencyTimer("deals.submit.latency", phase));
+            batchTimers.put(phase, latencyTimer("deals.batch.latency", phase));
+        }
+        this.batchSize = DistributionSummary.builder("deals.batch.size")
+                .description("Deals per processed batch")
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        this.queued = acceptedCounter("queued");
+        this.persisted = acceptedCounter("persisted");
+        this.replayed = Counter.builder("deals.replayed")
+                .description("Retried submits answered from the idempotency cache or the stored deal")
+                .register(meterRegistry);
+        this.forwarded = Counter.builder("deals.forwarded")
+                .description("Deals forwarded to the node owning their uniqueId")
+                .register(meterRegistry);
+        this.feedPublished = Counter.builder("deals.feed.published")
+                .description("Deals given a change feed position")
+                .register(meterRegistry);
+    }
+
+    public <T> T timeSubmit(SubmitPhase phase, Supplier<T> action) {
+        if (phase != SubmitPhase.PERSIST || persistListeners.isEmpty()) {
+            return submitTimers.get(phase).record(action);
+        }
+        long started = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long nanos = System.nanoTime() - started;
+            submitTimers.get(SubmitPhase.PERSIST).record(nanos, TimeUnit.NANOSECONDS);
+            persistListeners.forEach(listener -> listener.persisted(nanos, 1, false));
+        }
+    }
+
+    public void timeSubmit(SubmitPhase phase, Runnable action) {
+        timeSubmit(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Called on the persisting thread for every persist, of single submits and of batches. */
+    public void addPersistListener(PersistListener listener) {
+        persistListeners.add(listener);
+    }
+
+    public <T> T timeBatch(SubmitPhase phase, Supplier<T> action) {
+        return batchTimers.get(phase).record(action);
+    }
+
+    public void timeBatch(SubmitPhase phase, Runnable action) {
+        batchTimers.get(phase).record(action);
+    }
+
+    public void timeBatchPersist(int deals, Runnable action) {
+        if (persistListeners.isEmpty()) {
+            timeBatch(SubmitPhase.PERSIST, action);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            long nanos = System.nanoTime() - started;
+            batchTimers.get(SubmitPhase.PERSIST).record(nanos, TimeUnit.NANOSECONDS);
+            persistListeners.forEach(listener -> listener.persisted(nanos, deals, true));
+        }
+    }
+
+    /** Until closed, deals handled on this thread are not counted as accepted, rejected or forwarded. */
+    public static Scope offTheRecord() {
+        boolean outer = OFF_THE_RECORD.get();
+        OFF_THE_RECORD.set(true);
+        return () -> OFF_THE_RECORD.set(outer);
+    }
+
+    public static boolean isOffTheRecord() {
+        return OFF_THE_RECORD.get();
+    }
+
+    public void recordBatchSize(int size) {
+        batchSize.record(size);
+    }
+
+    public void queued(int count) {
+        if (!isOffTheRecord()) {
+            queued.increment(count);
+        }
+    }
+
+    public void persisted(int count) {
+        if (!isOffTheRecord()) {
+            persisted.increment(count);
+        }
+    }
+
+    public void forwarded(int count) {
+        if (!isOffTheRecord()) {
+            forwarded.increment(count);
+        }
+    }
+
+    public void replayed() {
+        if (!isOffTheRecord()) {
+            replayed.increment();
+        }
+    }
+
+    public void feedPublished(int count) {
+        feedPublished.increment(count);
+    }
+
+    public void feedDelivered(String sink, int count) {
+        Counter.builder("deals.feed.delivered")
+                .description("Change feed deals delivered by sink")
+                .tag("sink", sink)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    // details come from MessageConstants or field names, which keeps the tag cardinality bounded
+    public void rejected(RejectionReason reason, String detail) {
+        if (isOffTheRecord()) {
+            return;
+        }
+        Counter.builder("deals.rejected")
+                .description("Rejected deals by reason")
+                .tag("reason", reason.getTag())
+                .tag("detail", detail == null ? "none" : detail)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // a deal breaking several rules is counted once, under all of their messages
+    public void rejected(RejectionReason reason, List<String> details) {
+        rejected(reason, details.size() == 1 ? details.get(0) : String.join(", ", details));
+    }
+
+    private Counter acceptedCounter(String stage) {
+        return Counter.builder("deals.accepted")
+                .description("Accepted deals by stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private Timer latencyTimer(String name, SubmitPhase phase) {
+        return Timer.builder(name)
+                .tag("phase", phase.getTag())
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public interface PersistListener {
+
+        void persisted(long nanos, int deals, boolean batch);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.validation.DealRule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.*;
+
+/**
+ * The checks a deal must pass besides the duplicate check, shared by the servlet and the reactive
+ * submit paths so both reject the same deals with the same messages. Business checks are the
+ * {@link DealRule} beans, run cheapest first; a deal is answered with every rule it breaks, so a
+ * client fixes all of them in one round. Adding a rule is adding a bean.
+ */
+@Component
+public class DealRequestValidator {
+
+    private final DealRule[] dealRules;
+
+    private final Validator validator;
+
+    private final DealProperties dealProperties;
+
+    private final DealMetrics dealMetrics;
+
+    // rules come in @Order order; the stable sort keeps it among rules of the same cost
+    public DealRequestValidator(List<DealRule> dealRules, Validator validator, DealProperties dealProperties,
+                                DealMetrics dealMetrics) {
+        this.dealRules = dealRules.stream()
+                .sorted(Comparator.comparing(DealRule::cost))
+                .toArray(DealRule[]::new);
+        this.validator = validator;
+        this.dealProperties = dealProperties;
+        this.dealMetrics = dealMetrics;
+    }
+
+    /**
+     * The distinct messages of every business rule the deal breaks, cheapest rule first; empty when
+     * it passes. Bean constraints are assumed to hold.
+     */
+    public List<String> findBusinessViolations(DealRequest dealRequest) {
+        List<String> violations = null;
+        for (DealRule dealRule : dealRules) {
+            String violation = dealRule.check(dealRequest);
+            if (violation == null) {
+                continue;
+            }
+            if (violations == null) {
+                violations = new ArrayList<>(2);
+            }
+            if (!violations.contains(violation)) {
+                violations.add(violation);
+            }
+        }
+        return violations == null ? Collections.emptyList() : violations;
+    }
+
+    /**
+     * Bean constraint and business rule violations of a bulk item, counted as rejections; empty
+     * when the deal is valid. Business rules are skipped when a bean constraint fails.
+     */
+    public List<String> findViolations(DealRequest dealRequest) {
+        if (dealRequest == null) {
+            dealMetrics.rejected(RejectionReason.VALIDATION, NULL_DEAL);
+            return Collections.singletonList(NULL_DEAL);
+        }
+
+        Set<ConstraintViolation<DealRequest>> constraintViolations = validator.validate(dealRequest);
+        if (!constraintViolations.isEmpty()) {
+            dealMetrics.rejected(RejectionReason.BEAN_VALIDATION, constraintViolations.stream()
+                    .map(violation -> violation.getPropertyPath().toString())
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining(",")));
+            return constraintViolations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        List<String> violations = findBusinessViolations(dealRequest);
+        if (!violations.isEmpty()) {
+            dealMetrics.rejected(RejectionReason.VALIDATION, violations);
+        }
+        return violations;
+    }
+
+    /**
+     * {@link #findViolations(DealRequest)} of every item, by index. Items are independent, so a
+     * batch of at least {@code deals.validation.parallel-threshold} deals is split over the common
+     * fork-join pool; smaller ones are not worth the hand-off.
+     */
+    public List<List<String>> findBatchViolations(List<DealRequest> dealRequests) {
+        @SuppressWarnings("unchecked")
+        List<String>[] violations = new List[dealRequests.size()];
+        IntStream indexes = IntStream.range(0, dealRequests.size());
+        if (dealRequests.size() >= dealProperties.getValidation().getParallelThreshold()) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(index -> violations[index] = findViolations(dealRequests.get(index)));
+        return Arrays.asList(violations);
+    }
+}
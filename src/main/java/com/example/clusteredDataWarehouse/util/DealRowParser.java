@@ -0,0 +1,191 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class DealRowParser {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String[] CSV_COLUMNS = {"uniqueid", "fromcurrency", "tocurrency", "amount"};
+
+    // optional, read by parseRow only; a header-less file may carry it as a fifth column
+    private static final String CREATED_AT_COLUMN = "createdat";
+
+    private final Format format;
+
+    private final ObjectMapper objectMapper;
+
+    private int[] columnIndexes = {0, 1, 2, 3};
+
+    private int createdAtIndex = 4;
+
+    public DealRowParser(Format format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    public static Format formatOf(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        if (lowerCaseName.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        if (lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")) {
+            return Format.NDJSON;
+        }
+        return null;
+    }
+
+    public boolean readHeader(String line) {
+        if (format != Format.CSV || !line.toLowerCase(Locale.ROOT).contains(CSV_COLUMNS[0])) {
+            return false;
+        }
+        String[] headers = split(line);
+        int[] indexes = {-1, -1, -1, -1};
+        createdAtIndex = -1;
+        for (int i = 0; i < headers.length; i++) {
+            String header = headers[i].toLowerCase(Locale.ROOT).replace("_", "");
+            if (CREATED_AT_COLUMN.equals(header)) {
+                createdAtIndex = i;
+            }
+            for (int column = 0; column < CSV_COLUMNS.length; column++) {
+                if (CSV_COLUMNS[column].equals(header)) {
+                    indexes[column] = i;
+                }
+            }
+        }
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new IllegalArgumentException("CSV header must contain uniqueId, fromCurrency, toCurrency and amount");
+            }
+        }
+        columnIndexes = indexes;
+        return true;
+    }
+
+    public DealRequest parse(String line) {
+        return format == Format.CSV ? parseCsv(split(line)) : parseJson(line);
+    }
+
+    /**
+     * Like {@link #parse}, also reading the deal's optional {@code createdAt} (ISO-8601, without an offset).
+     */
+    public Row parseRow(String line) {
+        if (format == Format.CSV) {
+            String[] values = split(line);
+            DealRequest dealRequest = parseCsv(values);
+            boolean hasCreatedAt = createdAtIndex >= 0 && createdAtIndex < values.length && !values[createdAtIndex].isEmpty();
+            return new Row(dealRequest, hasCreatedAt ? parseCreatedAt(values[createdAtIndex]) : null);
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            JsonNode createdAt = node.path("createdAt");
+            return new Row(objectMapper.treeToValue(node, DealRequest.class),
+                    createdAt.isTextual() ? parseCreatedAt(createdAt.asText()) : null);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex.getOriginalMessage());
+        }
+    }
+
+    private DealRequest parseCsv(String[] values) {
+        for (int index : columnIndexes) {
+            if (index >= values.length) {
+                throw new IllegalArgumentException("expected " + CSV_COLUMNS.length + " columns but found " + values.length);
+            }
+        }
+        String amount = values[columnIndexes[3]];
+        try {
+            return DealRequest.builder()
+                    .uniqueId(values[columnIndexes[0]])
+                    .fromCurrency(values[columnIndexes[1]])
+                    .toCurrency(values[columnIndexes[2]])
+                    .amount(amount.isEmpty() ? null : new BigDecimal(amount))
+                    .build();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("amount is not a number");
+        }
+    }
+
+    private DealRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, DealRequest.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex.getOriginalMessage());
+        }
+    }
+
+    private static LocalDateTime parseCreatedAt(String createdAt) {
+        try {
+            return LocalDateTime.parse(createdAt);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("createdAt is not an ISO-8601 date-time");
+        }
+    }
+
+    // RFC 4180 fields: a quoted field may hold commas and doubled quotes. Rows are read line by line,
+    // so a line break inside quotes is reported as an unclosed quote.
+    private static String[] split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        int length = line.length();
+        int position = 0;
+        while (true) {
+            while (position < length && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (position < length && line.charAt(position) == '"') {
+                value.setLength(0);
+                position++;
+                while (true) {
+                    if (position >= length) {
+                        throw new IllegalArgumentException("quoted field is not closed; quoted fields cannot span lines");
+                    }
+                    char c = line.charAt(position++);
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (position < length && line.charAt(position) == '"') {
+                        value.append('"');
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                while (position < length && Character.isWhitespace(line.charAt(position))) {
+                    position++;
+                }
+                if (position < length && line.charAt(position) != ',') {
+                    throw new IllegalArgumentException("unexpected text after the quoted field in column " + (values.size() + 1));
+                }
+                values.add(value.toString());
+            } else {
+                int comma = line.indexOf(',', position);
+                int end = comma < 0 ? length : comma;
+                String field = line.substring(position, end).trim();
+                if (field.indexOf('"') >= 0) {
+                    throw new IllegalArgumentException("quote inside the unquoted field in column " + (values.size() + 1));
+                }
+                values.add(field);
+                position = end;
+            }
+            if (position >= length) {
+                return values.toArray(new String[0]);
+            }
+            position++;
+        }
+    }
+
+    public record Row(DealRequest dealRequest, LocalDateTime createdAt) {
+    }
+}
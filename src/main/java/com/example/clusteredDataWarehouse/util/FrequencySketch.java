@@ -0,0 +1,76 @@
+package com.example.clusteredDataWarehouse.util;
+
+/**
+ * Approximate access counts of uniqueIds for {@link DealCache}'s admission: a count-min sketch
+ * of 4-bit counters, sixteen to a long, four counters per id. Counts saturate at 15 and are all
+ * halved once ten times the cache size has been counted, so ids that stopped being read lose
+ * their weight. Not thread-safe; the cache guards it.
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x97cb3127fde68f4bL, 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    public FrequencySketch(int maximumSize) {
+        int size = Integer.highestOneBit(Math.max(8, maximumSize - 1)) << 1;
+        this.table = new long[size];
+        this.sampleSize = 10 * Math.max(maximumSize, 1);
+    }
+
+    public int frequency(String uniqueId) {
+        long hash = Hashing.hash64(uniqueId);
+        int frequency = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long counterHash = rehash(hash, i);
+            frequency = Math.min(frequency, (int) ((table[index(counterHash)] >>> shift(counterHash)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    public void increment(String uniqueId) {
+        long hash = Hashing.hash64(uniqueId);
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long counterHash = rehash(hash, i);
+            int index = index(counterHash);
+            int shift = shift(counterHash);
+            if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long rehash(long hash, int counter) {
+        long mixed = (hash + SEEDS[counter]) * SEEDS[counter];
+        return mixed ^ (mixed >>> 29);
+    }
+
+    private int index(long counterHash) {
+        return (int) (counterHash >>> 32) & (table.length - 1);
+    }
+
+    // one of the long's sixteen 4-bit counters
+    private static int shift(long counterHash) {
+        return ((int) counterHash & 15) << 2;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Success responses of recently accepted deals by uniqueId, so a client retrying a submit gets
+ * the original answer back without a database round trip. Entries are kept in insertion order,
+ * which with a fixed TTL is also expiry order: the eldest entry goes first when the cache is
+ * full or has expired.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    @Autowired
+    public IdempotencyCache(DealProperties dealProperties) {
+        this(dealProperties, System::nanoTime);
+    }
+
+    public IdempotencyCache(DealProperties dealProperties, LongSupplier clock) {
+        this.enabled = dealProperties.getIdempotency().isEnabled();
+        this.maxEntries = dealProperties.getIdempotency().getMaxEntries();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(dealProperties.getIdempotency().getTtlSeconds());
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries || eldest.getValue().isExpired(clock.getAsLong());
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The live entry for the uniqueId, or null when none was stored or it has expired.
+     */
+    public synchronized Entry find(String uniqueId) {
+        Entry entry = entries.get(uniqueId);
+        if (entry != null && entry.isExpired(clock.getAsLong())) {
+            entries.remove(uniqueId);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(DealRequest dealRequest, HttpStatusCode status, ApiResponse response) {
+        if (!enabled) {
+            return;
+        }
+        // re-inserting moves the key to the tail so expiry order stays insertion order
+        entries.remove(dealRequest.getUniqueId());
+        entries.put(dealRequest.getUniqueId(), new Entry(dealRequest.getFromCurrency(), dealRequest.getToCurrency(),
+                dealRequest.getAmount(), status, response, clock.getAsLong() + ttlNanos));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public record Entry(String fromCurrency, String toCurrency, BigDecimal amount,
+                        HttpStatusCode status, ApiResponse response, long expiresAt) {
+
+        // amounts compare by value, so a retry sending 100.0 for 100.00 is still the same deal
+        public boolean matches(DealRequest dealRequest) {
+            return Objects.equals(fromCurrency, dealRequest.getFromCurrency())
+                    && Objects.equals(toCurrency, dealRequest.getToCurrency())
+                    && amount != null && dealRequest.getAmount() != null
+                    && amount.compareTo(dealRequest.getAmount()) == 0;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
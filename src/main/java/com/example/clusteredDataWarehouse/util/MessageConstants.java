@@ -10,4 +10,41 @@ public class MessageConstants {
     public static final String INVALID_TO_CURRENCY_CODE = "Invalid Currency Code";
     public static final String INVALID_DEAL_AMOUNT = "Deal amount must not be zero or less";
     public static final String SUCCESS = "FX Deal saved successfully";
+    public static final String BULK_PROCESSED = "FX Deals batch processed";
+    public static final String EMPTY_BATCH = "Deal batch must not be empty";
+    public static final String BATCH_TOO_LARGE = "Deal batch exceeds the maximum allowed size";
+    public static final String NULL_DEAL = "Deal must not be null";
+    public static final String UNSUPPORTED_IMPORT_FORMAT = "Import file must be a .csv or .ndjson file";
+    public static final String IMPORT_ALREADY_EXISTS = "An import with this file name already exists";
+    public static final String IMPORT_NOT_FOUND = "Import not found";
+    public static final String ACCEPTED = "FX Deal accepted for processing";
+    public static final String INGEST_QUEUE_FULL = "Too many deals in flight, retry later";
+    public static final String DEAL_NOT_FOUND = "Deal not found";
+    public static final String INVALID_CURSOR = "Invalid page cursor";
+    public static final String INCOMPLETE_CURRENCY_PAIR = "fromCurrency and toCurrency must be given together";
+    public static final String INVALID_PAGE_SIZE = "Page size must be between 1 and 1000";
+    public static final String INVALID_DATE_RANGE = "from must be before to";
+    public static final String ROLLUPS_REBUILT = "Rollups rebuilt";
+    public static final String NOT_A_CLUSTER_PEER = "Only the other nodes of the cluster may call this endpoint";
+    public static final String ROLLUP_RANGE_DETACHED = "Rollups can only be rebuilt for months still stored in DEALS";
+    public static final String UNREADABLE_ROW = "Row could not be parsed";
+    public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+    public static final String FORWARDED_BY_HEADER = "X-Deal-Forwarded-By";
+    public static final String PEER_TOKEN_HEADER = "X-Deal-Peer-Token";
+    public static final String WARM_UP_HEADER = "X-Deal-Warm-Up";
+    public static final String MALFORMED_DEAL_FRAME = "Malformed deal frame";
+    public static final String DEAL_FRAME_TOO_LARGE = "Deal frame exceeds the maximum allowed size";
+    public static final String BEFORE_RETENTION_WINDOW = "Deal date is before the partition retention window";
+    public static final String SAME_CURRENCY_PAIR = "fromCurrency and toCurrency must differ";
+    public static final String AMOUNT_SCALE_TOO_LARGE = "Deal amount has more decimal places than allowed";
+    public static final String AMOUNT_ABOVE_MAX_NOTIONAL = "Deal amount exceeds the maximum notional";
+    public static final String INVALID_FEED_POSITION = "Feed position must not be negative";
+    public static final String FEED_POSITION_EXPIRED = "Feed position is older than the retained changes, restart without after";
+    public static final String SUBMIT_OVERLOADED = "The node is at its submit limit, retry later";
+    public static final String CLIENT_QUOTA_EXCEEDED = "Too many submits in flight for this client, retry later";
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String CACHE_INVALIDATED = "Cached deals invalidated";
+    public static final String DEAL_NOT_STORED = "Deal could not be stored";
+    public static final String OWNER_NODE_UNAVAILABLE = "The node owning this deal is unavailable, retry later";
+    public static final String OWNER_NODE_REJECTED = "The node owning this deal did not take it, retry later";
 }
@@ -0,0 +1,35 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+
+/**
+ * The {@code <file>.rejected} CSV report written next to imported and backfilled files.
+ */
+public final class RejectedRows {
+
+    public static final String SUFFIX = ".rejected";
+
+    public static final String HEADER = "line,uniqueId,status,messages";
+
+    private RejectedRows() {
+    }
+
+    public static void write(BufferedWriter rejected, long lineNumber, String uniqueId, DealItemStatus status,
+                             String messages) throws IOException {
+        rejected.write(lineNumber + "," + escapeCsv(uniqueId) + "," + status + "," + escapeCsv(messages));
+        rejected.newLine();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
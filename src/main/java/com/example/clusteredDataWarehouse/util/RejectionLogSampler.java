@@ -0,0 +1,83 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs rejected requests without letting a duplicate-heavy feed flood the log: the first
+ * rejection of a reason and message is logged, then at most one per interval, carrying the
+ * number suppressed since. The exact totals are in the deals.rejected counters. Past
+ * {@value #MAX_TRACKED_MESSAGES} messages of a reason, further messages share one window of that
+ * reason, so a stream of distinct messages is sampled as well.
+ */
+@Component
+@Slf4j
+public class RejectionLogSampler {
+
+    private static final int MAX_TRACKED_MESSAGES = 256;
+
+    private final long intervalMs;
+    private final long intervalNanos;
+    private final Map<RejectionReason, Map<String, Window>> windows = new EnumMap<>(RejectionReason.class);
+    private final Map<RejectionReason, Window> overflowWindows = new EnumMap<>(RejectionReason.class);
+
+    public RejectionLogSampler(DealProperties dealProperties) {
+        this.intervalMs = dealProperties.getRejections().getLogIntervalMs();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        for (RejectionReason reason : RejectionReason.values()) {
+            windows.put(reason, new ConcurrentHashMap<>());
+            overflowWindows.put(reason, new Window());
+        }
+    }
+
+    public void log(RejectionReason reason, String message) {
+        if (DealMetrics.isOffTheRecord()) {
+            return;
+        }
+        Map<String, Window> byMessage = windows.get(reason);
+        Window window = byMessage.get(message);
+        boolean overflow = false;
+        if (window == null) {
+            if (byMessage.size() >= MAX_TRACKED_MESSAGES) {
+                window = overflowWindows.get(reason);
+                overflow = true;
+            } else {
+                window = byMessage.computeIfAbsent(message, key -> new Window());
+            }
+        }
+
+        long now = System.nanoTime();
+        long lastLogged = window.lastLogged.get();
+        boolean due = lastLogged == Window.NEVER || now - lastLogged >= intervalNanos;
+        if (!due || !window.lastLogged.compareAndSet(lastLogged, now)) {
+            window.suppressed.increment();
+            return;
+        }
+
+        long suppressed = window.suppressed.sumThenReset();
+        if (suppressed == 0) {
+            log.warn("{} rejection: {}", reason.getTag(), message);
+        } else if (overflow) {
+            log.warn("{} rejection: {} ({} more with other untracked messages in the last {} ms)",
+                    reason.getTag(), message, suppressed, intervalMs);
+        } else {
+            log.warn("{} rejection: {} ({} more in the last {} ms)", reason.getTag(), message, suppressed, intervalMs);
+        }
+    }
+
+    private static final class Window {
+        private static final long NEVER = Long.MIN_VALUE;
+
+        private final AtomicLong lastLogged = new AtomicLong(NEVER);
+        private final LongAdder suppressed = new LongAdder();
+    }
+}
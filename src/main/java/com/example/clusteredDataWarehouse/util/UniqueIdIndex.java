@@ -0,0 +1,85 @@
+package com.example.clusteredDataWarehouse.util;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class UniqueIdIndex {
+
+    private static final String SELECT_UNIQUE_IDS = "SELECT UNIQUE_ID FROM DEAL_UNIQUE_IDS";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DealProperties dealProperties;
+
+    private final DealRouter dealRouter;
+
+    private final BloomFilter seenIds;
+
+    private volatile boolean warmed;
+
+    public UniqueIdIndex(JdbcTemplate jdbcTemplate, DealProperties dealProperties, DealRouter dealRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealProperties = dealProperties;
+        this.dealRouter = dealRouter;
+        this.seenIds = new BloomFilter(
+                dealProperties.getDedup().getExpectedInsertions(),
+                dealProperties.getDedup().getFalsePositiveProbability()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!dealProperties.getDedup().isEnabled()) {
+            return;
+        }
+        Thread warmer = new Thread(this::loadExistingIds, "unique-id-index-warmer");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    public boolean mightContain(String uniqueId) {
+        return !warmed || seenIds.mightContain(uniqueId);
+    }
+
+    public void add(String uniqueId) {
+        seenIds.put(uniqueId);
+    }
+
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    private void loadExistingIds() {
+        long started = System.currentTimeMillis();
+        AtomicLong loaded = new AtomicLong();
+        try {
+            jdbcTemplate.query(connection -> {
+                connection.setAutoCommit(false);
+                PreparedStatement statement = connection.prepareStatement(SELECT_UNIQUE_IDS);
+                statement.setFetchSize(dealProperties.getDedup().getWarmUpFetchSize());
+                return statement;
+            }, resultSet -> {
+                // in clustered mode ids of other nodes are never checked here
+                String uniqueId = resultSet.getString(1);
+                if (dealRouter.isLocal(uniqueId)) {
+                    add(uniqueId);
+                    loaded.incrementAndGet();
+                }
+            });
+            warmed = true;
+            log.info("unique id index warmed with {} ids in {} ms", loaded.get(), System.currentTimeMillis() - started);
+        } catch (Exception ex) {
+            log.error("unique id index warm-up failed, falling back to database lookups: {}", ex.getMessage(), ex);
+        }
+    }
+}
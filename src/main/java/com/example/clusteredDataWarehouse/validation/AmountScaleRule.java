@@ -0,0 +1,37 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.AMOUNT_SCALE_TOO_LARGE;
+
+/**
+ * Rejects amounts with more decimal places than deals.validation.max-amount-scale instead of letting
+ * the NUMERIC(38, 2) column round them. Trailing zeros do not count.
+ */
+@Component
+@ConditionalOnProperty(prefix = "deals.validation", name = "max-amount-scale")
+public class AmountScaleRule implements DealRule {
+
+    private final int maxScale;
+
+    public AmountScaleRule(DealProperties dealProperties) {
+        this.maxScale = dealProperties.getValidation().getMaxAmountScale();
+    }
+
+    @Override
+    public String check(DealRequest dealRequest) {
+        if (dealRequest.getAmount().scale() <= maxScale) {
+            return null;
+        }
+        return dealRequest.getAmount().stripTrailingZeros().scale() <= maxScale ? null : AMOUNT_SCALE_TOO_LARGE;
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.FIELD;
+    }
+}
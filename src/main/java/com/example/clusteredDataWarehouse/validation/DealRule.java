@@ -0,0 +1,18 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+
+/**
+ * A business rule of deals. Every rule bean is picked up by {@code DealRequestValidator}, which runs
+ * the rules cheapest {@link #cost()} first and reports all the rules a deal breaks. Rules only see
+ * deals whose bean constraints hold, so fields are never null, and are called from several threads
+ * at once for large batches.
+ */
+public interface DealRule {
+
+    /** The violation message, or null when the deal passes. */
+    String check(DealRequest dealRequest);
+
+    RuleCost cost();
+}
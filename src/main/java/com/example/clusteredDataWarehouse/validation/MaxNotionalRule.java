@@ -0,0 +1,32 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.AMOUNT_ABOVE_MAX_NOTIONAL;
+
+@Component
+@ConditionalOnProperty(prefix = "deals.validation", name = "max-notional")
+public class MaxNotionalRule implements DealRule {
+
+    private final BigDecimal maxNotional;
+
+    public MaxNotionalRule(DealProperties dealProperties) {
+        this.maxNotional = dealProperties.getValidation().getMaxNotional();
+    }
+
+    @Override
+    public String check(DealRequest dealRequest) {
+        return dealRequest.getAmount().compareTo(maxNotional) > 0 ? AMOUNT_ABOVE_MAX_NOTIONAL : null;
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.FIELD;
+    }
+}
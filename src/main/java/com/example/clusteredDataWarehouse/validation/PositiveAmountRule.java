@@ -0,0 +1,21 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+import org.springframework.stereotype.Component;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.INVALID_DEAL_AMOUNT;
+
+@Component
+public class PositiveAmountRule implements DealRule {
+
+    @Override
+    public String check(DealRequest dealRequest) {
+        return dealRequest.getAmount().signum() > 0 ? null : INVALID_DEAL_AMOUNT;
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.FIELD;
+    }
+}
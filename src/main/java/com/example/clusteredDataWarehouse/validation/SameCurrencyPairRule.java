@@ -0,0 +1,23 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.SAME_CURRENCY_PAIR;
+
+@Component
+@ConditionalOnProperty(prefix = "deals.validation", name = "reject-same-currency-pair", havingValue = "true")
+public class SameCurrencyPairRule implements DealRule {
+
+    @Override
+    public String check(DealRequest dealRequest) {
+        return dealRequest.getFromCurrency().equals(dealRequest.getToCurrency()) ? SAME_CURRENCY_PAIR : null;
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.FIELD;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.clusteredDataWarehouse.validation;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.RuleCost;
+import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static com.example.clusteredDataWarehouse.util.MessageConstants.INVALID_TO_CURRENCY_CODE;
+
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class ToCurrencyRule implements DealRule {
+
+    private final CurrencyValidator currencyValidator;
+
+    @Override
+    public String check(DealRequest dealRequest) {
+        return currencyValidator.isValidCurrencyCode(dealRequest.getToCurrency()) ? null : INVALID_TO_CURRENCY_CODE;
+    }
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.LOOKUP;
+    }
+}
@@ -0,0 +1,37 @@
+CREATE SEQUENCE DEALS_SEQ START WITH 1 INCREMENT BY 500;
+
+-- Range-partitioned by month. DealPartitionManager creates the DEALS_yyyyMM partitions ahead of
+-- time; DEALS_DEFAULT only catches rows that fall outside every partition and should stay empty.
+CREATE TABLE DEALS (
+    ID            BIGINT         NOT NULL,
+    UNIQUE_ID     VARCHAR(255)   NOT NULL,
+    FROM_CURRENCY VARCHAR(255)   NOT NULL,
+    TO_CURRENCY   VARCHAR(255)   NOT NULL,
+    AMOUNT        NUMERIC(38, 2) NOT NULL,
+    DATE_INSERTED TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT PK_DEALS PRIMARY KEY (ID, DATE_INSERTED)
+) PARTITION BY RANGE (DATE_INSERTED);
+
+CREATE TABLE DEALS_DEFAULT PARTITION OF DEALS DEFAULT;
+
+CREATE INDEX IDX_DEALS_PAIR_DATE ON DEALS (FROM_CURRENCY, TO_CURRENCY, DATE_INSERTED, ID) INCLUDE (UNIQUE_ID, AMOUNT);
+CREATE INDEX IDX_DEALS_DATE ON DEALS (DATE_INSERTED, ID);
+
+-- A unique index on a partitioned table has to contain the partition key, so UNIQUE_ID is kept
+-- globally unique by this unpartitioned key table, filled by a trigger in the inserting transaction.
+-- Keys outlive detached partitions, so archived deals are still reported as duplicates.
+CREATE TABLE DEAL_UNIQUE_IDS (
+    UNIQUE_ID     VARCHAR(255) NOT NULL,
+    DATE_INSERTED TIMESTAMP(6) NOT NULL,
+    CONSTRAINT UK_DEALS_UNIQUE_ID PRIMARY KEY (UNIQUE_ID)
+);
+
+CREATE FUNCTION REGISTER_DEAL_UNIQUE_ID() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO DEAL_UNIQUE_IDS (UNIQUE_ID, DATE_INSERTED) VALUES (NEW.UNIQUE_ID, NEW.DATE_INSERTED);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER TRG_DEALS_UNIQUE_ID AFTER INSERT ON DEALS
+    FOR EACH ROW EXECUTE FUNCTION REGISTER_DEAL_UNIQUE_ID();
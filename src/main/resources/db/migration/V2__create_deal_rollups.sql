@@ -0,0 +1,10 @@
+CREATE TABLE DEAL_ROLLUPS (
+    FROM_CURRENCY VARCHAR(255)   NOT NULL,
+    TO_CURRENCY   VARCHAR(255)   NOT NULL,
+    BUCKET_START  TIMESTAMP(6)   NOT NULL,
+    DEAL_COUNT    BIGINT         NOT NULL,
+    TOTAL_AMOUNT  NUMERIC(38, 2) NOT NULL,
+    MIN_AMOUNT    NUMERIC(38, 2) NOT NULL,
+    MAX_AMOUNT    NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT PK_DEAL_ROLLUPS PRIMARY KEY (FROM_CURRENCY, TO_CURRENCY, BUCKET_START)
+);
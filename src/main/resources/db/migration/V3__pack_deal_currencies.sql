@@ -0,0 +1,48 @@
+-- DEALS stores currencies as SMALLINT codes: ((first - 'A') * 26 + (second - 'A')) * 26 + (third - 'A'),
+-- as packed by CurrencyCodes. Two-byte integers compare and group without collation work, and the
+-- packing keeps the alphabetical order. CURRENCY_ISO decodes for ad-hoc SQL:
+--   SELECT CURRENCY_ISO(FROM_CURRENCY), CURRENCY_ISO(TO_CURRENCY), COUNT(*) FROM DEALS GROUP BY 1, 2;
+CREATE FUNCTION CURRENCY_CODE(ISO_CODE TEXT) RETURNS SMALLINT
+    LANGUAGE plpgsql IMMUTABLE STRICT AS $$
+BEGIN
+    IF ISO_CODE !~ '^[A-Z]{3}$' THEN
+        RAISE EXCEPTION 'Not a three-letter currency code: %', ISO_CODE;
+    END IF;
+    RETURN ((ASCII(SUBSTR(ISO_CODE, 1, 1)) - 65) * 26 + (ASCII(SUBSTR(ISO_CODE, 2, 1)) - 65)) * 26
+        + (ASCII(SUBSTR(ISO_CODE, 3, 1)) - 65);
+END
+$$;
+
+CREATE FUNCTION CURRENCY_ISO(CODE SMALLINT) RETURNS CHAR(3)
+    LANGUAGE SQL IMMUTABLE STRICT AS $$
+    SELECT CHR(65 + CODE / 676) || CHR(65 + CODE / 26 % 26) || CHR(65 + CODE % 26)
+$$;
+
+-- rewrites every attached partition and rebuilds IDX_DEALS_PAIR_DATE
+ALTER TABLE DEALS
+    ALTER COLUMN FROM_CURRENCY TYPE SMALLINT USING CURRENCY_CODE(FROM_CURRENCY),
+    ALTER COLUMN TO_CURRENCY TYPE SMALLINT USING CURRENCY_CODE(TO_CURRENCY);
+
+-- months detached by the retention setting and not archived yet are converted too, so DealArchiver
+-- reads one layout
+DO $$
+DECLARE
+    detached RECORD;
+BEGIN
+    FOR detached IN
+        SELECT c.relname
+        FROM pg_class c
+                 JOIN pg_namespace n ON n.oid = c.relnamespace AND n.nspname = current_schema()
+                 JOIN pg_attribute a ON a.attrelid = c.oid AND a.attname = 'from_currency'
+        WHERE c.relkind = 'r'
+          AND NOT c.relispartition
+          AND c.relname ~ '^deals_[0-9]{6}$'
+          AND a.atttypid <> 'smallint'::regtype
+        LOOP
+            EXECUTE format('ALTER TABLE %I'
+                               || ' ALTER COLUMN FROM_CURRENCY TYPE SMALLINT USING CURRENCY_CODE(FROM_CURRENCY),'
+                               || ' ALTER COLUMN TO_CURRENCY TYPE SMALLINT USING CURRENCY_CODE(TO_CURRENCY)',
+                           detached.relname);
+        END LOOP;
+END
+$$;
@@ -0,0 +1,18 @@
+-- DEAL_UNIQUE_IDS is filled once per INSERT statement from its transition table instead of once per
+-- row, so a multi-row insert (a JDBC batch rewritten by reWriteBatchedInserts, a backfill merge) adds
+-- its keys with one set-based INSERT. Uniqueness is unchanged: a known or repeated key still fails
+-- the inserting statement on UK_DEALS_UNIQUE_ID. A statement trigger on DEALS only sees inserts made
+-- through DEALS, so deals must not be inserted into a DEALS_yyyyMM partition directly.
+DROP TRIGGER TRG_DEALS_UNIQUE_ID ON DEALS;
+DROP FUNCTION REGISTER_DEAL_UNIQUE_ID();
+
+CREATE FUNCTION REGISTER_DEAL_UNIQUE_IDS() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO DEAL_UNIQUE_IDS (UNIQUE_ID, DATE_INSERTED) SELECT UNIQUE_ID, DATE_INSERTED FROM INSERTED_DEALS;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER TRG_DEALS_UNIQUE_IDS AFTER INSERT ON DEALS
+    REFERENCING NEW TABLE AS INSERTED_DEALS
+    FOR EACH STATEMENT EXECUTE FUNCTION REGISTER_DEAL_UNIQUE_IDS();
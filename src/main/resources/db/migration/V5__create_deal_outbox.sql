@@ -0,0 +1,42 @@
+-- Outbox of the change feed. A statement trigger on DEALS copies every inserted deal into DEAL_OUTBOX
+-- inside the inserting transaction, so the outbox holds exactly the committed deals of every write path
+-- (submits, batches, write-behind, R2DBC, backfills) and nothing of a rolled back one.
+-- Rows arrive with a NULL POSITION. DealFeedPublisher numbers the committed ones in ID order while it
+-- holds an advisory lock, so positions are dense and no row ever shows up behind a position that a
+-- reader has already seen. RECORDED_AT is the insert time; the retention purge uses it because
+-- DATE_INSERTED of a backfilled deal can be years old.
+CREATE TABLE DEAL_OUTBOX (
+    ID            BIGINT         GENERATED ALWAYS AS IDENTITY,
+    POSITION      BIGINT,
+    DEAL_ID       BIGINT         NOT NULL,
+    UNIQUE_ID     VARCHAR(255)   NOT NULL,
+    FROM_CURRENCY SMALLINT       NOT NULL,
+    TO_CURRENCY   SMALLINT       NOT NULL,
+    AMOUNT        NUMERIC(38, 2) NOT NULL,
+    DATE_INSERTED TIMESTAMP(6)   NOT NULL,
+    RECORDED_AT   TIMESTAMP(6)   NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT PK_DEAL_OUTBOX PRIMARY KEY (ID)
+);
+
+CREATE UNIQUE INDEX UK_DEAL_OUTBOX_POSITION ON DEAL_OUTBOX (POSITION);
+CREATE INDEX IDX_DEAL_OUTBOX_PENDING ON DEAL_OUTBOX (ID) WHERE POSITION IS NULL;
+
+-- Last position delivered to each DealFeedSink, by sink name.
+CREATE TABLE DEAL_FEED_CURSORS (
+    SINK       VARCHAR(100) NOT NULL,
+    POSITION   BIGINT       NOT NULL,
+    UPDATED_AT TIMESTAMP(6) NOT NULL,
+    CONSTRAINT PK_DEAL_FEED_CURSORS PRIMARY KEY (SINK)
+);
+
+CREATE FUNCTION RECORD_DEAL_CHANGES() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO DEAL_OUTBOX (DEAL_ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED)
+    SELECT ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED FROM INSERTED_DEALS ORDER BY ID;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER TRG_DEALS_OUTBOX AFTER INSERT ON DEALS
+    REFERENCING NEW TABLE AS INSERTED_DEALS
+    FOR EACH STATEMENT EXECUTE FUNCTION RECORD_DEAL_CHANGES();
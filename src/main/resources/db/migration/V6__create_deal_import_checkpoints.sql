@@ -0,0 +1,15 @@
+-- Progress of each file import, saved in the transaction that stores the chunk it covers, so a resumed
+-- import starts exactly after the last committed chunk. NODE is deals.cluster.self (empty outside a
+-- cluster), since every node imports from its own directory.
+CREATE TABLE DEAL_IMPORT_CHECKPOINTS (
+    NODE            VARCHAR(255) NOT NULL,
+    FILE_NAME       VARCHAR(255) NOT NULL,
+    COMMITTED_LINES BIGINT       NOT NULL,
+    REJECTED_BYTES  BIGINT       NOT NULL,
+    ACCEPTED        BIGINT       NOT NULL,
+    DUPLICATES      BIGINT       NOT NULL,
+    INVALID         BIGINT       NOT NULL,
+    UNAVAILABLE     BIGINT       NOT NULL,
+    UPDATED_AT      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT PK_DEAL_IMPORT_CHECKPOINTS PRIMARY KEY (NODE, FILE_NAME)
+);
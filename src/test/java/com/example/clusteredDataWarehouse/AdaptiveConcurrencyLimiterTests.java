@@ -0,0 +1,177 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.exception.OverloadedException;
+import com.example.clusteredDataWarehouse.exception.QuotaExceededException;
+import com.example.clusteredDataWarehouse.limit.AdaptiveConcurrencyLimiter;
+import com.example.clusteredDataWarehouse.limit.SubmitLimitInterceptor;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final DealMetrics dealMetrics = new DealMetrics(meterRegistry);
+
+	@Test
+	public void whenOneClientTakesMoreThanItsShareOfABusyNode_ShouldRejectOnlyThatClient() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(8);
+		for (int i = 0; i < 4; i++) {
+			limiter.acquire("greedy");
+		}
+		limiter.acquire("modest");
+
+		Assertions.assertThrows(QuotaExceededException.class, () -> limiter.acquire("greedy"));
+		limiter.acquire("modest");
+		Assertions.assertEquals(6, limiter.getInflight());
+
+		limiter.acquire("third");
+		limiter.acquire("third");
+		Assertions.assertThrows(OverloadedException.class, () -> limiter.acquire("modest"));
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.rejected").tag("reason", "client_quota").counter().count());
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.rejected").tag("reason", "overloaded").counter().count());
+	}
+
+	@Test
+	public void whenPeerForwardsSubmitsOfManyClients_ShouldOnlyHoldThemToTheNodeLimit() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(8);
+		limiter.acquire("local");
+		for (int i = 0; i < 7; i++) {
+			limiter.acquire(null);
+		}
+
+		Assertions.assertThrows(OverloadedException.class, () -> limiter.acquire(null));
+		for (int i = 0; i < 7; i++) {
+			limiter.release(null);
+		}
+		limiter.release("local");
+		Assertions.assertEquals(0, limiter.getInflight());
+		Assertions.assertNull(meterRegistry.find("deals.rejected").tag("reason", "client_quota").counter());
+	}
+
+	@Test
+	public void whenClientSpoofsThePeerHeader_ShouldStillHoldItToItsShare() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(8);
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getCluster().setEnabled(true);
+		dealProperties.getCluster().setSelf("http://node-a");
+		dealProperties.getCluster().setNodes(List.of("http://node-a", "http://node-b"));
+		dealProperties.getCluster().setPeerToken("secret");
+		SubmitLimitInterceptor interceptor = new SubmitLimitInterceptor(limiter,
+				new DealRouter(dealProperties, new RestTemplateBuilder(), new ObjectMapper(), dealMetrics));
+
+		for (int i = 0; i < 4; i++) {
+			interceptor.preHandle(submit("10.0.0.1", "http://node-b", null), new MockHttpServletResponse(), null);
+		}
+		interceptor.preHandle(submit("10.0.0.2", null, null), new MockHttpServletResponse(), null);
+
+		Assertions.assertThrows(QuotaExceededException.class, () -> interceptor.preHandle(
+				submit("10.0.0.1", "http://node-b", "guessed"), new MockHttpServletResponse(), null));
+		// the real peer, with the token, is only held to the node limit
+		for (int i = 0; i < 3; i++) {
+			interceptor.preHandle(submit("10.0.0.3", "http://node-b", "secret"), new MockHttpServletResponse(), null);
+		}
+		Assertions.assertEquals(8, limiter.getInflight());
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.rejected").tag("reason", "client_quota").counter().count());
+	}
+
+	@Test
+	public void whenPersistsSlowDownUnderLoad_ShouldShrinkTheLimitAndGrowItBackWhenTheyRecover() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(50);
+		for (int i = 0; i < 50; i++) {
+			limiter.acquire("client-" + i);
+		}
+		for (int i = 0; i < 200; i++) {
+			limiter.onPersist(2 * MILLIS);
+		}
+		int steady = limiter.getLimit();
+
+		for (int i = 0; i < 30; i++) {
+			limiter.onPersist(20 * MILLIS);
+		}
+		int shrunk = limiter.getLimit();
+		Assertions.assertTrue(shrunk < steady / 2, shrunk + " of " + steady);
+		Assertions.assertTrue(shrunk >= 8);
+
+		for (int i = 0; i < 50; i++) {
+			limiter.release("client-" + i);
+		}
+		for (int i = 0; i < shrunk; i++) {
+			limiter.acquire("client-" + i);
+		}
+		for (int i = 0; i < 200; i++) {
+			limiter.onPersist(2 * MILLIS);
+		}
+		Assertions.assertTrue(limiter.getLimit() > shrunk);
+	}
+
+	@Test
+	public void whenBatchPersistsSlowDown_ShouldShrinkTheLimitByTheirPerDealLatency() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(50);
+		limiter.acquire("bulk", limiter.permitsFor(10_000_000));
+		limiter.acquire("single");
+		Assertions.assertEquals(26, limiter.getInflight());
+		for (int i = 0; i < 200; i++) {
+			limiter.onPersist(2 * MILLIS);
+			dealMetrics.timeBatchPersist(1_000, () -> { });
+		}
+		int steady = limiter.getLimit();
+		Assertions.assertTrue(steady >= 50, steady + " shrank on steady batches");
+
+		for (int i = 0; i < 30; i++) {
+			limiter.onBatchPersist(1_000 * MILLIS, 1_000);
+		}
+		Assertions.assertTrue(limiter.getLimit() < steady / 2, limiter.getLimit() + " of " + steady);
+	}
+
+	@Test
+	public void whenRequestBodyIsLarge_ShouldTakeMorePermitsUpToHalfTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = composeLimiter(50);
+
+		Assertions.assertEquals(1, limiter.permitsFor(-1));
+		Assertions.assertEquals(1, limiter.permitsFor(2_000));
+		Assertions.assertEquals(4, limiter.permitsFor(200_000));
+		Assertions.assertEquals(25, limiter.permitsFor(500_000_000));
+
+		limiter.acquire("bulk", 25);
+		limiter.acquire("other", 20);
+		Assertions.assertThrows(OverloadedException.class, () -> limiter.acquire("third", limiter.permitsFor(400_000)));
+		limiter.release("bulk", 25);
+		limiter.release("other", 20);
+		Assertions.assertEquals(0, limiter.getInflight());
+	}
+
+	private static MockHttpServletRequest submit(String remoteAddr, String forwardedBy, String peerToken) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/fx-deals/submit");
+		request.setRemoteAddr(remoteAddr);
+		if (forwardedBy != null) {
+			request.addHeader(MessageConstants.FORWARDED_BY_HEADER, forwardedBy);
+		}
+		if (peerToken != null) {
+			request.addHeader(MessageConstants.PEER_TOKEN_HEADER, peerToken);
+		}
+		return request;
+	}
+
+	private AdaptiveConcurrencyLimiter composeLimiter(int initialLimit) {
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getLimiter().setInitialLimit(initialLimit);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(dealProperties, dealMetrics);
+		limiter.bindTo(meterRegistry);
+		return limiter;
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.util.BloomFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+class BloomFilterTests {
+
+	@Test
+	public void whenIdsAreAddedConcurrently_ShouldHaveNoFalseNegatives() throws Exception {
+		BloomFilter bloomFilter = new BloomFilter(100_000, 0.01);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		IntStream.range(0, 8).forEach(worker -> executor.execute(() -> {
+			for (int i = worker; i < 100_000; i += 8) {
+				bloomFilter.put("deal-" + i);
+			}
+		}));
+		executor.shutdown();
+		Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		for (int i = 0; i < 100_000; i++) {
+			Assertions.assertTrue(bloomFilter.mightContain("deal-" + i));
+		}
+	}
+
+	@Test
+	public void whenIdWasNeverAdded_ShouldStayNearConfiguredFalsePositiveRate() {
+		BloomFilter bloomFilter = new BloomFilter(100_000, 0.01);
+		IntStream.range(0, 100_000).forEach(i -> bloomFilter.put("deal-" + i));
+
+		long falsePositives = IntStream.range(0, 100_000)
+				.filter(i -> bloomFilter.mightContain("other-" + i))
+				.count();
+
+		Assertions.assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+	}
+}
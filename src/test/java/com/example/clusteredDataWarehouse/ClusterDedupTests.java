@@ -0,0 +1,218 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Starts three nodes in clustered mode against the test database and submits every uniqueId
+ * through all of them at once.
+ */
+public class ClusterDedupTests {
+
+	private static final int NODES = 3;
+	private static final int DEALS = 200;
+	private static final String PEER_TOKEN = "cluster-dedup-tests";
+
+	private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+	private static final List<String> urls = new ArrayList<>();
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeAll
+	public static void startNodes() throws IOException {
+		List<Integer> ports = new ArrayList<>();
+		for (int i = 0; i < NODES; i++) {
+			try (ServerSocket socket = new ServerSocket(0)) {
+				ports.add(socket.getLocalPort());
+			}
+		}
+		ports.forEach(port -> urls.add("http://localhost:" + port));
+		for (int i = 0; i < NODES; i++) {
+			nodes.add(new SpringApplicationBuilder(ClusteredDataWarehouseApplication.class).run(
+					"--server.port=" + ports.get(i),
+					"--deals.cluster.enabled=true",
+					"--deals.cluster.self=" + urls.get(i),
+					"--deals.cluster.nodes=" + String.join(",", urls),
+					"--deals.cluster.peer-token=" + PEER_TOKEN,
+					"--deals.dedup.expected-insertions=100000"));
+		}
+	}
+
+	@AfterAll
+	public static void stopNodes() {
+		nodes.forEach(ConfigurableApplicationContext::close);
+	}
+
+	@Test
+	public void whenSameDealsHitAllNodesConcurrently_ShouldStoreAndAcceptEachOnce() throws Exception {
+		String prefix = "cluster-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+		Map<String, AtomicInteger> accepted = new ConcurrentHashMap<>();
+		AtomicInteger conflicts = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(24);
+		List<Future<?>> submits = new ArrayList<>();
+		for (int copy = 0; copy < NODES; copy++) {
+			for (int i = 0; i < DEALS; i++) {
+				String uniqueId = prefix + i;
+				String url = urls.get((i + copy) % NODES);
+				submits.add(workers.submit(() -> {
+					int status = post(url + "/api/v1/fx-deals/submit", dealJson(uniqueId)).statusCode();
+					if (status == 200) {
+						accepted.computeIfAbsent(uniqueId, key -> new AtomicInteger()).incrementAndGet();
+					} else if (status == 409) {
+						conflicts.incrementAndGet();
+					} else {
+						throw new AssertionError("unexpected status " + status + " for " + uniqueId);
+					}
+					return null;
+				}));
+			}
+		}
+		for (Future<?> submit : submits) {
+			submit.get();
+		}
+		workers.shutdown();
+
+		Assertions.assertEquals(DEALS, accepted.size());
+		Assertions.assertTrue(accepted.values().stream().allMatch(count -> count.get() == 1));
+		Assertions.assertEquals(DEALS * (NODES - 1), conflicts.get());
+		Assertions.assertEquals(DEALS, storedDeals(prefix));
+		for (ConfigurableApplicationContext node : nodes) {
+			Assertions.assertTrue(node.getBean(MeterRegistry.class).get("deals.forwarded").counter().count() > 0);
+		}
+	}
+
+	@Test
+	public void whenBulkSpansNodes_ShouldReportItemsInSubmittedOrder() throws Exception {
+		String prefix = "cluster-bulk-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+		List<String> uniqueIds = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			uniqueIds.add(prefix + i);
+		}
+		uniqueIds.add(prefix + 0);
+		String body = uniqueIds.stream().map(this::dealJson).collect(Collectors.joining(",", "[", "]"));
+
+		HttpResponse<String> response = post(urls.get(0) + "/api/v1/fx-deals/submit/bulk", body);
+
+		Assertions.assertEquals(200, response.statusCode());
+		BulkDealResponse bulk = objectMapper.readValue(response.body(), BulkDealResponse.class);
+		Assertions.assertEquals(30, bulk.getAccepted());
+		Assertions.assertEquals(1, bulk.getDuplicates());
+		for (int i = 0; i < uniqueIds.size(); i++) {
+			DealItemResult result = bulk.getResults().get(i);
+			Assertions.assertEquals(i, result.getIndex());
+			Assertions.assertEquals(uniqueIds.get(i), result.getUniqueId());
+		}
+		Assertions.assertEquals(DealItemStatus.DUPLICATE, bulk.getResults().get(30).getStatus());
+		Assertions.assertEquals(30, storedDeals(prefix));
+	}
+
+	@Test
+	public void whenStatusIsAskedOfAnyNode_ShouldAnswerForTheOwningNode() throws Exception {
+		String prefix = "cluster-status-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(200, post(urls.get(0) + "/api/v1/fx-deals/submit", dealJson(prefix + i)).statusCode());
+		}
+
+		for (String url : urls) {
+			for (int i = 0; i < 10; i++) {
+				HttpResponse<String> status = get(url + "/api/v1/fx-deals/" + prefix + i + "/status");
+				Assertions.assertEquals(200, status.statusCode());
+				Assertions.assertTrue(status.body().contains("\"PERSISTED\""), status.body());
+			}
+			Assertions.assertEquals(404, get(url + "/api/v1/fx-deals/" + prefix + "missing/status").statusCode());
+		}
+	}
+
+	@Test
+	public void whenClientPosesAsAPeer_ShouldStillRouteItsSubmitToTheOwner() throws Exception {
+		DealRouter router = nodes.get(0).getBean(DealRouter.class);
+		String prefix = "cluster-spoofed-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+		String uniqueId = prefix + 0;
+		for (int i = 1; router.isLocal(uniqueId); i++) {
+			uniqueId = prefix + i;
+		}
+		MeterRegistry meterRegistry = nodes.get(0).getBean(MeterRegistry.class);
+		double forwarded = meterRegistry.get("deals.forwarded").counter().count();
+
+		HttpResponse<String> response = post(urls.get(0) + "/api/v1/fx-deals/submit", dealJson(uniqueId), urls.get(1), null);
+
+		Assertions.assertEquals(200, response.statusCode());
+		Assertions.assertEquals(forwarded + 1, meterRegistry.get("deals.forwarded").counter().count());
+	}
+
+	@Test
+	public void whenCacheInvalidationIsPosted_ShouldOnlyAcceptItFromAnotherNode() throws Exception {
+		String path = "/internal/v1/cluster/cache/invalidations?from=2001-01-01T00:00:00&to=2001-01-02T00:00:00";
+
+		Assertions.assertEquals(422, post(urls.get(0) + path, "", null, null).statusCode());
+		Assertions.assertEquals(422, post(urls.get(0) + path, "", "http://localhost:1", PEER_TOKEN).statusCode());
+		Assertions.assertEquals(422, post(urls.get(0) + path, "", urls.get(0), PEER_TOKEN).statusCode());
+		Assertions.assertEquals(422, post(urls.get(0) + path, "", urls.get(1), null).statusCode());
+		Assertions.assertEquals(422, post(urls.get(0) + path, "", urls.get(1), "guessed").statusCode());
+		Assertions.assertEquals(200, post(urls.get(0) + path, "", urls.get(1), PEER_TOKEN).statusCode());
+		Assertions.assertEquals(404, post(urls.get(0) + "/api/v1/fx-deals/cache/invalidations", "", null, null).statusCode());
+	}
+
+	private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+		return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(String url, String body) throws IOException, InterruptedException {
+		return post(url, body, null, null);
+	}
+
+	private HttpResponse<String> post(String url, String body, String forwardedBy, String peerToken)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+		if (forwardedBy != null) {
+			request.header(MessageConstants.FORWARDED_BY_HEADER, forwardedBy);
+		}
+		if (peerToken != null) {
+			request.header(MessageConstants.PEER_TOKEN_HEADER, peerToken);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private String dealJson(String uniqueId) {
+		return "{\"uniqueId\":\"" + uniqueId + "\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":100}";
+	}
+
+	private int storedDeals(String prefix) {
+		Integer count = nodes.get(0).getBean(JdbcTemplate.class).queryForObject(
+				"SELECT COUNT(*) FROM DEALS WHERE UNIQUE_ID LIKE ?", Integer.class, prefix + "%");
+		return count == null ? 0 : count;
+	}
+}
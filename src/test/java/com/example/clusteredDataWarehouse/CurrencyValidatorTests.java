@@ -0,0 +1,54 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.util.CurrencyCodes;
+import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+import java.util.List;
+
+class CurrencyValidatorTests {
+
+	@Test
+	public void whenCodeIsPacked_ShouldRoundTripAndKeepAlphabeticalOrder() {
+		Assertions.assertEquals(0, CurrencyCodes.pack("AAA"));
+		Assertions.assertEquals(CurrencyCodes.COUNT - 1, CurrencyCodes.pack("ZZZ"));
+		Assertions.assertTrue(CurrencyCodes.pack("EUR") < CurrencyCodes.pack("GBP"));
+		Assertions.assertTrue(CurrencyCodes.pack("GBP") < CurrencyCodes.pack("USD"));
+		for (Currency currency : Currency.getAvailableCurrencies()) {
+			String isoCode = currency.getCurrencyCode();
+			Assertions.assertEquals(isoCode, CurrencyCodes.isoCode(CurrencyCodes.pack(isoCode)));
+		}
+		Assertions.assertSame(CurrencyCodes.isoCode(CurrencyCodes.pack("USD")), CurrencyCodes.isoCode(CurrencyCodes.pack("USD")));
+		for (String malformed : new String[]{null, "", "usd", "US", "USDT", "U5D", "US "}) {
+			Assertions.assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack(malformed));
+		}
+	}
+
+	@Test
+	public void whenNoCurrenciesAreConfigured_ShouldAcceptJdkCurrencies() {
+		CurrencyValidator currencyValidator = new CurrencyValidator(new DealProperties());
+
+		Assertions.assertTrue(currencyValidator.isValidCurrencyCode("USD"));
+		Assertions.assertTrue(currencyValidator.isValidCurrencyCode("XAU"));
+		Assertions.assertFalse(currencyValidator.isValidCurrencyCode("XYZ"));
+		Assertions.assertFalse(currencyValidator.isValidCurrencyCode("usd"));
+		Assertions.assertFalse(currencyValidator.isValidCurrencyCode((String) null));
+	}
+
+	@Test
+	public void whenCurrenciesAreConfigured_ShouldAcceptOnlyThose() {
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getCurrencies().setAllowed(List.of("USD", "EUR"));
+		CurrencyValidator currencyValidator = new CurrencyValidator(dealProperties);
+
+		Assertions.assertTrue(currencyValidator.isValidCurrencyCode("USD"));
+		Assertions.assertTrue(currencyValidator.isValidCurrencyCode("EUR"));
+		Assertions.assertFalse(currencyValidator.isValidCurrencyCode("GBP"));
+
+		dealProperties.getCurrencies().setAllowed(List.of("USD", "eur"));
+		Assertions.assertThrows(IllegalStateException.class, () -> new CurrencyValidator(dealProperties));
+	}
+}
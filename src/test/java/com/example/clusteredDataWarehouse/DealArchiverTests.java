@@ -0,0 +1,134 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.dto.response.DealPageResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
+import com.example.clusteredDataWarehouse.storage.DealArchiver;
+import com.example.clusteredDataWarehouse.storage.DealPartitionManager;
+import com.github.javafaker.Faker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = "deals.archive.directory=target/test-archive")
+public class DealArchiverTests {
+
+	private static final YearMonth ARCHIVED_MONTH = YearMonth.of(2001, 1);
+
+	@Autowired
+	private DealArchiver dealArchiver;
+
+	@Autowired
+	private DealPartitionManager dealPartitionManager;
+
+	@Autowired
+	private DealQueryService dealQueryService;
+
+	@Autowired
+	private DealRollupService dealRollupService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final Faker faker = new Faker();
+
+	@AfterEach
+	public void cleanUp() throws Exception {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DealPartitionManager.partitionName(ARCHIVED_MONTH));
+		FileSystemUtils.deleteRecursively(Paths.get("target/test-archive"));
+	}
+
+	@Test
+	public void whenAnotherNodeHoldsTheMaintenanceLock_ShouldKeepThePartitionForLater() throws Exception {
+		String partition = DealPartitionManager.partitionName(ARCHIVED_MONTH);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+		dealPartitionManager.createPartitions(ARCHIVED_MONTH, 1);
+		dealPartitionManager.detach(ARCHIVED_MONTH);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			dealPartitionManager.maintain();
+			locked.countDown();
+			try {
+				release.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		try {
+			Assertions.assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+			Assertions.assertTrue(dealArchiver.archiveDetachedPartitions().isEmpty());
+			Assertions.assertTrue(dealPartitionManager.detachedPartitions().contains(partition));
+		} finally {
+			release.countDown();
+			otherNode.get(30, TimeUnit.SECONDS);
+		}
+		Assertions.assertTrue(dealArchiver.archiveDetachedPartitions().contains(partition));
+	}
+
+	@Test
+	public void whenDetachedPartitionIsArchived_ShouldDropItAndStillServeItsDeals() {
+		String partition = DealPartitionManager.partitionName(ARCHIVED_MONTH);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+		dealPartitionManager.createPartitions(ARCHIVED_MONTH, 1);
+
+		String fromCurrency = faker.letterify("???").toUpperCase();
+		String toCurrency = faker.letterify("???").toUpperCase();
+		List<String> uniqueIds = new ArrayList<>();
+		for (int day = 1; day <= 3; day++) {
+			String uniqueId = faker.lorem().characters(15);
+			uniqueIds.add(uniqueId);
+			jdbcTemplate.update("INSERT INTO DEALS (ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED)"
+							+ " VALUES (nextval('DEALS_SEQ'), ?, CURRENCY_CODE(?), CURRENCY_CODE(?), ?, ?)",
+					uniqueId, fromCurrency, toCurrency, 100 * day,
+					Timestamp.valueOf(ARCHIVED_MONTH.atDay(day).atTime(10, 30)));
+		}
+		dealPartitionManager.detach(ARCHIVED_MONTH);
+
+		List<String> archived = dealArchiver.archiveDetachedPartitions();
+
+		Assertions.assertTrue(archived.contains(partition));
+		Assertions.assertFalse(dealPartitionManager.detachedPartitions().contains(partition));
+
+		DealResponse deal = dealQueryService.getDeal(uniqueIds.get(1)).getBody();
+		Assertions.assertNotNull(deal);
+		Assertions.assertEquals(fromCurrency, deal.getFromCurrency());
+		Assertions.assertEquals(0, deal.getAmount().compareTo(BigDecimal.valueOf(200)));
+
+		DealPageResponse page = dealQueryService.listDeals(fromCurrency, toCurrency,
+				LocalDateTime.of(2001, 1, 1, 0, 0), LocalDateTime.of(2001, 2, 1, 0, 0), null, 2).getBody();
+		Assertions.assertNotNull(page);
+		Assertions.assertEquals(uniqueIds.subList(0, 2), page.getDeals().stream().map(DealResponse::getUniqueId).toList());
+
+		DealPageResponse nextPage = dealQueryService.listDeals(fromCurrency, toCurrency,
+				LocalDateTime.of(2001, 1, 1, 0, 0), LocalDateTime.of(2001, 2, 1, 0, 0), page.getNextCursor(), 2).getBody();
+		Assertions.assertNotNull(nextPage);
+		Assertions.assertEquals(uniqueIds.subList(2, 3), nextPage.getDeals().stream().map(DealResponse::getUniqueId).toList());
+		Assertions.assertNull(nextPage.getNextCursor());
+
+		Assertions.assertThrows(ValidationException.class, () -> dealRollupService.rebuild(
+				ARCHIVED_MONTH.atDay(2).atStartOfDay(), ARCHIVED_MONTH.plusMonths(1).atDay(2).atStartOfDay()));
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.dto.response.BackfillReport;
+import com.example.clusteredDataWarehouse.ingest.DealBackfillLoader;
+import com.example.clusteredDataWarehouse.storage.DealPartitionManager;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.github.javafaker.Faker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@SpringBootTest(properties = "deals.backfill.chunk-size=3")
+public class DealBackfillLoaderTests {
+
+	private static final YearMonth BACKFILLED_MONTH = YearMonth.of(2002, 6);
+
+	@TempDir
+	Path backfillDirectory;
+
+	@Autowired
+	private DealBackfillLoader dealBackfillLoader;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Faker faker = new Faker();
+
+	@AfterEach
+	public void cleanUp() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DealPartitionManager.partitionName(BACKFILLED_MONTH));
+		jdbcTemplate.update("DELETE FROM DEAL_ROLLUPS WHERE BUCKET_START >= ? AND BUCKET_START < ?",
+				Timestamp.valueOf(BACKFILLED_MONTH.atDay(1).atStartOfDay()),
+				Timestamp.valueOf(BACKFILLED_MONTH.plusMonths(1).atDay(1).atStartOfDay()));
+	}
+
+	@Test
+	public void whenCsvIsBackfilled_ShouldLoadItsMonthAndReportDuplicatesAndInvalidRows() throws Exception {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DealPartitionManager.partitionName(BACKFILLED_MONTH));
+		String first = faker.lorem().characters(15);
+		String second = faker.lorem().characters(15);
+		String existing = faker.lorem().characters(15);
+		jdbcTemplate.update("INSERT INTO DEALS (ID, UNIQUE_ID, FROM_CURRENCY, TO_CURRENCY, AMOUNT, DATE_INSERTED)"
+						+ " VALUES (nextval('DEALS_SEQ'), ?, CURRENCY_CODE('USD'), CURRENCY_CODE('EUR'), 10, ?)",
+				existing, Timestamp.valueOf(LocalDateTime.now()));
+
+		Path file = backfillDirectory.resolve("history.csv");
+		Files.write(file, List.of(
+				"uniqueId,fromCurrency,toCurrency,amount,createdAt",
+				first + ",USD,EUR,100.50,2002-06-03T10:15:00",
+				second + ",USD,EUR,200,2002-06-03T10:45:30.5",
+				first + ",USD,EUR,300,2002-06-04T09:00:00",
+				existing + ",USD,EUR,400,2002-06-05T09:00:00",
+				faker.lorem().characters(15) + ",USD,XYZ,500,2002-06-05T09:00:00",
+				faker.lorem().characters(15) + ",USD,EUR,600,yesterday",
+				first + ",GBP,EUR,700,2002-06-06T09:00:00"
+		));
+
+		BackfillReport report = dealBackfillLoader.load(file);
+
+		Assertions.assertEquals(7, report.getRowsRead());
+		Assertions.assertEquals(2, report.getLoaded());
+		Assertions.assertEquals(3, report.getDuplicates());
+		Assertions.assertEquals(2, report.getInvalid());
+		Assertions.assertTrue(report.getRowsPerSecond() > 0);
+
+		String partition = DealPartitionManager.partitionName(BACKFILLED_MONTH);
+		List<Long> ids = jdbcTemplate.queryForList("SELECT ID FROM " + partition + " WHERE UNIQUE_ID IN (?, ?)",
+				Long.class, first, second);
+		Assertions.assertEquals(2, ids.size());
+		Assertions.assertNotEquals(ids.get(0), ids.get(1));
+		Assertions.assertEquals(Timestamp.valueOf(LocalDateTime.of(2002, 6, 3, 10, 45, 30, 500_000_000)),
+				jdbcTemplate.queryForObject("SELECT DATE_INSERTED FROM DEAL_UNIQUE_IDS WHERE UNIQUE_ID = ?",
+						Timestamp.class, second));
+
+		Assertions.assertEquals(2L, jdbcTemplate.queryForObject("SELECT DEAL_COUNT FROM DEAL_ROLLUPS"
+						+ " WHERE FROM_CURRENCY = 'USD' AND TO_CURRENCY = 'EUR' AND BUCKET_START = ?", Long.class,
+				Timestamp.valueOf(LocalDateTime.of(2002, 6, 3, 10, 0))));
+
+		List<String> rejected = Files.readAllLines(backfillDirectory.resolve("history.csv.rejected"));
+		Assertions.assertEquals(6, rejected.size());
+		Assertions.assertTrue(rejected.contains("4," + first + ",DUPLICATE," + MessageConstants.NON_UNIQUE_ID));
+		Assertions.assertTrue(rejected.contains("5," + existing + ",DUPLICATE," + MessageConstants.NON_UNIQUE_ID));
+		Assertions.assertTrue(rejected.contains("8," + first + ",DUPLICATE," + MessageConstants.NON_UNIQUE_ID));
+		Assertions.assertTrue(rejected.stream().anyMatch(line -> line.startsWith("7,,INVALID,")));
+	}
+
+	@Test
+	public void whenFileIsBackfilledTwice_ShouldReportEveryRowAsDuplicateTheSecondTime() throws Exception {
+		Path file = backfillDirectory.resolve("history.ndjson");
+		Files.write(file, List.of(
+				"{\"uniqueId\":\"" + faker.lorem().characters(15) + "\",\"fromCurrency\":\"GBP\",\"toCurrency\":\"USD\",\"amount\":12.5,\"createdAt\":\"2002-06-10T08:00:00\"}",
+				"{\"uniqueId\":\"" + faker.lorem().characters(15) + "\",\"fromCurrency\":\"GBP\",\"toCurrency\":\"USD\",\"amount\":25}"
+		));
+
+		BackfillReport first = dealBackfillLoader.load(file);
+		BackfillReport second = dealBackfillLoader.load(file);
+
+		Assertions.assertEquals(2, first.getLoaded());
+		Assertions.assertEquals(0, first.getDuplicates());
+		Assertions.assertEquals(0, second.getLoaded());
+		Assertions.assertEquals(2, second.getDuplicates());
+	}
+}
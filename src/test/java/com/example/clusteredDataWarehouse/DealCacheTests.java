@@ -0,0 +1,141 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.DealResponse;
+import com.example.clusteredDataWarehouse.util.DealCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+class DealCacheTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 14, 9, 30);
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	public void whenDealIsReadAgain_ShouldAnswerFromCacheUntilItsTtlRunsOut() {
+		DealCache dealCache = composeDealCache(100);
+		dealCache.put(composeDeal("stored"));
+
+		Assertions.assertEquals("stored", read(dealCache, "stored").getUniqueId());
+		Assertions.assertEquals("read", read(dealCache, "read").getUniqueId());
+		Assertions.assertEquals("read", read(dealCache, "read").getUniqueId());
+		Assertions.assertEquals(1, loads.get());
+		Assertions.assertEquals(2.0 / 3, dealCache.hitRatio(), 1e-9);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+		read(dealCache, "read");
+		Assertions.assertEquals(2, loads.get());
+
+		Assertions.assertTrue(dealCache.get("missing", Optional::empty).isEmpty());
+		Assertions.assertTrue(dealCache.get("missing", Optional::empty).isEmpty());
+		Assertions.assertEquals(2, dealCache.size());
+	}
+
+	@Test
+	public void whenOldDealsAreScannedOnce_ShouldKeepTheDealsThatAreReadOften() {
+		DealCache dealCache = composeDealCache(100);
+		for (int round = 0; round < 5; round++) {
+			IntStream.range(0, 50).forEach(i -> read(dealCache, "hot-" + i));
+		}
+		IntStream.range(0, 5_000).forEach(i -> read(dealCache, "scanned-" + i));
+		Assertions.assertTrue(dealCache.size() <= 100);
+
+		loads.set(0);
+		IntStream.range(0, 50).forEach(i -> read(dealCache, "hot-" + i));
+		Assertions.assertTrue(loads.get() <= 5, loads.get() + " hot deals were evicted by the scan");
+	}
+
+	@Test
+	public void whenDealsAreInvalidated_ShouldDropThemAndNotCacheAReadThatRacedTheInvalidation() {
+		DealCache dealCache = composeDealCache(100);
+		dealCache.put(composeDeal("in-range"));
+		dealCache.put(DealResponse.builder().uniqueId("later").createdAt(CREATED_AT.plusMonths(1)).build());
+
+		Assertions.assertEquals(1, dealCache.invalidateCreatedBetween(CREATED_AT.withDayOfMonth(1),
+				CREATED_AT.withDayOfMonth(1).plusMonths(1)));
+		Assertions.assertEquals(1, dealCache.size());
+
+		dealCache.get("raced", () -> {
+			dealCache.invalidateCreatedBetween(CREATED_AT, CREATED_AT.plusDays(1));
+			return Optional.of(composeDeal("raced"));
+		});
+		Assertions.assertEquals(1, dealCache.size());
+		read(dealCache, "raced");
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void whenManyThreadsReadAtOnce_ShouldAnswerEveryReadWithItsOwnDealAndStayBounded() throws Exception {
+		DealCache dealCache = composeDealCache(16_384);
+		IntStream.range(0, 1_000).forEach(i -> dealCache.put(composeDeal("hot-" + i)));
+		loads.set(0);
+
+		List<Callable<Integer>> readers = new ArrayList<>();
+		for (int thread = 0; thread < 16; thread++) {
+			int offset = thread;
+			readers.add(() -> {
+				int mismatches = 0;
+				for (int i = 0; i < 20_000; i++) {
+					String uniqueId = i % 4 == 0 ? "cold-" + offset + "-" + i : "hot-" + (i * 7 + offset) % 1_000;
+					if (!uniqueId.equals(read(dealCache, uniqueId).getUniqueId())) {
+						mismatches++;
+					}
+				}
+				return mismatches;
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			for (Future<Integer> result : executor.invokeAll(readers)) {
+				Assertions.assertEquals(0, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assertions.assertTrue(dealCache.size() <= 16_384);
+		int hotLoads = loads.get() - 16 * 5_000;
+		Assertions.assertTrue(hotLoads <= 50, hotLoads + " hot deals were evicted by the concurrent scan");
+	}
+
+	private DealCache composeDealCache(int maxEntries) {
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getCache().setMaxEntries(maxEntries);
+		dealProperties.getCache().setTtlSeconds(60);
+		return new DealCache(dealProperties, clock::get);
+	}
+
+	private DealResponse read(DealCache dealCache, String uniqueId) {
+		return dealCache.get(uniqueId, () -> {
+			loads.incrementAndGet();
+			return Optional.of(composeDeal(uniqueId));
+		}).orElseThrow();
+	}
+
+	private static DealResponse composeDeal(String uniqueId) {
+		return DealResponse.builder()
+				.uniqueId(uniqueId)
+				.fromCurrency("USD")
+				.toCurrency("EUR")
+				.amount(BigDecimal.valueOf(1_000))
+				.createdAt(CREATED_AT)
+				.build();
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.storage.DealColumnarReader;
+import com.example.clusteredDataWarehouse.storage.DealColumnarWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DealColumnarFileTests {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 5, 0, 0);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void whenReadingWrittenFile_ShouldReturnEveryDealUnchanged() throws Exception {
+		Path file = directory.resolve("deals.dcol");
+		List<Deal> deals = composeDeals(10);
+		writeFile(file, deals);
+
+		List<Deal> read = readFile(file, DAY, DAY.plusDays(1));
+
+		Assertions.assertEquals(deals.size(), read.size());
+		for (int i = 0; i < deals.size(); i++) {
+			Assertions.assertEquals(deals.get(i).getId(), read.get(i).getId());
+			Assertions.assertEquals(deals.get(i).getUniqueId(), read.get(i).getUniqueId());
+			Assertions.assertEquals(deals.get(i).getCreatedAt(), read.get(i).getCreatedAt());
+			Assertions.assertEquals(deals.get(i).getDealAmount(), read.get(i).getDealAmount());
+			Assertions.assertEquals("USD", read.get(i).getFromCurrency());
+			Assertions.assertEquals("EUR", read.get(i).getToCurrency());
+		}
+	}
+
+	@Test
+	public void whenReadingRange_ShouldOnlyReturnDealsInsideIt() throws Exception {
+		Path file = directory.resolve("deals.dcol");
+		List<Deal> deals = composeDeals(10);
+		writeFile(file, deals);
+
+		List<Deal> read = readFile(file, deals.get(4).getCreatedAt(), deals.get(7).getCreatedAt());
+
+		Assertions.assertEquals(List.of(deals.get(4).getId(), deals.get(5).getId(), deals.get(6).getId()),
+				read.stream().map(Deal::getId).toList());
+	}
+
+	private List<Deal> composeDeals(int count) {
+		List<Deal> deals = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Deal deal = Deal.builder()
+					.uniqueId("deal-" + i)
+					.fromCurrency("USD")
+					.toCurrency("EUR")
+					.dealAmount(new BigDecimal("1000.25").multiply(BigDecimal.valueOf(i + 1)))
+					.build();
+			deal.setId(1_000L + i * 7);
+			deal.setCreatedAt(DAY.plusMinutes(i * 90L).plusNanos(123_000));
+			deals.add(deal);
+		}
+		return deals;
+	}
+
+	// a row group size of 3 spreads the rows over several groups, so range reads skip some
+	private void writeFile(Path file, List<Deal> deals) throws Exception {
+		try (DealColumnarWriter writer = new DealColumnarWriter(file, "USD", "EUR", 3)) {
+			for (Deal deal : deals) {
+				writer.write(deal);
+			}
+		}
+	}
+
+	private List<Deal> readFile(Path file, LocalDateTime from, LocalDateTime to) throws Exception {
+		List<Deal> read = new ArrayList<>();
+		try (DealColumnarReader reader = new DealColumnarReader(file, from, to)) {
+			for (Deal deal = reader.read(); deal != null; deal = reader.read()) {
+				read.add(deal);
+			}
+		}
+		return read;
+	}
+}
@@ -3,30 +3,47 @@ package com.example.clusteredDataWarehouse;
 import com.example.clusteredDataWarehouse.dto.request.DealRequest;
 import com.example.clusteredDataWarehouse.entities.Deal;
 import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.ingest.DealFrameWriter;
+import com.example.clusteredDataWarehouse.ingest.DealFrames;
+import com.example.clusteredDataWarehouse.limit.AdaptiveConcurrencyLimiter;
 import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.service.DealQueryService;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Currency;
+import java.util.List;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 public class DealControllerTests {
 
     @Autowired
@@ -38,10 +55,27 @@ public class DealControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DealQueryService dealQueryService;
+
     private final Faker faker = new Faker();
 
     private final String submitDealUrl = "/api/v1/fx-deals/submit";
 
+    private final String submitBulkDealsUrl = "/api/v1/fx-deals/submit/bulk";
+
+    private final String submitDealFramesUrl = "/api/v1/fx-deals/submit/binary";
+
+    private final String dealsUrl = "/api/v1/fx-deals";
+
+    private final String rollupsUrl = "/api/v1/fx-deals/rollups";
+
     @Test
     public void whenSubmitDeal_WithBlankUniqueId_ShouldReturnExpectedError() throws Exception {
         DealRequest dealRequest = DealRequest.builder()
@@ -157,4 +191,331 @@ public class DealControllerTests {
         Assertions.assertNotEquals(null, dealSaved.getCreatedAt());
         Assertions.assertNotEquals(0, dealSaved.getId());
     }
+
+    @Test
+    public void whenSubmitBulkDeals_WithValidAndInvalidDeals_ShouldSaveValidDealsOnly() throws Exception {
+        String validCurrencyCode = Currency.getAvailableCurrencies()
+                .stream()
+                .findFirst()
+                .map(Currency::getCurrencyCode)
+                .orElse("NGN");
+
+        DealRequest validDeal = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency(validCurrencyCode)
+                .toCurrency(validCurrencyCode)
+                .amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+                .build();
+
+        DealRequest blankIdDeal = DealRequest.builder()
+                .uniqueId("")
+                .fromCurrency(validCurrencyCode)
+                .toCurrency(validCurrencyCode)
+                .amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+                .build();
+
+        long initialDealCount = dealRepository.count();
+
+        mockMvc.perform(post(submitBulkDealsUrl)
+                        .content(objectMapper.writeValueAsString(List.of(validDeal, blankIdDeal, validDeal)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("code").value(ResponseCodes.PARTIAL_SUCCESS.getValue()))
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("invalid").value(1))
+                .andExpect(jsonPath("duplicates").value(1))
+                .andExpect(jsonPath("results[1].messages[0]").value(Matchers.containsStringIgnoringCase("uniqueId")))
+                .andDo(MockMvcResultHandlers.print());
+
+        Assertions.assertEquals(initialDealCount + 1, dealRepository.count());
+    }
+
+    @Test
+    public void whenSubmitDealFrames_ShouldProcessEachFrameAndReportRejectionsByStreamPosition() throws Exception {
+        DealRequest firstDeal = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .amount(new BigDecimal("1250.75"))
+                .build();
+        DealRequest secondDeal = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("GBP")
+                .toCurrency("JPY")
+                .amount(new BigDecimal("-3.5"))
+                .build();
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        DealFrameWriter writer = new DealFrameWriter(frames);
+        writer.writeFrame(List.of(firstDeal));
+        writer.writeFrame(List.of(secondDeal, firstDeal));
+        writer.flush();
+
+        long initialDealCount = dealRepository.count();
+
+        mockMvc.perform(post(submitDealFramesUrl)
+                        .content(frames.toByteArray())
+                        .contentType(DealFrames.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("code").value(ResponseCodes.PARTIAL_SUCCESS.getValue()))
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("invalid").value(1))
+                .andExpect(jsonPath("duplicates").value(1))
+                .andExpect(jsonPath("results.length()").value(2))
+                .andExpect(jsonPath("results[0].index").value(1))
+                .andExpect(jsonPath("results[1].index").value(2))
+                .andExpect(jsonPath("results[1].uniqueId").value(firstDeal.getUniqueId()));
+
+        Assertions.assertEquals(initialDealCount + 1, dealRepository.count());
+        Assertions.assertEquals(0, new BigDecimal("1250.75").compareTo(
+                dealRepository.findByUniqueId(firstDeal.getUniqueId()).orElseThrow().getDealAmount()));
+    }
+
+    @Test
+    public void whenSubmitDealFrames_WithMalformedLaterFrame_ShouldReportStoredFramesAndWhereToResume() throws Exception {
+        DealRequest storedDeal = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .amount(BigDecimal.TEN)
+                .build();
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        DealFrameWriter writer = new DealFrameWriter(frames);
+        writer.writeFrame(List.of(storedDeal));
+        writer.flush();
+        frames.write(new byte[]{0, 0, 0, 40, 0, 0});
+
+        mockMvc.perform(post(submitDealFramesUrl)
+                        .content(frames.toByteArray())
+                        .contentType(DealFrames.MEDIA_TYPE))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("failedFrame").value(1))
+                .andExpect(jsonPath("failedAt").value(1))
+                .andExpect(jsonPath("error").value(MessageConstants.MALFORMED_DEAL_FRAME));
+
+        Assertions.assertTrue(dealRepository.findByUniqueId(storedDeal.getUniqueId()).isPresent());
+    }
+
+    @Test
+    public void whenSubmitDealFrames_WithTruncatedFrame_ShouldReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(post(submitDealFramesUrl)
+                        .content(new byte[]{'D', 'F', 1, 0, 0, 0, 40, 0, 0})
+                        .contentType(DealFrames.MEDIA_TYPE))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("messages[0]").value(MessageConstants.MALFORMED_DEAL_FRAME));
+    }
+
+    @Test
+    public void whenGetDeal_WithExistingUniqueId_ShouldReturnDeal() throws Exception {
+        Deal deal = dealRepository.save(Deal.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .dealAmount(BigDecimal.valueOf(1_500))
+                .build());
+
+        mockMvc.perform(get(dealsUrl + "/" + deal.getUniqueId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("uniqueId").value(deal.getUniqueId()))
+                .andExpect(jsonPath("fromCurrency").value("USD"))
+                .andExpect(jsonPath("toCurrency").value("EUR"))
+                .andExpect(jsonPath("createdAt").exists());
+
+        mockMvc.perform(get(dealsUrl + "/" + faker.lorem().characters(20)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void whenGetDeal_AfterSubmit_ShouldAnswerFromCacheWithStoredValuesUntilInvalidated() throws Exception {
+        DealRequest dealRequest = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+                .build();
+
+        mockMvc.perform(post(submitDealUrl)
+                        .content(objectMapper.writeValueAsString(dealRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        LocalDateTime storedCreatedAt = dealRepository.findCreatedAtByUniqueId(dealRequest.getUniqueId()).orElseThrow();
+
+        double hitsBefore = cacheGets("hit");
+        String cached = mockMvc.perform(get(dealsUrl + "/" + dealRequest.getUniqueId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("uniqueId").value(dealRequest.getUniqueId()))
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertEquals(hitsBefore + 1, cacheGets("hit"));
+        Assertions.assertEquals(storedCreatedAt,
+                LocalDateTime.parse(objectMapper.readTree(cached).get("createdAt").asText()));
+
+        String invalidated = dealQueryService.invalidateCachedDeals(storedCreatedAt.minusSeconds(1),
+                storedCreatedAt.plusSeconds(1), false).getBody().getMessage();
+        Assertions.assertTrue(invalidated.startsWith(MessageConstants.CACHE_INVALIDATED), invalidated);
+
+        double missesBefore = cacheGets("miss");
+        mockMvc.perform(get(dealsUrl + "/" + dealRequest.getUniqueId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("createdAt").exists());
+        Assertions.assertEquals(missesBefore + 1, cacheGets("miss"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(hasSample(scrape, "deals_cache_gets_total{", "result=\"hit\""));
+        Assertions.assertTrue(hasSample(scrape, "deals_cache_hit_ratio"));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("deals.cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    public void whenListDeals_ByCurrencyPair_ShouldPageThroughAllDealsWithCursor() throws Exception {
+        // a made-up pair keeps the listing isolated from deals saved by other tests
+        String fromCurrency = faker.letterify("???").toUpperCase();
+        String toCurrency = faker.letterify("???").toUpperCase();
+        List<Deal> deals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            deals.add(Deal.builder()
+                    .uniqueId(faker.lorem().characters(15))
+                    .fromCurrency(fromCurrency)
+                    .toCurrency(toCurrency)
+                    .dealAmount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+                    .build());
+        }
+        dealRepository.saveAll(deals);
+
+        List<String> listedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get(dealsUrl)
+                    .param("fromCurrency", fromCurrency)
+                    .param("toCurrency", toCurrency)
+                    .param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("deals").forEach(deal -> listedIds.add(deal.get("uniqueId").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        Assertions.assertEquals(deals.stream().map(Deal::getUniqueId).toList(), listedIds);
+    }
+
+    @Test
+    public void whenListDeals_WithMalformedCursor_ShouldReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(get(dealsUrl).param("cursor", "not-a-cursor"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("code").value(ResponseCodes.FAILURE.getValue()));
+    }
+
+    @Test
+    public void whenSubmitBulkDeals_ShouldUpdateRollupsIncrementallyAndMatchRebuild() throws Exception {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        JsonNode before = fetchHourRollup("XAU", "XAG", hour);
+
+        List<DealRequest> deals = new ArrayList<>();
+        for (int amount : new int[]{100, 250, 50}) {
+            deals.add(DealRequest.builder()
+                    .uniqueId(faker.lorem().characters(15))
+                    .fromCurrency("XAU")
+                    .toCurrency("XAG")
+                    .amount(BigDecimal.valueOf(amount))
+                    .build());
+        }
+        mockMvc.perform(post(submitBulkDealsUrl)
+                        .content(objectMapper.writeValueAsString(deals))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        JsonNode after = fetchHourRollup("XAU", "XAG", hour);
+        long countBefore = before == null ? 0 : before.get("count").asLong();
+        BigDecimal totalBefore = before == null ? BigDecimal.ZERO : before.get("totalAmount").decimalValue();
+        Assertions.assertNotNull(after);
+        Assertions.assertEquals(countBefore + 3, after.get("count").asLong());
+        Assertions.assertEquals(0, totalBefore.add(BigDecimal.valueOf(400)).compareTo(after.get("totalAmount").decimalValue()));
+
+        mockMvc.perform(post(rollupsUrl + "/rebuild")
+                        .param("from", hour.toString())
+                        .param("to", hour.plusHours(1).toString()))
+                .andExpect(status().isOk());
+
+        JsonNode rebuilt = fetchHourRollup("XAU", "XAG", hour);
+        Assertions.assertEquals(after, rebuilt);
+    }
+
+    private JsonNode fetchHourRollup(String fromCurrency, String toCurrency, LocalDateTime hour) throws Exception {
+        String body = mockMvc.perform(get(rollupsUrl)
+                        .param("fromCurrency", fromCurrency)
+                        .param("toCurrency", toCurrency)
+                        .param("from", hour.toString())
+                        .param("to", hour.plusHours(1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode rollups = objectMapper.readTree(body);
+        return rollups.isEmpty() ? null : rollups.get(0);
+    }
+
+    @Test
+    public void whenScrapingPrometheus_AfterSubmit_ShouldExposePhaseLatencies() throws Exception {
+        DealRequest dealRequest = DealRequest.builder()
+                .uniqueId(faker.lorem().characters(15))
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+                .build();
+
+        mockMvc.perform(post(submitDealUrl)
+                        .content(objectMapper.writeValueAsString(dealRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(hasSample(scrape, "deals_submit_latency_seconds{", "phase=\"persist\"", "quantile=\"0.99\""));
+        Assertions.assertTrue(hasSample(scrape, "deals_submit_latency_seconds_bucket{", "phase=\"dedup\""));
+        Assertions.assertTrue(hasSample(scrape, "deals_accepted_total{", "stage=\"persisted\""));
+    }
+
+    @Test
+    public void whenSubmitLimitIsReached_ShouldShedSubmitsWithRetryAfterAndExposeTheLimit() throws Exception {
+        int held = adaptiveConcurrencyLimiter.getLimit() - adaptiveConcurrencyLimiter.getInflight();
+        for (int i = 0; i < held; i++) {
+            adaptiveConcurrencyLimiter.acquire("client:holder");
+        }
+        try {
+            mockMvc.perform(post(submitDealUrl)
+                            .content("{\"uniqueId\":\"shed\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":10}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("messages[0]").value(MessageConstants.SUBMIT_OVERLOADED));
+        } finally {
+            for (int i = 0; i < held; i++) {
+                adaptiveConcurrencyLimiter.release("client:holder");
+            }
+        }
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(hasSample(scrape, "deals_limiter_limit{"));
+        Assertions.assertTrue(hasSample(scrape, "deals_rejected_total{", "reason=\"overloaded\""));
+    }
+
+    private boolean hasSample(String scrape, String metric, String... labels) {
+        return scrape.lines()
+                .filter(line -> line.startsWith(metric))
+                .anyMatch(line -> List.of(labels).stream().allMatch(line::contains));
+    }
 }
@@ -0,0 +1,229 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedItem;
+import com.example.clusteredDataWarehouse.dto.response.DealFeedResponse;
+import com.example.clusteredDataWarehouse.feed.DealFeedPublisher;
+import com.example.clusteredDataWarehouse.feed.DealFeedSink;
+import com.example.clusteredDataWarehouse.repository.DealOutboxRepository;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javafaker.Faker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class DealFeedTests {
+
+	private static final String FEED_URL = "/api/v1/fx-deals/feed";
+
+	private static final long WAIT_MS = 10_000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private DealFeedPublisher dealFeedPublisher;
+
+	@Autowired
+	private DealOutboxRepository dealOutboxRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CollectingSink collectingSink;
+
+	private final Faker faker = new Faker();
+
+	@TestConfiguration
+	static class SinkConfiguration {
+		@Bean
+		CollectingSink collectingSink() {
+			return new CollectingSink();
+		}
+	}
+
+	static class CollectingSink implements DealFeedSink {
+		private final List<DealFeedItem> delivered = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String name() {
+			return "test-collector";
+		}
+
+		@Override
+		public void deliver(List<DealFeedItem> deals) {
+			delivered.addAll(deals);
+		}
+	}
+
+	@Test
+	public void whenDealsAreSaved_ShouldFeedThemInOrderFromAResumableCursor() throws Exception {
+		dealFeedPublisher.publish();
+		long start = dealOutboxRepository.lastPosition();
+		List<DealRequest> dealRequests = List.of(composeDealRequest(), composeDealRequest(), composeDealRequest());
+		for (DealRequest dealRequest : dealRequests) {
+			submit(dealRequest);
+		}
+
+		// a long-poll answers as soon as anything is published, so the deals may come over several batches
+		List<DealFeedItem> fed = new ArrayList<>();
+		long position = start;
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (fed.size() < dealRequests.size() && System.currentTimeMillis() < deadline) {
+			DealFeedResponse batch = poll(position, 2, WAIT_MS);
+			Assertions.assertTrue(batch.getSize() <= 2);
+			fed.addAll(batch.getDeals());
+			position = batch.getLastPosition();
+		}
+
+		Assertions.assertEquals(dealRequests.stream().map(DealRequest::getUniqueId).collect(Collectors.toList()),
+				fed.stream().map(DealFeedItem::getUniqueId).collect(Collectors.toList()));
+		Assertions.assertEquals(List.of(start + 1, start + 2, start + 3),
+				fed.stream().map(DealFeedItem::getPosition).collect(Collectors.toList()));
+		Assertions.assertEquals(dealRequests.get(0).getAmount().setScale(2), fed.get(0).getAmount());
+		Assertions.assertEquals("USD", fed.get(0).getFromCurrency());
+		Assertions.assertEquals(start + 3, position);
+
+		DealFeedResponse empty = poll(position, 2, 100);
+		Assertions.assertEquals(0, empty.getSize());
+		Assertions.assertEquals(position, empty.getLastPosition());
+	}
+
+	@Test
+	public void whenStreamIsOpen_ShouldPushNewDealsAsEventsWithTheirPosition() throws Exception {
+		dealFeedPublisher.publish();
+		long start = dealOutboxRepository.lastPosition();
+		MvcResult stream = mockMvc.perform(get(FEED_URL + "/stream").param("after", Long.toString(start)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		DealRequest dealRequest = composeDealRequest();
+		submit(dealRequest);
+
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (!stream.getResponse().getContentAsString().contains(dealRequest.getUniqueId())
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		String events = stream.getResponse().getContentAsString();
+		Assertions.assertTrue(events.contains("event:deals"));
+		Assertions.assertTrue(events.contains("id:" + (start + 1)));
+		Assertions.assertTrue(events.contains(dealRequest.getUniqueId()));
+	}
+
+	@Test
+	public void whenSinkIsRegistered_ShouldDeliverEachNewDealOnceAndStoreItsCursor() throws Exception {
+		DealRequest dealRequest = composeDealRequest();
+		submit(dealRequest);
+
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (deliveredTimes(dealRequest.getUniqueId()) == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		Assertions.assertEquals(1, deliveredTimes(dealRequest.getUniqueId()));
+		long position = collectingSink.delivered.stream()
+				.filter(deal -> deal.getUniqueId().equals(dealRequest.getUniqueId()))
+				.findFirst()
+				.orElseThrow()
+				.getPosition();
+		Long cursor = jdbcTemplate.queryForObject("SELECT POSITION FROM DEAL_FEED_CURSORS WHERE SINK = ?", Long.class,
+				collectingSink.name());
+		Assertions.assertTrue(cursor >= position);
+
+		List<Long> positions = collectingSink.delivered.stream().map(DealFeedItem::getPosition).collect(Collectors.toList());
+		Assertions.assertEquals(positions.stream().sorted().distinct().collect(Collectors.toList()), positions);
+	}
+
+	@Test
+	public void whenPositionWasPurged_ShouldAnswerGoneAndRestartFromTheOldestChange() throws Exception {
+		submit(composeDealRequest());
+		submit(composeDealRequest());
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (dealOutboxRepository.lastPosition() < 2 && System.currentTimeMillis() < deadline) {
+			dealFeedPublisher.publish();
+			Thread.sleep(50);
+		}
+		while (dealFeedPublisher.purge(LocalDateTime.now().plusHours(1)) == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		long oldest = dealOutboxRepository.oldestPosition();
+		Assertions.assertTrue(oldest > 1);
+
+		mockMvc.perform(get(FEED_URL).param("after", "0"))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("messages[0]").value(MessageConstants.FEED_POSITION_EXPIRED));
+
+		DealFeedResponse restarted = poll(null, 10, 0);
+		Assertions.assertEquals(oldest, restarted.getDeals().get(0).getPosition());
+	}
+
+	@Test
+	public void whenFeedParametersAreInvalid_ShouldRejectThem() throws Exception {
+		mockMvc.perform(get(FEED_URL).param("after", "-1"))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(jsonPath("messages[0]").value(MessageConstants.INVALID_FEED_POSITION));
+
+		mockMvc.perform(get(FEED_URL).param("size", "1001"))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(jsonPath("messages[0]").value(MessageConstants.INVALID_PAGE_SIZE));
+	}
+
+	private long deliveredTimes(String uniqueId) {
+		return collectingSink.delivered.stream().filter(deal -> deal.getUniqueId().equals(uniqueId)).count();
+	}
+
+	private void submit(DealRequest dealRequest) throws Exception {
+		mockMvc.perform(post("/api/v1/fx-deals/submit")
+						.content(objectMapper.writeValueAsString(dealRequest))
+						.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+	}
+
+	private DealFeedResponse poll(Long after, int size, long waitMs) throws Exception {
+		var request = get(FEED_URL).param("size", Integer.toString(size)).param("waitMs", Long.toString(waitMs));
+		if (after != null) {
+			request.param("after", Long.toString(after));
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(body, DealFeedResponse.class);
+	}
+
+	private DealRequest composeDealRequest() {
+		return DealRequest.builder()
+				.uniqueId(faker.lorem().characters(15))
+				.fromCurrency("USD")
+				.toCurrency("EUR")
+				.amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+				.build();
+	}
+}
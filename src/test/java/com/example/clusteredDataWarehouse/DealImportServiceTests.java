@@ -0,0 +1,172 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.dto.response.ImportProgress;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.ImportState;
+import com.example.clusteredDataWarehouse.repository.DealImportCheckpointRepository;
+import com.example.clusteredDataWarehouse.service.DealImportService;
+import com.example.clusteredDataWarehouse.service.DealService;
+import com.example.clusteredDataWarehouse.service.impl.DealImportServiceImpl;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class DealImportServiceTests {
+
+	@TempDir
+	Path importDirectory;
+
+	private final DealService dealService = Mockito.mock(DealService.class);
+	private final DealImportCheckpointRepository checkpointRepository = Mockito.mock(DealImportCheckpointRepository.class);
+	private final AtomicBoolean inTransaction = new AtomicBoolean();
+	private final DealProperties dealProperties = new DealProperties();
+	private DealImportService dealImportService;
+
+	@Captor
+	private ArgumentCaptor<List<DealRequest>> chunkCaptor;
+
+	@BeforeEach
+	public void setUp() {
+		MockitoAnnotations.openMocks(this);
+		dealProperties.getFileImport().setDirectory(importDirectory.toString());
+		dealProperties.getFileImport().setChunkSize(2);
+		TransactionOperations transactionOperations = new TransactionOperations() {
+			@Override
+			public <T> T execute(TransactionCallback<T> action) {
+				inTransaction.set(true);
+				try {
+					return action.doInTransaction(null);
+				} finally {
+					inTransaction.set(false);
+				}
+			}
+		};
+		dealImportService = new DealImportServiceImpl(dealService, dealProperties, new ObjectMapper(),
+				checkpointRepository, transactionOperations);
+		Mockito.when(checkpointRepository.find(Mockito.anyString(), Mockito.anyString())).thenReturn(Optional.empty());
+
+		Mockito.doAnswer(invocation -> {
+			List<DealRequest> chunk = invocation.getArgument(0);
+			List<DealItemResult> results = new ArrayList<>();
+			for (int i = 0; i < chunk.size(); i++) {
+				boolean duplicate = chunk.get(i).getUniqueId().startsWith("dup");
+				results.add(DealItemResult.builder()
+						.index(i)
+						.uniqueId(chunk.get(i).getUniqueId())
+						.status(duplicate ? DealItemStatus.DUPLICATE : DealItemStatus.ACCEPTED)
+						.messages(duplicate ? List.of(MessageConstants.NON_UNIQUE_ID) : null)
+						.build());
+			}
+			return results;
+		}).when(dealService).processBatch(Mockito.anyList());
+	}
+
+	@Test
+	public void whenImportCsvFile_ShouldCommitInChunksAndWriteRejectedReport() throws Exception {
+		Path file = importDirectory.resolve("deals.csv");
+		Files.write(file, List.of(
+				"uniqueId,fromCurrency,toCurrency,amount",
+				"deal-1,USD,EUR,100.50",
+				"deal-2,USD,GBP,not-a-number",
+				"dup-3,EUR,USD,10",
+				"deal-4,NGN,USD,25"
+		));
+
+		ImportProgress progress = dealImportService.importFile(file);
+
+		Mockito.verify(dealService, Mockito.times(2)).processBatch(chunkCaptor.capture());
+
+		Assertions.assertEquals(ImportState.COMPLETED, progress.getState());
+		Assertions.assertEquals(2, progress.getAccepted());
+		Assertions.assertEquals(1, progress.getDuplicates());
+		Assertions.assertEquals(1, progress.getInvalid());
+		Assertions.assertEquals("deal-1", chunkCaptor.getAllValues().get(0).get(0).getUniqueId());
+		Assertions.assertTrue(Files.exists(importDirectory.resolve("deals.csv.done")));
+
+		List<String> rejected = Files.readAllLines(importDirectory.resolve("deals.csv.rejected"));
+		Assertions.assertEquals(3, rejected.size());
+		Assertions.assertTrue(rejected.get(1).startsWith("3,,INVALID,"));
+		Assertions.assertTrue(rejected.get(2).startsWith("4,dup-3,DUPLICATE,"));
+	}
+
+	@Test
+	public void whenImportCsvFile_WithQuotedFields_ShouldReadThemAndRejectBrokenQuoting() throws Exception {
+		Path file = importDirectory.resolve("quoted.csv");
+		Files.write(file, List.of(
+				"uniqueId,fromCurrency,toCurrency,amount",
+				"\"deal, \"\"one\"\"\",USD,EUR,\"1\"",
+				"\"deal-2,USD,EUR,2",
+				"deal\"3,USD,EUR,3"
+		));
+
+		ImportProgress progress = dealImportService.importFile(file);
+
+		Mockito.verify(dealService).processBatch(chunkCaptor.capture());
+		Assertions.assertEquals("deal, \"one\"", chunkCaptor.getValue().get(0).getUniqueId());
+		Assertions.assertEquals(1, progress.getAccepted());
+		Assertions.assertEquals(2, progress.getInvalid());
+		List<String> rejected = Files.readAllLines(importDirectory.resolve("quoted.csv.rejected"));
+		Assertions.assertTrue(rejected.get(1).contains("quoted field is not closed"), rejected.get(1));
+		Assertions.assertTrue(rejected.get(2).contains("quote inside the unquoted field"), rejected.get(2));
+	}
+
+	@Test
+	public void whenChunkIsCommitted_ShouldSaveItsCheckpointInTheSameTransaction() throws Exception {
+		Path file = importDirectory.resolve("deals.ndjson");
+		Files.write(file, List.of(
+				"{\"uniqueId\":\"deal-1\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1}",
+				"{\"uniqueId\":\"deal-2\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":2}",
+				"{\"uniqueId\":\"deal-3\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":3}"
+		));
+		List<Long> savedLines = new ArrayList<>();
+		Mockito.doAnswer(invocation -> {
+			Assertions.assertTrue(inTransaction.get());
+			savedLines.add(invocation.<DealImportCheckpointRepository.Checkpoint>getArgument(2).getCommittedLines());
+			return null;
+		}).when(checkpointRepository).save(Mockito.anyString(), Mockito.eq("deals.ndjson"), Mockito.any());
+
+		ImportProgress progress = dealImportService.importFile(file);
+
+		Assertions.assertEquals(ImportState.COMPLETED, progress.getState());
+		Assertions.assertEquals(List.of(2L, 3L), savedLines);
+		Mockito.verify(checkpointRepository).delete(Mockito.anyString(), Mockito.eq("deals.ndjson"));
+	}
+
+	@Test
+	public void whenImportNdjsonFile_WithSavedCheckpoint_ShouldResumeAfterCommittedLines() throws Exception {
+		Path file = importDirectory.resolve("deals.ndjson");
+		Files.write(file, List.of(
+				"{\"uniqueId\":\"deal-1\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1}",
+				"{\"uniqueId\":\"deal-2\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":2}",
+				"{\"uniqueId\":\"deal-3\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":3}"
+		));
+		Files.writeString(importDirectory.resolve("deals.ndjson.rejected"), "line,uniqueId,status,messages\n");
+		Mockito.when(checkpointRepository.find(Mockito.anyString(), Mockito.eq("deals.ndjson")))
+				.thenReturn(Optional.of(new DealImportCheckpointRepository.Checkpoint(2, 30, 2, 0, 0, 0)));
+
+		ImportProgress progress = dealImportService.importFile(file);
+
+		Mockito.verify(dealService, Mockito.times(1)).processBatch(chunkCaptor.capture());
+		Assertions.assertEquals("deal-3", chunkCaptor.getValue().get(0).getUniqueId());
+		Assertions.assertEquals(3, progress.getAccepted());
+	}
+}
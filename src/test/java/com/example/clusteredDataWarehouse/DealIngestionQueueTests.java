@@ -0,0 +1,199 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.entities.DealUniqueId;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.PersistenceState;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.exception.QueueFullException;
+import com.example.clusteredDataWarehouse.ingest.DealIngestionQueue;
+import com.example.clusteredDataWarehouse.ingest.DealWriteBehindWriter;
+import com.example.clusteredDataWarehouse.service.DealService;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class DealIngestionQueueTests {
+
+	@TempDir
+	Path journalDirectory;
+
+	private final DealProperties dealProperties = new DealProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DealMetrics dealMetrics = new DealMetrics(meterRegistry);
+
+	@BeforeEach
+	public void setUp() {
+		dealProperties.getIngest().setJournalDirectory(journalDirectory.toString());
+		dealProperties.getIngest().setQueueCapacity(2);
+	}
+
+	@Test
+	public void whenQueueIsFull_ShouldRejectWithRetryAfter() {
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		queue.enqueue(composeDealRequest("deal-1"));
+		queue.enqueue(composeDealRequest("deal-2"));
+
+		QueueFullException expectedException = Assertions.assertThrows(
+				QueueFullException.class,
+				() -> queue.enqueue(composeDealRequest("deal-3"))
+		);
+
+		Assertions.assertEquals(1, expectedException.getRetryAfterSeconds());
+		queue.close();
+	}
+
+	@Test
+	public void whenSameUniqueIdIsQueuedTwice_ShouldThrowDuplicateException() {
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		queue.enqueue(composeDealRequest("deal-1"));
+
+		Assertions.assertThrows(DuplicateException.class, () -> queue.enqueue(composeDealRequest("deal-1")));
+		Assertions.assertEquals(PersistenceState.QUEUED, queue.statusOf("deal-1"));
+		queue.close();
+	}
+
+	@Test
+	public void whenQueueRestarts_ShouldRecoverJournaledDealsUntilDrained() throws Exception {
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		queue.enqueue(composeDealRequest("deal-1"));
+		queue.enqueue(composeDealRequest("deal-2"));
+		queue.close();
+
+		DealIngestionQueue restarted = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		List<DealRequest> recovered = restarted.recoverJournal();
+
+		Assertions.assertEquals(2, recovered.size());
+		Assertions.assertEquals("deal-1", recovered.get(0).getUniqueId());
+		Assertions.assertEquals(0, recovered.get(1).getAmount().compareTo(BigDecimal.TEN));
+
+		restarted.releaseJournal();
+		Assertions.assertTrue(restarted.recoverJournal().isEmpty());
+		restarted.close();
+	}
+
+	@Test
+	public void whenQueueIsNeverEmpty_ShouldStillDropPersistedJournalSegments() throws Exception {
+		dealProperties.getIngest().setJournalSegmentBytes(1_024);
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		queue.enqueue(composeDealRequest("deal-0"));
+		for (int i = 1; i < 200; i++) {
+			queue.enqueue(composeDealRequest("deal-" + i));
+			for (DealRequest dealRequest : queue.drain(1, 0)) {
+				queue.complete(dealRequest.getUniqueId(), PersistenceState.PERSISTED);
+			}
+			queue.releaseJournal();
+		}
+		queue.close();
+
+		try (Stream<Path> files = Files.list(journalDirectory)) {
+			Assertions.assertTrue(files.count() <= 3);
+		}
+		DealIngestionQueue restarted = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		List<DealRequest> recovered = restarted.recoverJournal();
+		Assertions.assertEquals(List.of("deal-199"), recovered.stream().map(DealRequest::getUniqueId).toList());
+
+		restarted.enqueue(composeDealRequest("deal-200"));
+		Assertions.assertEquals("deal-200", restarted.drain(1, 0).get(0).getUniqueId());
+		restarted.releaseJournal();
+		restarted.close();
+		DealIngestionQueue again = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		Assertions.assertTrue(again.recoverJournal().isEmpty());
+		again.close();
+	}
+
+	@Test
+	public void whenABatchHoldsADealThatCannotBeStored_ShouldRejectOnlyThatDealAndKeepWriting() throws Exception {
+		dealProperties.getIngest().setQueueCapacity(10);
+		DealService dealService = Mockito.mock(DealService.class);
+		List<String> stored = new ArrayList<>();
+		Mockito.when(dealService.processBatch(Mockito.anyList())).thenAnswer(invocation -> {
+			List<DealRequest> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(dealRequest -> dealRequest.getUniqueId().equals("poison"))) {
+				throw new IllegalStateException("value too long for type character varying(255)");
+			}
+			List<DealItemResult> results = new ArrayList<>();
+			for (DealRequest dealRequest : batch) {
+				stored.add(dealRequest.getUniqueId());
+				results.add(DealItemResult.builder().uniqueId(dealRequest.getUniqueId()).status(DealItemStatus.ACCEPTED).build());
+			}
+			return results;
+		});
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		List.of("deal-1", "deal-2", "poison", "deal-3", "deal-4").forEach(uniqueId -> queue.enqueue(composeDealRequest(uniqueId)));
+
+		DealWriteBehindWriter writer = new DealWriteBehindWriter(queue, dealService, dealProperties, dealMetrics);
+		writer.start();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (queue.statusOf("poison") == PersistenceState.QUEUED && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		writer.stop();
+		queue.close();
+
+		Assertions.assertEquals(PersistenceState.REJECTED, queue.statusOf("poison"));
+		Assertions.assertEquals(List.of("deal-1", "deal-2", "deal-3", "deal-4"), stored);
+		Assertions.assertNull(queue.statusOf("deal-4"));
+	}
+
+	@Test
+	public void whenADealLosesTheRaceForItsUniqueId_ShouldReportItAsADuplicate() throws Exception {
+		dealProperties.getIngest().setQueueCapacity(10);
+		DealService dealService = Mockito.mock(DealService.class);
+		List<String> stored = new ArrayList<>();
+		Mockito.when(dealService.processBatch(Mockito.anyList())).thenAnswer(invocation -> {
+			List<DealRequest> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(dealRequest -> dealRequest.getUniqueId().equals("raced"))) {
+				throw new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+						"duplicate key", new SQLException("duplicate key", "23505"), DealUniqueId.UNIQUE_ID_CONSTRAINT));
+			}
+			List<DealItemResult> results = new ArrayList<>();
+			for (DealRequest dealRequest : batch) {
+				stored.add(dealRequest.getUniqueId());
+				results.add(DealItemResult.builder().uniqueId(dealRequest.getUniqueId()).status(DealItemStatus.ACCEPTED).build());
+			}
+			return results;
+		});
+		DealIngestionQueue queue = new DealIngestionQueue(dealProperties, new ObjectMapper());
+		List.of("deal-1", "raced", "deal-2").forEach(uniqueId -> queue.enqueue(composeDealRequest(uniqueId)));
+
+		DealWriteBehindWriter writer = new DealWriteBehindWriter(queue, dealService, dealProperties, dealMetrics);
+		writer.start();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (queue.statusOf("raced") == PersistenceState.QUEUED && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		writer.stop();
+		queue.close();
+
+		Assertions.assertEquals(PersistenceState.DUPLICATE, queue.statusOf("raced"));
+		Assertions.assertEquals(List.of("deal-1", "deal-2"), stored);
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.rejected").tag("reason", "duplicate").counter().count());
+	}
+
+	private DealRequest composeDealRequest(String uniqueId) {
+		return DealRequest.builder()
+				.uniqueId(uniqueId)
+				.fromCurrency("USD")
+				.toCurrency("EUR")
+				.amount(BigDecimal.TEN)
+				.build();
+	}
+}
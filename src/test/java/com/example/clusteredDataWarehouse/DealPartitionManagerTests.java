@@ -0,0 +1,105 @@
+package com.example.clusteredDataWarehouse;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.clusteredDataWarehouse.storage.DealPartitionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest
+public class DealPartitionManagerTests {
+
+	private static final YearMonth FAR_MONTH = YearMonth.of(2099, 1);
+
+	@Autowired
+	private DealPartitionManager dealPartitionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	public void dropFarPartitions() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DealPartitionManager.partitionName(FAR_MONTH));
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DealPartitionManager.partitionName(FAR_MONTH.plusMonths(1)));
+	}
+
+	@Test
+	public void whenApplicationStarts_ShouldHaveCurrentAndUpcomingPartitions() {
+		List<String> attached = dealPartitionManager.attachedPartitions();
+
+		Assertions.assertTrue(attached.contains(DealPartitionManager.partitionName(YearMonth.now())));
+		Assertions.assertTrue(attached.contains(DealPartitionManager.partitionName(YearMonth.now().plusMonths(1))));
+	}
+
+	@Test
+	public void whenQueryingOneMonth_ShouldOnlyScanThatMonthsPartition() {
+		dealPartitionManager.createPartitions(FAR_MONTH, 2);
+
+		String plan = String.join("\n", jdbcTemplate.queryForList(
+				"EXPLAIN SELECT * FROM DEALS WHERE DATE_INSERTED >= '2099-01-05' AND DATE_INSERTED < '2099-01-20'",
+				String.class));
+
+		Assertions.assertTrue(plan.contains(DealPartitionManager.partitionName(FAR_MONTH)), plan);
+		Assertions.assertFalse(plan.contains(DealPartitionManager.partitionName(FAR_MONTH.plusMonths(1))), plan);
+		Assertions.assertFalse(plan.contains("deals_default"), plan);
+	}
+
+	@Test
+	public void whenAnotherNodeIsMaintainingThePartitions_ShouldSkipTheRun() throws Exception {
+		Logger logger = (Logger) LoggerFactory.getLogger(DealPartitionManager.class);
+		ListAppender<ILoggingEvent> appender = new ListAppender<>();
+		appender.start();
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// the other node's run, whose lock lasts until its transaction ends
+		CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			dealPartitionManager.maintain();
+			locked.countDown();
+			try {
+				release.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		try {
+			Assertions.assertTrue(locked.await(30, TimeUnit.SECONDS));
+			logger.addAppender(appender);
+
+			Assertions.assertTrue(dealPartitionManager.maintain().isEmpty());
+
+			Assertions.assertTrue(appender.list.stream().anyMatch(event -> event.getFormattedMessage().contains("skipped")));
+		} finally {
+			logger.detachAppender(appender);
+			release.countDown();
+			otherNode.get(30, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void whenDetachingPartition_ShouldKeepItAsStandaloneTable() {
+		dealPartitionManager.createPartitions(FAR_MONTH, 1);
+
+		dealPartitionManager.detach(FAR_MONTH);
+
+		Assertions.assertFalse(dealPartitionManager.attachedPartitions().contains(DealPartitionManager.partitionName(FAR_MONTH)));
+		Integer tables = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM pg_class WHERE relname = ?", Integer.class, DealPartitionManager.partitionName(FAR_MONTH));
+		Assertions.assertEquals(1, tables);
+	}
+}
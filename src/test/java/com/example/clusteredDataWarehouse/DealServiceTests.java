@@ -1,23 +1,67 @@
 package com.example.clusteredDataWarehouse;
 
+import com.example.clusteredDataWarehouse.cluster.DealRouter;
+import com.example.clusteredDataWarehouse.config.DealProperties;
 import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.dto.response.BulkDealResponse;
+import com.example.clusteredDataWarehouse.dto.response.DealItemResult;
+import com.example.clusteredDataWarehouse.enums.DealItemStatus;
+import com.example.clusteredDataWarehouse.enums.IngestMode;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
 import com.example.clusteredDataWarehouse.exception.DuplicateException;
 import com.example.clusteredDataWarehouse.exception.ValidationException;
 import com.example.clusteredDataWarehouse.entities.Deal;
+import com.example.clusteredDataWarehouse.ingest.DealIngestionQueue;
 import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.service.DealRollupService;
 import com.example.clusteredDataWarehouse.service.DealService;
 import com.example.clusteredDataWarehouse.service.impl.DealServiceImpl;
 import com.example.clusteredDataWarehouse.util.CurrencyValidator;
+import com.example.clusteredDataWarehouse.util.DealCache;
+import com.example.clusteredDataWarehouse.util.DealMetrics;
+import com.example.clusteredDataWarehouse.util.DealRequestValidator;
+import com.example.clusteredDataWarehouse.util.IdempotencyCache;
 import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.example.clusteredDataWarehouse.util.UniqueIdIndex;
+import com.example.clusteredDataWarehouse.validation.AmountScaleRule;
+import com.example.clusteredDataWarehouse.validation.FromCurrencyRule;
+import com.example.clusteredDataWarehouse.validation.MaxNotionalRule;
+import com.example.clusteredDataWarehouse.validation.PositiveAmountRule;
+import com.example.clusteredDataWarehouse.validation.SameCurrencyPairRule;
+import com.example.clusteredDataWarehouse.validation.ToCurrencyRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.match.MockRestRequestMatchers;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @SpringBootTest
 class DealServiceTests {
@@ -25,7 +69,39 @@ class DealServiceTests {
 	private final Faker faker = new Faker();
 	private final DealRepository dealRepository = Mockito.mock(DealRepository.class);
 	private final CurrencyValidator currencyValidator = Mockito.mock(CurrencyValidator.class);
-	private final DealService dealService = new DealServiceImpl(dealRepository, currencyValidator);
+	private final UniqueIdIndex uniqueIdIndex = Mockito.mock(UniqueIdIndex.class);
+	private final DealIngestionQueue dealIngestionQueue = Mockito.mock(DealIngestionQueue.class);
+	private final DealRollupService dealRollupService = Mockito.mock(DealRollupService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DealProperties dealProperties = new DealProperties();
+	private final DealRouter dealRouter = new DealRouter(
+			dealProperties, new RestTemplateBuilder(), new ObjectMapper(), new DealMetrics(meterRegistry));
+	private final DealService dealService = new DealServiceImpl(
+			dealRepository,
+			composeDealRequestValidator(),
+			dealProperties,
+			uniqueIdIndex,
+			dealIngestionQueue,
+			dealRollupService,
+			new DealMetrics(meterRegistry),
+			new IdempotencyCache(dealProperties),
+			dealRouter,
+			new DealCache(dealProperties),
+			TransactionOperations.withoutTransaction()
+	);
+	private final AtomicLong clock = new AtomicLong();
+
+	@Captor
+	private ArgumentCaptor<List<Deal>> dealsCaptor;
+
+	@BeforeEach
+	public void setUp() {
+		MockitoAnnotations.openMocks(this);
+		Mockito.doReturn(true)
+				.when(uniqueIdIndex).mightContain(Mockito.anyString());
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+	}
 
 	@Test
 	public void whenSubmitDeal_WithDuplicateUniqueId_ShouldThrowDuplicateException() {
@@ -40,6 +116,26 @@ class DealServiceTests {
 		);
 
 		Assertions.assertEquals(MessageConstants.NON_UNIQUE_ID, expectedException.getMessage());
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.rejected").tag("reason", "duplicate").counter().count());
+		Assertions.assertEquals(1, meterRegistry.get("deals.submit.latency").tag("phase", "dedup").timer().count());
+		Assertions.assertEquals(0, meterRegistry.get("deals.submit.latency").tag("phase", "persist").timer().count());
+	}
+
+	@Test
+	public void whenSubmitDeal_WithUniqueIdNotInIndex_ShouldSkipDatabaseLookup() {
+		Mockito.doReturn(false)
+				.when(uniqueIdIndex).mightContain(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		DealRequest dealRequest = composeDealRequest();
+
+		dealService.submitRequest(dealRequest);
+
+		Mockito.verify(dealRepository, Mockito.never()).existsByUniqueId(Mockito.anyString());
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
+		Mockito.verify(uniqueIdIndex, Mockito.times(1)).add(dealRequest.getUniqueId());
 	}
 
 	@Test
@@ -107,13 +203,13 @@ class DealServiceTests {
 		ArgumentCaptor<Deal> dealCaptor = ArgumentCaptor.forClass(Deal.class);
 
 		Mockito.doReturn(new Deal())
-				.when(dealRepository).save(dealCaptor.capture());
+				.when(dealRepository).saveAndFlush(dealCaptor.capture());
 
 		DealRequest dealRequest = composeDealRequest();
 
 		dealService.submitRequest(dealRequest);
 
-		Mockito.verify(dealRepository, Mockito.times(1)).save(Mockito.any(Deal.class));
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
 
 		Deal dealSaved = dealCaptor.getValue();
 
@@ -123,6 +219,349 @@ class DealServiceTests {
 		Assertions.assertEquals(0, dealRequest.getAmount().compareTo(dealSaved.getDealAmount()));
 	}
 
+	@Test
+	public void whenSubmitDeal_AndTheRollupIncrementFails_ShouldFailTheSubmit() {
+		Mockito.doReturn(false)
+				.when(dealRepository).existsByUniqueId(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		Mockito.doThrow(new QueryTimeoutException("rollup row locked"))
+				.when(dealRollupService).record(Mockito.anyCollection());
+
+		DealRequest dealRequest = composeDealRequest();
+
+		Assertions.assertThrows(QueryTimeoutException.class, () -> dealService.submitRequest(dealRequest));
+
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
+		Mockito.verify(uniqueIdIndex, Mockito.never()).add(Mockito.anyString());
+	}
+
+	@Test
+	public void whenSubmitDeal_InAsyncMode_ShouldEnqueueInsteadOfSaving() {
+		dealProperties.getIngest().setMode(IngestMode.ASYNC);
+
+		Mockito.doReturn(false)
+				.when(dealRepository).existsByUniqueId(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		DealRequest dealRequest = composeDealRequest();
+
+		ResponseEntity<?> response = dealService.submitRequest(dealRequest);
+
+		Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+		Mockito.verify(dealIngestionQueue, Mockito.times(1)).enqueue(dealRequest);
+		Mockito.verify(dealRepository, Mockito.never()).saveAndFlush(Mockito.any(Deal.class));
+	}
+
+	@Test
+	public void whenSubmitDeal_RetriedWithSamePayload_ShouldReplayResponseWithoutDatabase() {
+		DealService idempotentDealService = composeIdempotentDealService();
+
+		Mockito.doReturn(false)
+				.when(dealRepository).existsByUniqueId(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		DealRequest dealRequest = composeDealRequest();
+		DealRequest retry = DealRequest.builder()
+				.uniqueId(dealRequest.getUniqueId())
+				.fromCurrency(dealRequest.getFromCurrency())
+				.toCurrency(dealRequest.getToCurrency())
+				.amount(dealRequest.getAmount().setScale(4))
+				.build();
+
+		ResponseEntity<?> first = idempotentDealService.submitRequest(dealRequest);
+		ResponseEntity<?> replayed = idempotentDealService.submitRequest(retry);
+
+		Assertions.assertEquals(HttpStatus.OK, replayed.getStatusCode());
+		Assertions.assertEquals(first.getBody(), replayed.getBody());
+		Assertions.assertEquals("true", replayed.getHeaders().getFirst(MessageConstants.IDEMPOTENT_REPLAY_HEADER));
+		Mockito.verify(dealRepository, Mockito.times(1)).existsByUniqueId(Mockito.anyString());
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
+		Assertions.assertEquals(1.0, meterRegistry.get("deals.replayed").counter().count());
+	}
+
+	@Test
+	public void whenSubmitDeal_RetriedWithDifferentPayload_ShouldThrowDuplicateException() {
+		DealService idempotentDealService = composeIdempotentDealService();
+
+		Mockito.doReturn(false)
+				.when(dealRepository).existsByUniqueId(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		DealRequest dealRequest = composeDealRequest();
+		idempotentDealService.submitRequest(dealRequest);
+
+		DealRequest conflicting = composeDealRequest();
+		conflicting.setUniqueId(dealRequest.getUniqueId());
+
+		Throwable expectedException = Assertions.assertThrows(
+				DuplicateException.class,
+				() -> idempotentDealService.submitRequest(conflicting)
+		);
+
+		Assertions.assertEquals(MessageConstants.NON_UNIQUE_ID, expectedException.getMessage());
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
+	}
+
+	@Test
+	public void whenSubmitDeal_RetriedAfterCacheExpiry_ShouldReplayFromStoredDeal() {
+		DealService idempotentDealService = composeIdempotentDealService();
+
+		Mockito.doReturn(false)
+				.when(dealRepository).existsByUniqueId(Mockito.anyString());
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		DealRequest dealRequest = composeDealRequest();
+		idempotentDealService.submitRequest(dealRequest);
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(dealProperties.getIdempotency().getTtlSeconds()));
+
+		Mockito.doReturn(true)
+				.when(dealRepository).existsByUniqueId(dealRequest.getUniqueId());
+		Mockito.doReturn(Optional.of(Deal.builder()
+						.uniqueId(dealRequest.getUniqueId())
+						.fromCurrency(dealRequest.getFromCurrency())
+						.toCurrency(dealRequest.getToCurrency())
+						.dealAmount(dealRequest.getAmount())
+						.build()))
+				.when(dealRepository).findByUniqueId(dealRequest.getUniqueId());
+
+		ResponseEntity<?> replayed = idempotentDealService.submitRequest(dealRequest);
+
+		Assertions.assertEquals(HttpStatus.OK, replayed.getStatusCode());
+		Assertions.assertEquals("true", replayed.getHeaders().getFirst(MessageConstants.IDEMPOTENT_REPLAY_HEADER));
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAndFlush(Mockito.any(Deal.class));
+	}
+
+	@Test
+	public void whenSubmitBulkDeals_WithMixedDeals_ShouldReportEachItemAndSaveAcceptedOnly() {
+		DealRequest validDeal = composeDealRequest();
+		DealRequest existingDeal = composeDealRequest();
+		DealRequest invalidDeal = composeDealRequestWithLessThanOrEqualZeroAmount();
+		DealRequest repeatedDeal = DealRequest.builder()
+				.uniqueId(validDeal.getUniqueId())
+				.fromCurrency(validDeal.getFromCurrency())
+				.toCurrency(validDeal.getToCurrency())
+				.amount(validDeal.getAmount())
+				.build();
+
+		Mockito.doReturn(true)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		Mockito.doReturn(Collections.singleton(existingDeal.getUniqueId()))
+				.when(dealRepository).findExistingUniqueIds(Mockito.anyCollection());
+
+
+		BulkDealResponse response = dealService.submitBulkRequest(
+				List.of(validDeal, existingDeal, invalidDeal, repeatedDeal)
+		).getBody();
+
+		Mockito.verify(dealRepository, Mockito.times(1)).saveAllInBatches(dealsCaptor.capture());
+
+		Assertions.assertNotNull(response);
+		Assertions.assertEquals(ResponseCodes.PARTIAL_SUCCESS.getValue(), response.getCode());
+		Assertions.assertEquals(1, response.getAccepted());
+		Assertions.assertEquals(2, response.getDuplicates());
+		Assertions.assertEquals(1, response.getInvalid());
+		Assertions.assertEquals(DealItemStatus.ACCEPTED, response.getResults().get(0).getStatus());
+		Assertions.assertEquals(DealItemStatus.DUPLICATE, response.getResults().get(1).getStatus());
+		Assertions.assertEquals(DealItemStatus.INVALID, response.getResults().get(2).getStatus());
+		Assertions.assertEquals(MessageConstants.INVALID_DEAL_AMOUNT, response.getResults().get(2).getMessages().get(0));
+		Assertions.assertEquals(DealItemStatus.DUPLICATE, response.getResults().get(3).getStatus());
+		Assertions.assertEquals(1, dealsCaptor.getValue().size());
+		Assertions.assertEquals(validDeal.getUniqueId(), dealsCaptor.getValue().get(0).getUniqueId());
+		Mockito.verify(dealRollupService, Mockito.times(1)).record(dealsCaptor.getValue());
+	}
+
+	@Test
+	public void whenSubmitDeal_BreakingSeveralRules_ShouldReportAllOfThemWithoutDatabaseLookup() {
+		DealRequest dealRequest = composeDealRequestWithLessThanOrEqualZeroAmount();
+
+		Mockito.doReturn(false)
+				.when(currencyValidator).isValidCurrencyCode(Mockito.anyString());
+
+		ValidationException expectedException = Assertions.assertThrows(
+				ValidationException.class,
+				() -> dealService.submitRequest(dealRequest)
+		);
+
+		Assertions.assertEquals(
+				List.of(MessageConstants.INVALID_DEAL_AMOUNT, MessageConstants.INVALID_FROM_CURRENCY_CODE),
+				expectedException.getMessages());
+		Mockito.verify(dealRepository, Mockito.never()).existsByUniqueId(Mockito.anyString());
+	}
+
+	@Test
+	public void whenOptionalRulesAreConfigured_ShouldRejectDealsBreakingThem() {
+		dealProperties.getValidation().setMaxAmountScale(2);
+		dealProperties.getValidation().setMaxNotional(BigDecimal.valueOf(1_000_000));
+		DealRequestValidator dealRequestValidator = new DealRequestValidator(
+				List.of(new AmountScaleRule(dealProperties), new MaxNotionalRule(dealProperties), new SameCurrencyPairRule()),
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				dealProperties,
+				new DealMetrics(meterRegistry));
+		DealRequest dealRequest = DealRequest.builder()
+				.uniqueId(faker.lorem().characters(15))
+				.fromCurrency("USD")
+				.toCurrency("USD")
+				.amount(new BigDecimal("1000000.001"))
+				.build();
+
+		Assertions.assertEquals(
+				List.of(MessageConstants.AMOUNT_SCALE_TOO_LARGE, MessageConstants.AMOUNT_ABOVE_MAX_NOTIONAL,
+						MessageConstants.SAME_CURRENCY_PAIR),
+				dealRequestValidator.findBusinessViolations(dealRequest));
+
+		dealRequest.setToCurrency("EUR");
+		dealRequest.setAmount(new BigDecimal("999999.9900"));
+		Assertions.assertTrue(dealRequestValidator.findBusinessViolations(dealRequest).isEmpty());
+	}
+
+	@Test
+	public void whenSubmitBulkDeals_AboveParallelThreshold_ShouldKeepResultsInItemOrder() {
+		dealProperties.getValidation().setParallelThreshold(2);
+		List<DealRequest> dealRequests = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			dealRequests.add(i % 3 == 0 ? composeDealRequestWithLessThanOrEqualZeroAmount() : composeDealRequest());
+		}
+
+		Mockito.doReturn(Collections.emptySet())
+				.when(dealRepository).findExistingUniqueIds(Mockito.anyCollection());
+
+		BulkDealResponse response = dealService.submitBulkRequest(dealRequests).getBody();
+
+		Assertions.assertNotNull(response);
+		Assertions.assertEquals(167, response.getInvalid());
+		for (int i = 0; i < dealRequests.size(); i++) {
+			Assertions.assertEquals(dealRequests.get(i).getUniqueId(), response.getResults().get(i).getUniqueId());
+			Assertions.assertEquals(i % 3 == 0 ? DealItemStatus.INVALID : DealItemStatus.ACCEPTED,
+					response.getResults().get(i).getStatus());
+		}
+		Mockito.verify(dealRepository, Mockito.times(1)).findExistingUniqueIds(Mockito.anyCollection());
+	}
+
+	@Test
+	public void whenSubmitBulkDeals_WithEmptyBatch_ShouldThrowValidationException() {
+		Throwable expectedException = Assertions.assertThrows(
+				ValidationException.class,
+				() -> dealService.submitBulkRequest(Collections.emptyList())
+		);
+
+		Assertions.assertEquals(MessageConstants.EMPTY_BATCH, expectedException.getMessage());
+	}
+
+
+	@Test
+	public void whenSubmitBulkDeals_WithUnreachableOwnerNode_ShouldReportItsShareUnavailableAndStoreTheRest() {
+		DealProperties clusterProperties = new DealProperties();
+		clusterProperties.getCluster().setEnabled(true);
+		clusterProperties.getCluster().setSelf("http://localhost:1");
+		clusterProperties.getCluster().setNodes(List.of("http://localhost:1", "http://localhost:9"));
+		clusterProperties.getCluster().setPeerToken("secret");
+		DealRouter clusterRouter = new DealRouter(
+				clusterProperties, new RestTemplateBuilder(), new ObjectMapper(), new DealMetrics(meterRegistry));
+		DealService clusterDealService = new DealServiceImpl(
+				dealRepository,
+				composeDealRequestValidator(),
+				clusterProperties,
+				uniqueIdIndex,
+				dealIngestionQueue,
+				dealRollupService,
+				new DealMetrics(meterRegistry),
+				new IdempotencyCache(clusterProperties),
+				clusterRouter,
+				new DealCache(clusterProperties),
+				TransactionOperations.withoutTransaction()
+		);
+		List<DealRequest> dealRequests = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			dealRequests.add(composeDealRequest());
+		}
+
+		BulkDealResponse response = clusterDealService.submitBulkRequest(dealRequests).getBody();
+
+		Assertions.assertNotNull(response);
+		for (int i = 0; i < dealRequests.size(); i++) {
+			DealItemResult result = response.getResults().get(i);
+			Assertions.assertEquals(i, result.getIndex());
+			Assertions.assertEquals(clusterRouter.isLocal(dealRequests.get(i).getUniqueId())
+					? DealItemStatus.ACCEPTED : DealItemStatus.UNAVAILABLE, result.getStatus());
+		}
+		Assertions.assertTrue(response.getAccepted() > 0);
+		Assertions.assertTrue(response.getUnavailable() > 0);
+		Assertions.assertEquals(ResponseCodes.PARTIAL_SUCCESS.getValue(), response.getCode());
+		Assertions.assertEquals(MessageConstants.OWNER_NODE_UNAVAILABLE, response.getResults().stream()
+				.filter(result -> result.getStatus() == DealItemStatus.UNAVAILABLE)
+				.findFirst().orElseThrow().getMessages().get(0));
+	}
+
+	@Test
+	public void whenOwnerNodeAnswersAForwardedRequest_ShouldRelayItsHeaders() {
+		DealProperties clusterProperties = new DealProperties();
+		clusterProperties.getCluster().setEnabled(true);
+		clusterProperties.getCluster().setSelf("http://localhost:1");
+		clusterProperties.getCluster().setNodes(List.of("http://localhost:1", "http://localhost:9"));
+		clusterProperties.getCluster().setPeerToken("secret");
+		AtomicReference<MockRestServiceServer> owner = new AtomicReference<>();
+		DealRouter clusterRouter = new DealRouter(clusterProperties,
+				new RestTemplateBuilder(restTemplate -> owner.set(MockRestServiceServer.bindTo(restTemplate).build())),
+				new ObjectMapper(), new DealMetrics(meterRegistry));
+		owner.get().expect(MockRestRequestMatchers.requestTo("http://localhost:9/api/v1/fx-deals/submit"))
+				.andExpect(MockRestRequestMatchers.method(HttpMethod.POST))
+				.andExpect(MockRestRequestMatchers.header(MessageConstants.PEER_TOKEN_HEADER, "secret"))
+				.andRespond(MockRestResponseCreators.withSuccess("{\"code\":\"00\",\"message\":\"Deal saved\"}", MediaType.APPLICATION_JSON)
+						.header(MessageConstants.IDEMPOTENT_REPLAY_HEADER, "true")
+						.header("Connection", "close"));
+		owner.get().expect(MockRestRequestMatchers.requestTo("http://localhost:9/api/v1/fx-deals/remote-deal/status"))
+				.andRespond(MockRestResponseCreators.withStatus(HttpStatus.ACCEPTED)
+						.contentType(MediaType.APPLICATION_JSON)
+						.body("{\"uniqueId\":\"remote-deal\",\"state\":\"QUEUED\"}")
+						.header(HttpHeaders.RETRY_AFTER, "2"));
+
+		ResponseEntity<?> submitted = clusterRouter.forwardSubmit("http://localhost:9", composeDealRequest());
+		ResponseEntity<?> status = clusterRouter.forwardStatus("http://localhost:9", "remote-deal");
+
+		owner.get().verify();
+		Assertions.assertEquals(HttpStatus.OK, submitted.getStatusCode());
+		Assertions.assertEquals("true", submitted.getHeaders().getFirst(MessageConstants.IDEMPOTENT_REPLAY_HEADER));
+		Assertions.assertNull(submitted.getHeaders().getFirst("Connection"));
+		Assertions.assertEquals(HttpStatus.ACCEPTED, status.getStatusCode());
+		Assertions.assertEquals("2", status.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	private DealRequestValidator composeDealRequestValidator() {
+		return new DealRequestValidator(
+				List.of(new PositiveAmountRule(), new FromCurrencyRule(currencyValidator), new ToCurrencyRule(currencyValidator)),
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				dealProperties,
+				new DealMetrics(meterRegistry));
+	}
+
+	private DealService composeIdempotentDealService() {
+		dealProperties.getIdempotency().setEnabled(true);
+		return new DealServiceImpl(
+				dealRepository,
+				composeDealRequestValidator(),
+				dealProperties,
+				uniqueIdIndex,
+				dealIngestionQueue,
+				dealRollupService,
+				new DealMetrics(meterRegistry),
+				new IdempotencyCache(dealProperties, clock::get),
+				dealRouter,
+				new DealCache(dealProperties),
+				TransactionOperations.withoutTransaction()
+		);
+	}
 
 	private DealRequest composeDealRequest() {
 		return DealRequest.builder()
@@ -0,0 +1,38 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.repository.DealRepository;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"deals.warm-up.enabled=true", "deals.warm-up.rounds=20"})
+class DealWarmUpTests {
+
+	@Autowired
+	private ApplicationAvailability applicationAvailability;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DealRepository dealRepository;
+
+	@Test
+	public void whenApplicationIsReady_ShouldHaveServedTheWarmUpDealsOffTheRecordWithoutStoringThem() {
+		Assertions.assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+		// 20 single submits and one bulk of 100 rejected for their currency, and one bulk persisted then rolled back
+		Assertions.assertNull(meterRegistry.find("deals.rejected")
+				.tag("detail", MessageConstants.INVALID_TO_CURRENCY_CODE)
+				.counter());
+		Assertions.assertEquals(0.0, meterRegistry.get("deals.accepted").tag("stage", "persisted").counter().count());
+		Assertions.assertTrue(meterRegistry.get("deals.batch.latency").tag("phase", "persist").timer().count() > 0);
+		Assertions.assertFalse(dealRepository.existsByUniqueId("warm-up-0"));
+		Assertions.assertFalse(dealRepository.existsByUniqueId("warm-up-persist-0"));
+	}
+}
@@ -0,0 +1,9 @@
+package com.example.clusteredDataWarehouse;
+
+class PlatformThreadSubmitLoadTests extends SubmitLoadTests {
+
+	@Override
+	protected String mode() {
+		return "platform-threads";
+	}
+}
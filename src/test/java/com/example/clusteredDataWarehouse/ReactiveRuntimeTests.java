@@ -0,0 +1,105 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.dto.request.DealRequest;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.github.javafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The reactive runtime must answer like the servlet one: same statuses, codes and messages.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({"dev", "reactive"})
+public class ReactiveRuntimeTests {
+
+	private static final String DEALS_URL = "/api/v1/fx-deals";
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	private final Faker faker = new Faker();
+
+	@Test
+	public void whenDealIsSubmittedTwice_ShouldSaveItOnceAndServeIt() {
+		DealRequest dealRequest = composeDealRequest("USD", "EUR");
+
+		webTestClient.post().uri(DEALS_URL + "/submit").bodyValue(dealRequest).exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("code").isEqualTo(ResponseCodes.SUCCESS.getValue())
+				.jsonPath("message").isEqualTo(MessageConstants.SUCCESS);
+
+		webTestClient.post().uri(DEALS_URL + "/submit").bodyValue(dealRequest).exchange()
+				.expectStatus().isEqualTo(409)
+				.expectBody()
+				.jsonPath("code").isEqualTo(ResponseCodes.FAILURE.getValue())
+				.jsonPath("messages[0]").isEqualTo(MessageConstants.NON_UNIQUE_ID);
+
+		webTestClient.get().uri(DEALS_URL + "/" + dealRequest.getUniqueId()).exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("uniqueId").isEqualTo(dealRequest.getUniqueId())
+				.jsonPath("fromCurrency").isEqualTo("USD")
+				.jsonPath("toCurrency").isEqualTo("EUR")
+				.jsonPath("createdAt").exists();
+
+		webTestClient.get().uri(DEALS_URL + "/" + faker.lorem().characters(20)).exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void whenDealIsInvalid_ShouldRejectItLikeTheServletRuntime() {
+		webTestClient.post().uri(DEALS_URL + "/submit").bodyValue(composeDealRequest("USD", "XYZ")).exchange()
+				.expectStatus().isEqualTo(422)
+				.expectBody()
+				.jsonPath("messages[0]").isEqualTo(MessageConstants.INVALID_TO_CURRENCY_CODE);
+
+		webTestClient.post().uri(DEALS_URL + "/submit").bodyValue(composeDealRequest("", "EUR")).exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("code").isEqualTo(ResponseCodes.FAILURE.getValue())
+				.jsonPath("messages[0]").value(message -> org.junit.jupiter.api.Assertions.assertTrue(
+						message.toString().startsWith("fromCurrency: ")));
+	}
+
+	@Test
+	public void whenBulkHoldsDuplicatesAndInvalidDeals_ShouldReportEachItem() {
+		DealRequest accepted = composeDealRequest("GBP", "USD");
+		DealRequest repeated = composeDealRequest("GBP", "USD");
+		repeated.setUniqueId(accepted.getUniqueId());
+
+		webTestClient.post().uri(DEALS_URL + "/submit/bulk")
+				.bodyValue(Arrays.asList(accepted, repeated, composeDealRequest("GBP", "XYZ")))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("code").isEqualTo(ResponseCodes.PARTIAL_SUCCESS.getValue())
+				.jsonPath("accepted").isEqualTo(1)
+				.jsonPath("duplicates").isEqualTo(1)
+				.jsonPath("invalid").isEqualTo(1)
+				.jsonPath("results[1].status").isEqualTo("DUPLICATE")
+				.jsonPath("results[2].messages[0]").isEqualTo(MessageConstants.INVALID_TO_CURRENCY_CODE);
+
+		webTestClient.get().uri(DEALS_URL + "/" + accepted.getUniqueId()).exchange()
+				.expectStatus().isOk();
+	}
+
+	private DealRequest composeDealRequest(String fromCurrency, String toCurrency) {
+		return DealRequest.builder()
+				.uniqueId(faker.lorem().characters(15))
+				.fromCurrency(fromCurrency)
+				.toCurrency(toCurrency)
+				.amount(BigDecimal.valueOf(faker.number().numberBetween(1_000, 1_000_000)))
+				.build();
+	}
+}
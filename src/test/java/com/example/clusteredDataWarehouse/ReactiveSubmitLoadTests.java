@@ -0,0 +1,15 @@
+package com.example.clusteredDataWarehouse;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"dev", "reactive"})
+class ReactiveSubmitLoadTests extends SubmitLoadTests {
+
+	@Override
+	protected String mode() {
+		return "reactive";
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.clusteredDataWarehouse;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.clusteredDataWarehouse.config.DealProperties;
+import com.example.clusteredDataWarehouse.dto.response.ErrorResponse;
+import com.example.clusteredDataWarehouse.enums.RejectionReason;
+import com.example.clusteredDataWarehouse.enums.ResponseCodes;
+import com.example.clusteredDataWarehouse.exception.DuplicateException;
+import com.example.clusteredDataWarehouse.exception.ValidationException;
+import com.example.clusteredDataWarehouse.util.MessageConstants;
+import com.example.clusteredDataWarehouse.util.RejectionLogSampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+public class RejectionPathTests {
+
+	private final Logger samplerLogger = (Logger) LoggerFactory.getLogger(RejectionLogSampler.class);
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	@AfterEach
+	public void detachAppender() {
+		samplerLogger.detachAppender(appender);
+	}
+
+	@Test
+	public void whenRejecting_ShouldNotCaptureStackTrace() {
+		Assertions.assertEquals(0, new DuplicateException(MessageConstants.NON_UNIQUE_ID).getStackTrace().length);
+		Assertions.assertEquals(0, new ValidationException(MessageConstants.INVALID_DEAL_AMOUNT).getStackTrace().length);
+	}
+
+	@Test
+	public void whenSameRejectionRepeats_ShouldShareOneErrorResponse() {
+		ErrorResponse first = ErrorResponse.cached(ResponseCodes.FAILURE.getValue(), MessageConstants.NON_UNIQUE_ID);
+		ErrorResponse second = ErrorResponse.cached(ResponseCodes.FAILURE.getValue(), MessageConstants.NON_UNIQUE_ID);
+
+		Assertions.assertSame(first, second);
+		Assertions.assertEquals(MessageConstants.NON_UNIQUE_ID, first.getMessages().get(0));
+	}
+
+	@Test
+	public void whenSameRejectionRepeatsWithinInterval_ShouldLogItOnce() {
+		appender.start();
+		samplerLogger.addAppender(appender);
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getRejections().setLogIntervalMs(60_000);
+		RejectionLogSampler sampler = new RejectionLogSampler(dealProperties);
+
+		for (int i = 0; i < 100; i++) {
+			sampler.log(RejectionReason.DUPLICATE, MessageConstants.NON_UNIQUE_ID);
+		}
+		sampler.log(RejectionReason.VALIDATION, MessageConstants.INVALID_DEAL_AMOUNT);
+
+		Assertions.assertEquals(2, appender.list.size());
+	}
+
+	@Test
+	public void whenRejectionMessagesKeepChanging_ShouldSampleThemPastTheTrackedMessages() {
+		appender.start();
+		samplerLogger.addAppender(appender);
+		DealProperties dealProperties = new DealProperties();
+		dealProperties.getRejections().setLogIntervalMs(60_000);
+		RejectionLogSampler sampler = new RejectionLogSampler(dealProperties);
+
+		for (int i = 0; i < 10_000; i++) {
+			sampler.log(RejectionReason.VALIDATION, "field-" + i);
+		}
+
+		Assertions.assertEquals(257, appender.list.size());
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.clusteredDataWarehouse;
+
+import com.example.clusteredDataWarehouse.config.ReplicaLagMonitor;
+import com.example.clusteredDataWarehouse.config.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The "replica" is the test database itself, reached through a pool whose connections carry
+ * their own application_name, so the tests can tell which pool served a query.
+ */
+@SpringBootTest(properties = {
+		"deals.datasource.replica-routing=true",
+		"deals.datasource.replicas[0].name=replica-0",
+		"deals.datasource.replicas[0].url=jdbc:postgresql://localhost:5432/clustered_data?ApplicationName=replica-0",
+		"deals.datasource.max-replica-lag-ms=5000",
+		"deals.datasource.lag-check-interval-ms=3600000"
+})
+public class ReplicaRoutingTests {
+
+	private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLagMonitor;
+
+	@AfterEach
+	public void restoreLag() {
+		replicaRoutingDataSource.recordLag("replica-0", 0);
+	}
+
+	@Test
+	public void whenTransactionIsReadOnly_ShouldQueryReplica() {
+		Assertions.assertEquals("replica-0", applicationName(true));
+		Assertions.assertNotEquals("replica-0", applicationName(false));
+		Assertions.assertNotEquals("replica-0", jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+	}
+
+	@Test
+	public void whenReplicaLagsBehind_ShouldReadFromPrimary() {
+		replicaRoutingDataSource.recordLag("replica-0", 60_000);
+
+		Assertions.assertNotEquals("replica-0", applicationName(true));
+	}
+
+	@Test
+	public void whenLagIsChecked_OnAStandInForThePrimary_ShouldCountItAsCurrent() {
+		replicaRoutingDataSource.recordLag("replica-0", 60_000);
+
+		replicaLagMonitor.checkLag();
+
+		Assertions.assertEquals(0, replicaRoutingDataSource.lagOf("replica-0"));
+		Assertions.assertEquals("replica-0", applicationName(true));
+	}
+
+	private String applicationName(boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+	}
+}
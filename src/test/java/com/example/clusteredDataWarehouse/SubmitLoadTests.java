@@ -0,0 +1,124 @@
+package com.example.clusteredDataWarehouse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Fires concurrent /submit calls at a locally started instance and records throughput and latency
+ * percentiles under target/load-tests, and logs how each mode compares with those already measured.
+ * Run the thread modes and the reactive runtime with:
+ * {@code mvn -Pjava21 test -DexcludedTestGroups= -Dgroups=load}
+ */
+@Tag("load")
+@Slf4j
+// measures what a node can take, so nothing is shed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "deals.limiter.enabled=false")
+abstract class SubmitLoadTests {
+
+	private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+
+	@Value("${local.server.port}")
+	private int port;
+
+	protected abstract String mode();
+
+	@Test
+	public void whenSubmittingConcurrently_ShouldReportThroughputAndLatency() throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(Executors.newFixedThreadPool(16))
+				.build();
+		URI submitUri = URI.create("http://localhost:" + port + "/api/v1/fx-deals/submit");
+
+		long[] latencies = new long[REQUESTS];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+
+		long started = System.nanoTime();
+		for (int worker = 0; worker < CONCURRENCY; worker++) {
+			workers.execute(() -> {
+				for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+					String body = "{\"uniqueId\":\"" + UUID.randomUUID()
+							+ "\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":100}";
+					HttpRequest request = HttpRequest.newBuilder(submitUri)
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString(body))
+							.build();
+					long sent = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 300) {
+							failures.incrementAndGet();
+						}
+					} catch (Exception ex) {
+						failures.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - sent;
+				}
+			});
+		}
+		workers.shutdown();
+		Assertions.assertTrue(workers.awaitTermination(10, TimeUnit.MINUTES));
+		double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+		Arrays.sort(latencies);
+		String result = String.format(
+				"{\"mode\":\"%s\",\"requests\":%d,\"concurrency\":%d,\"failures\":%d,\"throughput\":%.1f,"
+						+ "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f}",
+				mode(), REQUESTS, CONCURRENCY, failures.get(), REQUESTS / elapsedSeconds,
+				percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+		log.info("load test result {}", result);
+
+		Path output = Paths.get("target", "load-tests", mode() + ".json");
+		Files.createDirectories(output.getParent());
+		Files.writeString(output, result);
+		reportAgainstOtherModes(output);
+
+		Assertions.assertTrue(failures.get() < REQUESTS, "every request failed");
+	}
+
+	// the modes run one after another in the same build; each compares itself with those that ran before it
+	private void reportAgainstOtherModes(Path output) throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		JsonNode own = objectMapper.readTree(output.toFile());
+		try (Stream<Path> files = Files.list(output.getParent())) {
+			for (Path file : files.filter(other -> !other.equals(output)).sorted().toList()) {
+				JsonNode other = objectMapper.readTree(file.toFile());
+				log.info("load test {} against {}: throughput {} vs {} req/s ({}), p99 {} vs {} ms",
+						mode(), other.path("mode").asText(),
+						own.path("throughput").asDouble(), other.path("throughput").asDouble(),
+						String.format("%+.1f%%", (own.path("throughput").asDouble() / other.path("throughput").asDouble() - 1) * 100),
+						own.path("p99Ms").asDouble(), other.path("p99Ms").asDouble());
+			}
+		}
+	}
+
+	private static double percentile(long[] sortedNanos, double percentile) {
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(index, 0)] / 1e6;
+	}
+}
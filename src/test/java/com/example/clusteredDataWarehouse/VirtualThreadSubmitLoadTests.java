@@ -0,0 +1,26 @@
+package com.example.clusteredDataWarehouse;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles({"dev", "virtual"})
+class VirtualThreadSubmitLoadTests extends SubmitLoadTests {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	// without -Pjava21 the virtual-thread configuration is not compiled in and requests stay on platform threads
+	@BeforeEach
+	public void requireVirtualThreads() {
+		Assumptions.assumeTrue(applicationContext.containsBean("virtualThreadProtocolHandlerCustomizer"),
+				"virtual threads need a -Pjava21 build");
+	}
+
+	@Override
+	protected String mode() {
+		return "virtual-threads";
+	}
+}